@@ -0,0 +1,276 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decouples the stream pumps of a child process from a slow console. Lines
+ * are queued in a bounded ring buffer and written by a separate task in
+ * batches, with one flush per batch. When the buffer is full the
+ * {@link OverflowPolicy} decides whether the pump waits or lines are dropped,
+ * so that the Payara process does not stall on a full pipe unless the
+ * policy asks for it.
+ */
+public class AsyncConsoleSink implements AutoCloseable {
+
+    /**
+     * What happens to a line which arrives while the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Waits for the console, nothing is lost.
+         */
+        BLOCK,
+        /**
+         * Drops debug lines (FINE, FINER, FINEST, CONFIG and DEBUG, TRACE),
+         * waits for the others.
+         */
+        DROP_DEBUG,
+        /**
+         * Keeps one line in {@link #SAMPLE_RATE} and drops the others until
+         * the console catches up.
+         */
+        SAMPLE;
+
+        /**
+         * @return the policy of the name, e.g. {@code drop-debug}, or
+         * {@link #BLOCK} if the name is null
+         * @throws IllegalArgumentException if there is no such policy
+         */
+        public static OverflowPolicy of(String name) {
+            return name == null || name.trim().isEmpty() ? BLOCK
+                    : valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int SAMPLE_RATE = 10;
+    private static final int MAX_BATCH = 512;
+    private static final int DEBUG_LEVEL_VALUE = 800;
+    private static final String LEVEL_VALUE = "[levelValue: ";
+    private static final MarkerMatcher DEBUG_MARKERS = new MarkerMatcher(
+            "[FINE]", "[FINER]", "[FINEST]", "[CONFIG]", "[DEBUG]", "[TRACE]");
+
+    private final PrintStream target;
+    private final OverflowPolicy policy;
+    private final Log log;
+    private final String[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int head;
+    private int size;
+    private int overflowCount;
+    private boolean closed;
+    // a batch taken from the buffer is being written to the console
+    private boolean flushing;
+    private long droppedCount;
+    private long throttledCount;
+
+    /**
+     * @param target the console
+     * @param capacity the number of lines buffered
+     * @param policy the overflow policy
+     * @param threads the owner of the writer task
+     * @param log the logger for the overflow summary
+     */
+    public AsyncConsoleSink(PrintStream target, int capacity, OverflowPolicy policy, ProcessThreads threads, Log log) {
+        this.target = target;
+        this.policy = policy;
+        this.log = log;
+        this.buffer = new String[Math.max(1, capacity)];
+        threads.submit("console", this::write);
+    }
+
+    public void println(String line) {
+        lock.lock();
+        try {
+            if (closed) {
+                target.println(line);
+                return;
+            }
+            if (size == buffer.length) {
+                if (policy == OverflowPolicy.DROP_DEBUG && isDebug(line)
+                        || policy == OverflowPolicy.SAMPLE && overflowCount++ % SAMPLE_RATE != 0) {
+                    droppedCount++;
+                    return;
+                }
+                throttledCount++;
+                while (size == buffer.length && !closed) {
+                    notFull.await();
+                }
+                if (closed) {
+                    target.println(line);
+                    return;
+                }
+            } else {
+                overflowCount = 0;
+            }
+            buffer[(head + size) % buffer.length] = line;
+            size++;
+            notEmpty.signal();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            droppedCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of lines dropped by the overflow policy
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of lines which waited for space in the buffer
+     */
+    public long getThrottledCount() {
+        lock.lock();
+        try {
+            return throttledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the buffered lines and stops the writer, the lines printed
+     * afterwards are written directly.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            // wait for the writer to drain the buffer, unless it is gone
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((size > 0 || flushing) && System.nanoTime() < deadline) {
+                notFull.awaitNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+            notFull.signalAll();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        if (droppedCount > 0 || throttledCount > 0) {
+            log.warn("Console output was slower than the server: " + droppedCount + " line(s) dropped, "
+                    + throttledCount + " line(s) throttled (overflow policy " + policy + ")");
+        }
+    }
+
+    private void write() {
+        StringBuilder batch = new StringBuilder();
+        String separator = System.lineSeparator();
+        boolean interrupted = false;
+        while (true) {
+            lock.lock();
+            try {
+                while (size == 0 && !closed && !interrupted) {
+                    try {
+                        notEmpty.await();
+                    } catch (InterruptedException ex) {
+                        // drain what is left and stop
+                        interrupted = true;
+                    }
+                }
+                if (size == 0) {
+                    notFull.signalAll();
+                    return;
+                }
+                int count = Math.min(size, MAX_BATCH);
+                for (int i = 0; i < count; i++) {
+                    batch.append(buffer[head]).append(separator);
+                    buffer[head] = null;
+                    head = (head + 1) % buffer.length;
+                }
+                size -= count;
+                flushing = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            target.print(batch);
+            target.flush();
+            batch.setLength(0);
+            lock.lock();
+            try {
+                flushing = false;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static boolean isDebug(String line) {
+        if (DEBUG_MARKERS.match(line) != 0) {
+            return true;
+        }
+        int index = line.lastIndexOf(LEVEL_VALUE);
+        if (index < 0) {
+            return false;
+        }
+        int value = 0;
+        int i = index + LEVEL_VALUE.length();
+        int digitsStart = i;
+        for (; i < line.length() && line.charAt(i) >= '0' && line.charAt(i) <= '9' && i - digitsStart < 9; i++) {
+            value = value * 10 + line.charAt(i) - '0';
+        }
+        return i > digitsStart && value < DEBUG_LEVEL_VALUE;
+    }
+}
@@ -39,12 +39,16 @@
 package fish.payara.maven.plugins;
 
 import static fish.payara.maven.plugins.Configuration.CLASSES_DIRECTORY;
+import static fish.payara.maven.plugins.Configuration.CONTENT_HASH_INDEX;
+import static fish.payara.maven.plugins.Configuration.DEV_METRICS_FILE;
+import static fish.payara.maven.plugins.Configuration.DEV_STAGING_DIRECTORY;
 import static fish.payara.maven.plugins.Configuration.GOAL_CLEAN;
 import static fish.payara.maven.plugins.Configuration.GOAL_COMPILE;
 import static fish.payara.maven.plugins.Configuration.GOAL_PROCESS_RESOURCES;
 import static fish.payara.maven.plugins.Configuration.GOAL_WAR;
 import static fish.payara.maven.plugins.Configuration.GOAL_WAR_EXPLODED;
 import static fish.payara.maven.plugins.Configuration.INOTIFY_USER_LIMIT_REACHED_MESSAGE;
+import static fish.payara.maven.plugins.Configuration.INOTIFY_WATCH_LIMIT_REACHED_MESSAGE;
 import static fish.payara.maven.plugins.Configuration.JAVA_DIR;
 import static fish.payara.maven.plugins.Configuration.JAVA_FILE_EXTENSION;
 import static fish.payara.maven.plugins.Configuration.MAIN_DIR;
@@ -59,11 +63,12 @@ import static fish.payara.maven.plugins.Configuration.SKIP_TESTS_OPTION;
 import static fish.payara.maven.plugins.Configuration.SRC_DIR;
 import static fish.payara.maven.plugins.Configuration.TEST_DIR;
 import static fish.payara.maven.plugins.Configuration.WATCH_SERVICE_ERROR_MESSAGE;
+import static fish.payara.maven.plugins.Configuration.WATCH_SERVICE_FALLBACK_MESSAGE;
 import static fish.payara.maven.plugins.Configuration.WEB_INF_DIRECTORY;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.FileSystems;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -72,24 +77,42 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardWatchEventKinds;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.maven.model.Profile;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
@@ -111,16 +134,51 @@ public abstract class AutoDeployHandler implements Runnable {
     private final File webappDirectory;
     protected final Log log;
     private final ExecutorService executorService;
-    private WatchService watchService;
+    private final ExecutorService deployExecutorService;
+    private WatchRegistry.ProjectWatchService watchService;
+    private boolean watchLimitReached;
     private Future<?> buildReloadTask;
-    private long buildReloadTaskStartTime;
     private final AtomicBoolean cleanPending = new AtomicBoolean(false);
+    private final Set<Path> deletedPending = ConcurrentHashMap.newKeySet();
     protected final ConcurrentSkipListSet<Source> sourceUpdatedPending = new ConcurrentSkipListSet<>();
     private final AtomicBoolean stopRequested = new AtomicBoolean(false);
-    private final Path buildPath, ideaPath,
-            eclipsePath, eclipseClasspathPath, eclipseProjectPath,
-            vscodePath, nbPath;
+    private IncrementalCompiler compiler;
+    private volatile ClassDependencyGraph dependencyGraph;
+    private WarmBuildExecutor warmBuildExecutor;
+    private final AtomicBoolean pomModified = new AtomicBoolean(false);
+    private final long[] buildCount = new long[2], buildTime = new long[2];
+    private final Path buildPath;
+    private final WatchFilter watchFilter;
+    private final ReactorModules reactorModules;
+    private final Map<MavenProject, WatchFilter> moduleWatchFilters = new HashMap<>();
+    private final Set<MavenProject> modulesUpdatedPending = ConcurrentHashMap.newKeySet();
+    private Future<?> reactorBuildTask;
+    private final DebounceScheduler scheduler;
+    private final ContentHashIndex hashIndex;
+    private final StaticResourceSync staticSync;
+    private final StaleOutputs staleOutputs;
+    private final TestLane testLane;
+    private final DevMetrics metrics;
+    private long detectTime;
+    private final Deque<Path> stagedOutputs = new ArrayDeque<>();
+    private final List<Source> deployChanges = new ArrayList<>();
+    private final Set<String> deployClasses = new HashSet<>();
+    private boolean deployQueued;
+    private boolean rebootQueued;
+    private final AtomicInteger stagingCount = new AtomicInteger();
     protected final static String RELOADING = "Reloading";
+    private static final long IDLE_POLL_TIMEOUT = 60000;
+    private static final int STORM_RATE_THRESHOLD = 500;
+    private static final long STORM_WINDOW = 1000;
+    private static final int STORM_BATCH_THRESHOLD = 2000;
+    private static final long STORM_SETTLE_PERIOD = 1000;
+    private final EventStormDetector stormDetector = new EventStormDetector(STORM_RATE_THRESHOLD, STORM_WINDOW, STORM_BATCH_THRESHOLD);
+    private boolean storm;
+    private int stormEvents;
+    private long stormStartTime;
+    private long lastStormEventTime;
+    private int eventCount;
+    private long eventProcessingTime;
 
     public AutoDeployHandler(StartTask start, File webappDirectory) {
         this.start = start;
@@ -128,13 +186,26 @@ public abstract class AutoDeployHandler implements Runnable {
         this.webappDirectory = webappDirectory;
         this.log = start.getLog();
         this.executorService = Executors.newSingleThreadExecutor();
+        this.deployExecutorService = Executors.newSingleThreadExecutor();
+        this.scheduler = new DebounceScheduler(start.getWatchQuietPeriod(),
+                Math.max(start.getWatchQuietPeriod(), start.getWatchMaxLatency()));
+        this.staticSync = new StaticResourceSync(project, webappDirectory);
+        this.staleOutputs = new StaleOutputs(project, staticSync);
+        this.testLane = start.isContinuousTesting() ? new TestLane(project, getClassesOutputDirectory(), log) : null;
+        this.metrics = new DevMetrics(Paths.get(project.getBuild().getDirectory(), DEV_METRICS_FILE), log);
         this.buildPath = project.getBasedir().toPath().resolve("target");
-        this.ideaPath = project.getBasedir().toPath().resolve(".idea");
-        this.eclipsePath = project.getBasedir().toPath().resolve(".settings");
-        this.vscodePath = project.getBasedir().toPath().resolve(".vscode");
-        this.eclipseClasspathPath = project.getBasedir().toPath().resolve(".classpath");
-        this.eclipseProjectPath = project.getBasedir().toPath().resolve(".project");
-        this.nbPath = project.getBasedir().toPath().resolve("nb-configuration.xml");
+        this.hashIndex = new ContentHashIndex(project.getBasedir().toPath(),
+                Paths.get(project.getBuild().getDirectory(), CONTENT_HASH_INDEX), log);
+        this.watchFilter = new WatchFilter(project.getBasedir().toPath(), buildPath,
+                start.getWatchIncludes(), start.getWatchExcludes(), log);
+        this.reactorModules = new ReactorModules(project,
+                start.getExecutionEnvironment() != null ? start.getExecutionEnvironment().getMavenSession() : null,
+                webappDirectory, log);
+        for (MavenProject module : reactorModules.getModules()) {
+            moduleWatchFilters.put(module, new WatchFilter(module.getBasedir().toPath(),
+                    Paths.get(module.getBuild().getDirectory()),
+                    start.getWatchIncludes(), start.getWatchExcludes(), log));
+        }
     }
 
     public void stop() {
@@ -145,17 +216,52 @@ public abstract class AutoDeployHandler implements Runnable {
         return !stopRequested.get();
     }
 
+    /**
+     * Called by the log reader of the application server once the
+     * application is deployed, to complete the latency metrics of the cycle.
+     */
+    public void deployed() {
+        metrics.deployed();
+    }
+
+    /**
+     * Called by the application server once a startup time of the instance
+     * is known, to report it with the metrics of the dev cycles.
+     */
+    public void startupMeasured(String phase, long time) {
+        metrics.startupMeasured(phase, time);
+    }
+
     @Override
     public void run() {
         try {
             Path rootPath = project.getBasedir().toPath();
-            this.watchService = FileSystems.getDefault().newWatchService();
-            rootPath.register(watchService,
-                    ENTRY_CREATE,
-                    ENTRY_DELETE,
-                    ENTRY_MODIFY);
-
-            registerAllDirectories(rootPath);
+            WatchRegistry registry = WatchRegistry.getInstance();
+            if (start.isWatchPolling()) {
+                this.watchService = registry.newPollingWatchService(start.getWatchPollInterval(), log);
+            } else {
+                try {
+                    this.watchService = registry.newWatchService();
+                } catch (IOException ex) {
+                    if (!hasInotifyLimitReachedException(ex)) {
+                        throw ex;
+                    }
+                    log.warn(WATCH_SERVICE_FALLBACK_MESSAGE);
+                    this.watchService = registry.newPollingWatchService(start.getWatchPollInterval(), log);
+                }
+            }
+            registerProject();
+            log.debug("Watching " + registry.getDirectoryCount() + " directories in this JVM");
+            if (!reactorModules.getModules().isEmpty()) {
+                log.info("Watching reactor module(s): " + reactorModules.getModules().stream()
+                        .map(MavenProject::getArtifactId).collect(Collectors.joining(", ")));
+            }
+            hashIndex.load();
+            seedContentHashes(rootPath);
+            for (MavenProject module : reactorModules.getModules()) {
+                seedContentHashes(module.getBasedir().toPath());
+            }
+            log.debug("Content hash index contains " + hashIndex.size() + " file(s)");
 
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 try {
@@ -163,110 +269,98 @@ public abstract class AutoDeployHandler implements Runnable {
                         buildReloadTask.cancel(true);
                     }
                     executorService.shutdown();
+                    deployExecutorService.shutdown();
+                    if (testLane != null) {
+                        testLane.close();
+                    }
+                    if (compiler != null) {
+                        compiler.close();
+                    }
+                    hashIndex.save();
                 } catch (Exception ex) {
                     log.error(ex);
                 }
             }));
-            // Create a set of paths to ignore that are directories
-            Set<Path> ignoredDirectories = Set.of(
-                    buildPath, ideaPath, eclipsePath, vscodePath
-            );
-
-            // Create a set of specific files to ignore
-            Set<Path> ignoredFiles = Set.of(
-                    eclipseClasspathPath, eclipseProjectPath, nbPath
-            );
+            Path javaDirectory = rootPath.resolve(SRC_DIR).resolve(MAIN_DIR).resolve(JAVA_DIR);
 
+            List<Source> pendingChanges = new ArrayList<>();
+            long settlePeriod = Math.max(start.getWatchQuietPeriod(), STORM_SETTLE_PERIOD);
             while (isAlive()) {
-                WatchKey key = watchService.poll(60, TimeUnit.SECONDS);
+                long delay = storm
+                        ? Math.max(0, lastStormEventTime + settlePeriod - currentTime())
+                        : scheduler.getDelay(IDLE_POLL_TIMEOUT);
+                WatchKey key = watchService.poll(delay, TimeUnit.MILLISECONDS);
                 if (key != null) {
-                    List<WatchEvent<?>> filteredEvents = new ArrayList<>();
+                    long eventStartTime = System.nanoTime();
                     for (WatchEvent<?> event : key.pollEvents()) {
-                        Path changed = (Path) event.context();
-                        Path fullPath = ((Path) key.watchable()).resolve(changed);
-
-                        // Check if the fullPath is in an ignored directory
-                        boolean isInIgnoredDirectory = ignoredDirectories.stream().anyMatch(fullPath::startsWith);
-                        boolean isIgnoredFile = ignoredFiles.contains(fullPath);
-                        boolean isTemporaryFile = fullPath.toString().endsWith("~");
-                        boolean isDirectory = Files.isDirectory(fullPath);
-
-                        // Skip the event if it's in an ignored directory, an ignored file, a temp file, or a directory
-                        if (isInIgnoredDirectory || isIgnoredFile || isTemporaryFile || isDirectory) {
+                        eventCount++;
+                        if (!storm && (event.kind() == OVERFLOW || stormDetector.eventReceived())) {
+                            startStorm(pendingChanges);
+                        }
+                        if (event.kind() == OVERFLOW) {
                             continue;
                         }
-                        filteredEvents.add(event);
-                    }
-                    if (!filteredEvents.isEmpty()) {
-                        boolean skip = false;
-                        if (buildReloadTask != null && !buildReloadTask.isDone()) {
-                            long duration = (System.currentTimeMillis() - buildReloadTaskStartTime);
-                            if (duration < 1000 && sourceUpdatedPending.size() == filteredEvents.size()) {
-                                skip = true;
-                            }
-                            log.debug("Duration : " + duration + ", skip : " + skip);
-                            if (!skip) {
-                                buildReloadTask.cancel(true);
+                        Path changed = (Path) event.context();
+                        Path fullPath = ((Path) key.watchable()).resolve(changed);
+                        if (storm) {
+                            // no per-file bookkeeping, the storm ends with a full rebuild
+                            stormEvents++;
+                            lastStormEventTime = currentTime();
+                            if (event.kind() == ENTRY_CREATE && Files.isDirectory(fullPath, LinkOption.NOFOLLOW_LINKS)
+                                    && !getWatchFilter(fullPath).isExcludedDirectory(fullPath)) {
+                                registerAllDirectories(fullPath);
                             }
+                            continue;
                         }
-                        if (!skip) {
-                            boolean resourceModified = false;
-                            boolean testClassesModified = false;
-                            boolean testResourcesModified = false;
-                            boolean classesModified = false;
-                            boolean rebootRequired = false;
-                            for (WatchEvent<?> event : filteredEvents) {
-                                WatchEvent.Kind<?> kind = event.kind();
-                                Path changed = (Path) event.context();
-                                Path fullPath = ((Path) key.watchable()).resolve(changed);
-                                log.debug("Source modified: " + changed + " - " + kind);
-
-                                Path projectRoot = Paths.get(project.getBasedir().toURI());
-                                Path sourceRoot = projectRoot.resolve(SRC_DIR);
-                                Path mainDirectory = sourceRoot.resolve(MAIN_DIR);
-                                Path javaDirectory = mainDirectory.resolve(JAVA_DIR);
-                                Path resourcesDirectory = mainDirectory.resolve(RESOURCES_DIR);
-                                Path testDirectory = sourceRoot.resolve(TEST_DIR);
-                                Path javaTestDirectory = testDirectory.resolve(JAVA_DIR);
-                                Path resourcesTestDirectory = testDirectory.resolve(RESOURCES_DIR);
-
-                                sourceUpdatedPending.add(new Source(fullPath, kind, fullPath.startsWith(javaDirectory)));
-                                if (fullPath.startsWith(resourcesDirectory)) {
-                                    resourceModified = true;
-                                }
-                                if (fullPath.startsWith(resourcesTestDirectory)) {
-                                    testResourcesModified = true;
-                                }
-                                if (fullPath.startsWith(javaTestDirectory)) {
-                                    testClassesModified = true;
-                                }
-                                if (fullPath.startsWith(javaDirectory)) {
-                                    classesModified = true;
-                                }
-                                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-                                    if (Files.isDirectory(fullPath, LinkOption.NOFOLLOW_LINKS)) {
-                                        register(fullPath); // register watch service for newly created dir
-                                    }
-                                }
-                                if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
-                                    cleanPending.set(true);
-                                }
-                                if (start.getRebootOnChange().contains(changed.toString())) {
-                                    rebootRequired = true;
-                                    cleanPending.set(true);
-                                    break;
-                                }
-                            }
 
-                            log.debug("sourceUpdatedPending: " + sourceUpdatedPending);
-                            if (!sourceUpdatedPending.isEmpty()) {
-                                WebDriverFactory.updateTitle("Building", project, start.getDriver(), log);
-                                List<String> goalsList = updateGoalsList(classesModified, resourceModified, testClassesModified, testResourcesModified);
-                                executeBuildReloadTask(goalsList, rebootRequired);
+                        if (Files.isDirectory(fullPath, LinkOption.NOFOLLOW_LINKS)) {
+                            if (event.kind() == ENTRY_CREATE && !getWatchFilter(fullPath).isExcludedDirectory(fullPath)) {
+                                registerAllDirectories(fullPath); // register watch service for newly created dir
+                                // files created before the registration raised no event
+                                walkWatchedTree(fullPath, directory -> {
+                                }, file -> {
+                                    if (!getWatchFilter(file).isExcludedFile(file)) {
+                                        recordDetectTime(pendingChanges, file);
+                                        pendingChanges.add(new Source(file, ENTRY_CREATE, file.startsWith(javaDirectory)));
+                                        scheduler.eventReceived();
+                                    }
+                                });
                             }
+                            continue;
                         }
+                        // a deleted path may have been a file or a directory
+                        WatchFilter filter = getWatchFilter(fullPath);
+                        if (filter.isExcludedFile(fullPath)
+                                || (event.kind() == ENTRY_DELETE && filter.isExcludedDirectory(fullPath))) {
+                            continue;
+                        }
+                        recordDetectTime(pendingChanges, fullPath);
+                        pendingChanges.add(new Source(fullPath, event.kind(), fullPath.startsWith(javaDirectory)));
+                        scheduler.eventReceived();
                     }
                     key.reset();
+                    eventProcessingTime += System.nanoTime() - eventStartTime;
+                }
+                if (storm) {
+                    if (currentTime() - lastStormEventTime >= settlePeriod) {
+                        processStorm();
+                    }
+                } else if (scheduler.isDue()) {
+                    long latency = scheduler.dispatched();
+                    stormDetector.reset();
+                    long dispatchStartTime = System.nanoTime();
+                    dropUnchangedContent(pendingChanges);
+                    eventProcessingTime += System.nanoTime() - dispatchStartTime;
+                    if (!pendingChanges.isEmpty()) {
+                        log.debug("Dispatching " + pendingChanges.size() + " change(s) coalesced over " + latency + " ms");
+                        metrics.cycleStarted(pendingChanges.size(), detectTime, latency);
+                        metrics.eventsProcessed(eventCount, TimeUnit.NANOSECONDS.toMillis(eventProcessingTime), false);
+                        processChanges(pendingChanges);
+                        pendingChanges.clear();
+                    }
+                    eventCount = 0;
+                    eventProcessingTime = 0;
+                    hashIndex.save();
                 }
             }
         } catch (Exception ex) {
@@ -274,12 +368,350 @@ public abstract class AutoDeployHandler implements Runnable {
             if (hasInotifyLimitReachedException(ex)) {
                 log.error(WATCH_SERVICE_ERROR_MESSAGE);
             }
+        } finally {
+            if (watchService != null) {
+                watchService.close();
+            }
         }
     }
 
+    /**
+     * Drops the pending changes, a storm of file events (e.g. a git checkout
+     * or pull) is handled by a single full rebuild once it settles.
+     */
+    private void startStorm(List<Source> pendingChanges) {
+        storm = true;
+        stormEvents = pendingChanges.size();
+        stormStartTime = currentTime();
+        lastStormEventTime = stormStartTime;
+        pendingChanges.clear();
+        scheduler.dispatched();
+        log.info("File event storm detected, waiting for it to settle before a full rebuild of " + project.getName());
+    }
+
+    /**
+     * Rebuilds the project and its reactor modules from scratch after a
+     * storm. The content hashes are seeded again, which only reads the files
+     * whose size or modification time changed.
+     */
+    private void processStorm() throws IOException {
+        storm = false;
+        stormDetector.reset();
+        long duration = currentTime() - stormStartTime;
+        log.info("File event storm settled after " + stormEvents + " event(s) in " + duration + " ms");
+        Path pomFile = project.getBasedir().toPath().resolve(POM_XML);
+        long seedStartTime = System.nanoTime();
+        boolean pomChanged = hashIndex.update(pomFile);
+        seedContentHashes(project.getBasedir().toPath());
+        for (MavenProject module : reactorModules.getModules()) {
+            seedContentHashes(module.getBasedir().toPath());
+        }
+        hashIndex.save();
+        eventProcessingTime += System.nanoTime() - seedStartTime;
+
+        metrics.cycleStarted(stormEvents, 0, duration);
+        metrics.eventsProcessed(eventCount, TimeUnit.NANOSECONDS.toMillis(eventProcessingTime), true);
+        eventCount = 0;
+        eventProcessingTime = 0;
+
+        if (testLane != null) {
+            testLane.cancel();
+        }
+        if (buildReloadTask != null && !buildReloadTask.isDone()) {
+            buildReloadTask.cancel(true);
+        }
+        if (!reactorModules.isEmpty()) {
+            buildReactorModules(new LinkedHashSet<>(reactorModules.getModules()), false);
+        }
+        if (pomChanged) {
+            pomModified();
+        }
+        deletedPending.clear();
+        cleanPending.set(true);
+        sourceUpdatedPending.add(new Source(pomFile, ENTRY_MODIFY, false));
+        WebDriverFactory.updateTitle("Building", project, start.getDriver(), log);
+        executeBuildReloadTask(updateGoalsList(true, true, false, false), false);
+    }
+
+    private static long currentTime() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * The detection latency of a batch is the delay between the modification
+     * of its first file and the watch event.
+     */
+    private void recordDetectTime(List<Source> pendingChanges, Path path) {
+        if (pendingChanges.isEmpty()) {
+            try {
+                detectTime = Math.max(0, System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException ex) {
+                detectTime = 0; // deleted
+            }
+        }
+    }
+
+    /**
+     * Indexes the sources and the pom.xml up front, so that the first no-op
+     * save of a file does not trigger a build.
+     */
+    private void seedContentHashes(Path rootPath) throws IOException {
+        hashIndex.seed(rootPath.resolve(POM_XML));
+        Path sourceRoot = rootPath.resolve(SRC_DIR);
+        if (Files.isDirectory(sourceRoot)) {
+            try (Stream<Path> files = Files.walk(sourceRoot)) {
+                files.filter(Files::isRegularFile).forEach(hashIndex::seed);
+            }
+        }
+    }
+
+    /**
+     * Drops the events of files whose content is the same as when they were
+     * last indexed. The content is checked once per file and batch, after the
+     * events settled, so that a delete and re-create by an atomic editor save
+     * is dropped as well.
+     */
+    private void dropUnchangedContent(List<Source> changes) {
+        Map<Path, Boolean> contentChanged = new HashMap<>();
+        int size = changes.size();
+        changes.removeIf(source -> !contentChanged.computeIfAbsent(source.getPath(), hashIndex::update));
+        if (changes.size() < size) {
+            log.debug("Ignoring " + (size - changes.size()) + " event(s) for files with unchanged content");
+        }
+    }
+
+    /**
+     * Merges a coalesced batch of changes into the pending sources and starts
+     * a single build for all of them. A build still in flight is cancelled,
+     * its sources stay pending and are rebuilt together with the new batch.
+     */
+    private void processChanges(List<Source> changes) {
+        if (!reactorModules.isEmpty()) {
+            Set<MavenProject> changedModules = new LinkedHashSet<>();
+            changes = new ArrayList<>(changes);
+            changes.removeIf(source -> {
+                MavenProject module = reactorModules.getModule(source.getPath());
+                if (module != null) {
+                    log.debug("Source modified in " + module.getArtifactId() + ": " + source.getPath().getFileName() + " - " + source.getKind());
+                    changedModules.add(module);
+                }
+                return module != null;
+            });
+            if (!changedModules.isEmpty()) {
+                buildReactorModules(changedModules, changes.isEmpty());
+            }
+            if (changes.isEmpty()) {
+                return;
+            }
+        }
+        if (testLane != null) {
+            changes = scheduleTestChanges(changes);
+            if (changes.isEmpty()) {
+                return;
+            }
+        }
+        if (syncStaticChanges(changes)) {
+            return;
+        }
+        if (testLane != null) {
+            testLane.cancel();
+        }
+        if (buildReloadTask != null && !buildReloadTask.isDone()) {
+            log.debug("Cancelling in-flight build, " + changes.size() + " new change(s) pending");
+            buildReloadTask.cancel(true);
+        }
+        boolean resourceModified = false;
+        boolean testClassesModified = false;
+        boolean testResourcesModified = false;
+        boolean classesModified = false;
+        boolean rebootRequired = false;
+
+        Path projectRoot = Paths.get(project.getBasedir().toURI());
+        Path sourceRoot = projectRoot.resolve(SRC_DIR);
+        Path mainDirectory = sourceRoot.resolve(MAIN_DIR);
+        Path javaDirectory = mainDirectory.resolve(JAVA_DIR);
+        Path resourcesDirectory = mainDirectory.resolve(RESOURCES_DIR);
+        Path testDirectory = sourceRoot.resolve(TEST_DIR);
+        Path javaTestDirectory = testDirectory.resolve(JAVA_DIR);
+        Path resourcesTestDirectory = testDirectory.resolve(RESOURCES_DIR);
+
+        for (Source source : changes) {
+            WatchEvent.Kind<?> kind = source.getKind();
+            Path fullPath = source.getPath();
+            Path changed = fullPath.getFileName();
+            log.debug("Source modified: " + changed + " - " + kind);
+
+            sourceUpdatedPending.add(source);
+            if (fullPath.startsWith(resourcesDirectory)) {
+                resourceModified = true;
+            }
+            if (fullPath.startsWith(resourcesTestDirectory)) {
+                testResourcesModified = true;
+            }
+            if (fullPath.startsWith(javaTestDirectory)) {
+                testClassesModified = true;
+            }
+            if (fullPath.startsWith(javaDirectory)) {
+                classesModified = true;
+            }
+            if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                if (isStaleOutputMapped(fullPath)) {
+                    deletedPending.add(fullPath);
+                } else {
+                    cleanPending.set(true);
+                }
+            }
+            if (fullPath.equals(projectRoot.resolve(POM_XML))) {
+                cleanPending.set(true);
+                pomModified();
+            }
+            if (start.getRebootOnChange().contains(changed.toString())) {
+                rebootRequired = true;
+                cleanPending.set(true);
+                break;
+            }
+        }
+
+        log.debug("sourceUpdatedPending: " + sourceUpdatedPending);
+        if (!sourceUpdatedPending.isEmpty()) {
+            WebDriverFactory.updateTitle("Building", project, start.getDriver(), log);
+            List<String> goalsList = updateGoalsList(classesModified, resourceModified, testClassesModified, testResourcesModified);
+            executeBuildReloadTask(goalsList, rebootRequired);
+        }
+    }
+
+    /**
+     * Test sources do not affect the application, their changes are passed to
+     * the test lane, which compiles and runs them without a build.
+     *
+     * @return the remaining changes
+     */
+    private List<Source> scheduleTestChanges(List<Source> changes) {
+        Path testDirectory = project.getBasedir().toPath().resolve(SRC_DIR).resolve(TEST_DIR);
+        Set<String> testClasses = new HashSet<>();
+        List<Source> remaining = new ArrayList<>();
+        for (Source source : changes) {
+            if (!source.getPath().startsWith(testDirectory) || source.getKind() == ENTRY_DELETE) {
+                remaining.add(source);
+                continue;
+            }
+            log.debug("Test source modified: " + source.getPath().getFileName() + " - " + source.getKind());
+            String testSourcePath = StaleOutputs.getRelativeSourcePath(source.getPath(), project.getTestCompileSourceRoots());
+            if (testSourcePath != null && testSourcePath.endsWith(JAVA_FILE_EXTENSION)) {
+                testClasses.add(testSourcePath.substring(0, testSourcePath.length() - JAVA_FILE_EXTENSION.length()));
+            }
+        }
+        if (!testClasses.isEmpty()) {
+            testLane.schedule(Collections.emptySet(), testClasses);
+        }
+        return remaining;
+    }
+
+    /**
+     * Copies a batch of static webapp files and non filtered resources
+     * directly into the exploded webapp, followed by a browser refresh or an
+     * application reload. Batches with any other change, or arriving while a
+     * build is pending, go through the build.
+     */
+    private boolean syncStaticChanges(List<Source> changes) {
+        if (!start.isLocal() || !sourceUpdatedPending.isEmpty()
+                || (buildReloadTask != null && !buildReloadTask.isDone())) {
+            return false;
+        }
+        Map<Path, List<Path>> targets = new LinkedHashMap<>();
+        boolean reloadRequired = false;
+        for (Source source : changes) {
+            List<Path> sourceTargets = staticSync.getTargets(source.getPath());
+            if (sourceTargets.isEmpty() || start.getRebootOnChange().contains(source.getPath().getFileName().toString())) {
+                return false;
+            }
+            targets.put(source.getPath(), sourceTargets);
+            reloadRequired |= staticSync.isReloadRequired(source.getPath());
+        }
+        boolean reload = reloadRequired;
+        List<Source> batch = new ArrayList<>(changes);
+        executorService.submit(() -> {
+            long startTime = System.currentTimeMillis();
+            metrics.buildStarted("static");
+            try {
+                for (Map.Entry<Path, List<Path>> entry : targets.entrySet()) {
+                    staticSync.sync(entry.getKey(), entry.getValue());
+                }
+            } catch (IOException ex) {
+                metrics.buildFinished(false);
+                log.error("Error synchronizing static files", ex);
+                return;
+            }
+            metrics.buildFinished(true);
+            log.info("Synchronized " + targets.size() + " static file(s) for " + project.getName()
+                    + " in " + (System.currentTimeMillis() - startTime) + " ms");
+            if (reload) {
+                scheduleDeploy(null, false, batch, Collections.emptySet());
+            } else {
+                WebDriverFactory.refresh(start.getDriver(), log);
+                metrics.refreshed();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Compiles the changed reactor modules and packages them into the
+     * exploded webapp. The web application is reloaded here unless the same
+     * batch also changed the web module, whose build reloads it.
+     */
+    private void buildReactorModules(Set<MavenProject> changedModules, boolean reloadRequired) {
+        if (reactorBuildTask != null && !reactorBuildTask.isDone()) {
+            log.debug("Cancelling in-flight reactor build, " + changedModules.size() + " module(s) changed");
+            reactorBuildTask.cancel(true);
+        }
+        modulesUpdatedPending.addAll(changedModules);
+        WebDriverFactory.updateTitle("Building", project, start.getDriver(), log);
+        reactorBuildTask = submitCancellable(task -> {
+            List<MavenProject> modules = new ArrayList<>(modulesUpdatedPending);
+            long buildStartTime = System.currentTimeMillis();
+            if (reloadRequired) {
+                // otherwise the build of the web module completes the cycle
+                metrics.buildStarted("reactor");
+            }
+            try {
+                if (!reactorModules.build(modules)) {
+                    if (!isCancelled(task)) {
+                        metrics.buildFinished(false);
+                        WebDriverFactory.updateTitle("Build failed", project, start.getDriver(), log);
+                    }
+                    return;
+                }
+                if (isCancelled(task)) {
+                    return;
+                }
+                for (MavenProject module : modules) {
+                    reactorModules.deploy(module);
+                }
+                modulesUpdatedPending.removeAll(modules);
+                log.info("Auto-build successful for reactor module(s) in " + (System.currentTimeMillis() - buildStartTime) + " ms");
+                if (reloadRequired) {
+                    metrics.buildFinished(true);
+                    scheduleDeploy(null, false, Collections.emptyList(), Collections.emptySet());
+                }
+            } catch (MavenInvocationException | IOException ex) {
+                if (!isCancelled(task)) {
+                    log.error("Error building reactor modules", ex);
+                }
+            }
+        });
+    }
+
+    private WatchFilter getWatchFilter(Path path) {
+        MavenProject module = reactorModules.getModule(path);
+        return module != null ? moduleWatchFilters.get(module) : watchFilter;
+    }
+
     private boolean hasInotifyLimitReachedException(Throwable ex) {
         while (ex != null) {
-            if (ex instanceof IOException && ex.getMessage().contains(INOTIFY_USER_LIMIT_REACHED_MESSAGE)) {
+            if (ex instanceof IOException && ex.getMessage() != null
+                    && (ex.getMessage().contains(INOTIFY_USER_LIMIT_REACHED_MESSAGE)
+                    || ex.getMessage().contains(INOTIFY_WATCH_LIMIT_REACHED_MESSAGE))) {
                 return true;
             }
             ex = ex.getCause();
@@ -288,27 +720,97 @@ public abstract class AutoDeployHandler implements Runnable {
     }
 
     private void registerAllDirectories(Path path) throws IOException {
-        Files.walk(path)
-                .filter(Files::isDirectory)
-                .forEach(this::register);
+        walkWatchedTree(path, this::register, file -> {
+        });
+        if (watchLimitReached) {
+            usePollingWatchService();
+        }
+    }
+
+    /**
+     * Walks the directory tree, pruning the directories excluded by the
+     * watch filter.
+     */
+    private void walkWatchedTree(Path path, Consumer<Path> directoryAction, Consumer<Path> fileAction) throws IOException {
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) {
+                if (getWatchFilter(directory).isExcludedDirectory(directory)) {
+                    log.debug("exclude from watch service " + directory);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directoryAction.accept(directory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    fileAction.accept(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
     }
 
     private void register(Path path) {
-        boolean isChild = path.startsWith(buildPath) && (path.equals(buildPath) || !buildPath.relativize(path).equals(path));
         try {
-            if (!isChild) {
+            if (!watchLimitReached) {
                 log.debug("register watch service for " + path);
-                path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                watchService.register(path);
             }
         } catch (IOException ex) {
-            log.error("Error registering directories", ex);
+            if (hasInotifyLimitReachedException(ex)) {
+                watchLimitReached = true;
+            } else {
+                log.error("Error registering directories", ex);
+            }
         }
     }
 
+    /**
+     * Replaces the native watch service, once its watch limit is reached, by
+     * a polling one and registers the whole project again.
+     */
+    private void usePollingWatchService() throws IOException {
+        log.warn(WATCH_SERVICE_FALLBACK_MESSAGE);
+        watchService.close();
+        watchService = WatchRegistry.getInstance().newPollingWatchService(start.getWatchPollInterval(), log);
+        watchLimitReached = false;
+        registerProject();
+    }
+
+    /**
+     * Registers the project and its reactor modules as roots, the events
+     * below them are dispatched to this handler even if another project in
+     * the JVM watches a parent directory.
+     */
+    private void registerProject() throws IOException {
+        watchService.addRoot(project.getBasedir().toPath());
+        registerAllDirectories(project.getBasedir().toPath());
+        for (MavenProject module : reactorModules.getModules()) {
+            watchService.addRoot(module.getBasedir().toPath());
+            registerAllDirectories(module.getBasedir().toPath());
+        }
+    }
+
+    private boolean isOnlyJavaFilesUpdated() {
+        return isOnlyJavaFilesUpdated(sourceUpdatedPending);
+    }
+
+    private static boolean isOnlyJavaFilesUpdated(Collection<Source> sources) {
+        return sources.stream()
+                .allMatch(k -> k.getPath().toString().endsWith(JAVA_FILE_EXTENSION) && k.getKind() == ENTRY_MODIFY && k.isJavaClass());
+    }
+
     private List<String> updateGoalsList(boolean classesModified, boolean resourceModified,
             boolean testClassesModified, boolean testResourcesModified) {
-        boolean onlyJavaFilesUpdated = sourceUpdatedPending.stream()
-                .allMatch(k -> k.getPath().toString().endsWith(JAVA_FILE_EXTENSION) && k.getKind() == ENTRY_MODIFY && k.isJavaClass());
+        boolean onlyJavaFilesUpdated = isOnlyJavaFilesUpdated();
         List<String> goalsList = new ArrayList<>();
         boolean clean = cleanPending.get();
         if (clean) {
@@ -324,12 +826,12 @@ public abstract class AutoDeployHandler implements Runnable {
             }
         }
         if (!clean && start.isLocal() && onlyJavaFilesUpdated) {
-            Path outputDirectory = Paths.get(webappDirectory.toPath().toString(), WEB_INF_DIRECTORY, CLASSES_DIRECTORY);
-            goalsList.add(OPTION_OUTPUT_DIRECTORY + "\"" + outputDirectory.toString() + "\"");
+            goalsList.add(OPTION_OUTPUT_DIRECTORY + "\"" + getClassesOutputDirectory().toString() + "\"");
         } else {
             goalsList.add(GOAL_WAR + ":" + (start.isLocal() ? GOAL_WAR_EXPLODED : GOAL_WAR));
         }
-        if (!testClassesModified && !testResourcesModified) {
+        // tests are compiled and run by the test lane, off the redeploy path
+        if (testLane != null || (!testClassesModified && !testResourcesModified)) {
             goalsList.add(SKIP_TESTS_FLAG);
         } else {
             goalsList.add(SKIP_TESTS_OPTION);
@@ -342,9 +844,325 @@ public abstract class AutoDeployHandler implements Runnable {
         return goalsList;
     }
 
+    private Path getClassesOutputDirectory() {
+        return Paths.get(webappDirectory.toPath().toString(), WEB_INF_DIRECTORY, CLASSES_DIRECTORY);
+    }
+
+    /**
+     * Warm builds and the in-process compiler use the project model of the
+     * running session, which is not reloaded when the pom.xml changes, so
+     * both are disabled for the rest of the session.
+     */
+    private void pomModified() {
+        if (pomModified.getAndSet(true)) {
+            return;
+        }
+        if (compiler != null) {
+            compiler.close();
+        }
+        if (start.isWarmBuild() || start.isInProcessCompile()) {
+            log.info("pom.xml modified, warm builds and in-process compilation are disabled until dev mode is restarted.");
+        }
+    }
+
+    /**
+     * Java only edits of an exploded webapp are compiled by the warm
+     * in-process compiler, everything else (resources, pom.xml, deletes) goes
+     * through the Maven Invoker.
+     */
+    private boolean canCompileInProcess(boolean rebootRequired, boolean clean, List<Source> batch) {
+        if (rebootRequired || !start.isInProcessCompile() || !start.isLocal() || pomModified.get()
+                || clean || batch.isEmpty() || !isOnlyJavaFilesUpdated(batch)) {
+            return false;
+        }
+        if (compiler == null) {
+            compiler = new IncrementalCompiler(project, log);
+        }
+        return compiler.isAvailable();
+    }
+
+    private void compileInProcess(Future<?> task, List<Source> batch) {
+        List<Path> sources = new ArrayList<>();
+        for (Source source : batch) {
+            sources.add(source.getPath());
+        }
+        log.info("Auto-build started for " + project.getName() + " with in-process compiler: " + sources.size() + " source(s)");
+        metrics.buildStarted("in-process");
+        try {
+            ClassDependencyGraph graph = getDependencyGraph();
+            Path stagingDirectory = createStagingDirectory();
+            List<File> classesDirectories = getClassesDirectories();
+            Set<Path> compiled = new HashSet<>(sources);
+            boolean success = compiler.compile(sources, stagingDirectory.toFile(), classesDirectories);
+            while (success && !isCancelled(task)) {
+                graph.refreshStaged(stagingDirectory);
+                List<Path> dependentSources = findSources(graph.getSourceFiles(graph.getDependents()));
+                dependentSources.removeAll(compiled);
+                if (dependentSources.isEmpty()) {
+                    break;
+                }
+                log.info("API changed, recompiling " + dependentSources.size() + " dependent source(s)");
+                compiled.addAll(dependentSources);
+                success = compiler.compile(dependentSources, stagingDirectory.toFile(), classesDirectories);
+            }
+            if (isCancelled(task)) {
+                return;
+            }
+            metrics.buildFinished(success);
+            if (success) {
+                log.info("Auto-build successful for " + project.getName());
+                graph.commit();
+                completeBatch(task, false, batch);
+                scheduleDeploy(stagingDirectory, false, batch, getAffectedClasses(compiled));
+            } else {
+                log.info("Auto-build failed for " + project.getName());
+                WebDriverFactory.updateTitle("Build failed", project, start.getDriver(), log);
+            }
+        } catch (IOException ex) {
+            log.error("Error invoking in-process compiler", ex);
+        }
+    }
+
+    /**
+     * The graph is scanned before the first Java only build, while the
+     * exploded webapp still holds the classes of the previous build.
+     */
+    private synchronized ClassDependencyGraph getDependencyGraph() throws IOException {
+        if (dependencyGraph == null) {
+            dependencyGraph = new ClassDependencyGraph(getClassesOutputDirectory(), log);
+            dependencyGraph.refresh();
+        }
+        return dependencyGraph;
+    }
+
+    /**
+     * @return the classes compiled from the given main sources and the
+     * classes depending on them, for the selection of the tests to run
+     */
+    private Set<String> getAffectedClasses(Collection<Path> sources) throws IOException {
+        if (testLane == null) {
+            return Collections.emptySet();
+        }
+        ClassDependencyGraph graph = getDependencyGraph();
+        Set<String> classes = new HashSet<>();
+        for (Path source : sources) {
+            String sourcePath = StaleOutputs.getRelativeSourcePath(source, project.getCompileSourceRoots());
+            if (sourcePath == null || !sourcePath.endsWith(JAVA_FILE_EXTENSION)) {
+                continue;
+            }
+            for (Path classFile : graph.getClassFiles(sourcePath)) {
+                String className = classFile.toString().replace(File.separatorChar, '/');
+                classes.add(className.substring(0, className.lastIndexOf('.')));
+            }
+        }
+        classes.addAll(graph.getDependents(classes));
+        return classes;
+    }
+
+    private List<Path> findSources(Collection<String> sourceFiles) {
+        List<Path> sources = new ArrayList<>();
+        for (String sourceFile : sourceFiles) {
+            for (String root : project.getCompileSourceRoots()) {
+                Path source = Paths.get(root, sourceFile);
+                if (Files.isRegularFile(source)) {
+                    sources.add(source);
+                    break;
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Creates the output directory of an in-process compilation, after
+     * deleting the staging directories which were moved into the exploded
+     * webapp or abandoned by a cancelled build. They are only deleted here,
+     * as a running compilation may still read them.
+     */
+    private Path createStagingDirectory() throws IOException {
+        Path stagingRoot = Paths.get(project.getBuild().getDirectory(), DEV_STAGING_DIRECTORY);
+        if (Files.isDirectory(stagingRoot)) {
+            List<Path> directories;
+            try (Stream<Path> paths = Files.list(stagingRoot)) {
+                directories = paths.collect(Collectors.toList());
+            }
+            synchronized (stagedOutputs) {
+                directories.removeAll(stagedOutputs);
+            }
+            for (Path directory : directories) {
+                deleteBuildDir(directory.toString());
+            }
+        }
+        return Files.createDirectories(stagingRoot.resolve(String.valueOf(stagingCount.incrementAndGet())));
+    }
+
+    /**
+     * @return the staged outputs not yet moved into the exploded webapp,
+     * newest first, followed by its classes directory
+     */
+    private List<File> getClassesDirectories() {
+        List<File> directories = new ArrayList<>();
+        synchronized (stagedOutputs) {
+            Iterator<Path> iterator = stagedOutputs.descendingIterator();
+            while (iterator.hasNext()) {
+                directories.add(iterator.next().toFile());
+            }
+        }
+        directories.add(getClassesOutputDirectory().toFile());
+        return directories;
+    }
+
+    /**
+     * Maven builds write into the exploded webapp, they wait until the
+     * staged outputs of the previous in-process compilations are moved there.
+     */
+    private void awaitStagedOutputs() throws InterruptedException {
+        synchronized (stagedOutputs) {
+            while (!stagedOutputs.isEmpty()) {
+                stagedOutputs.wait();
+            }
+        }
+    }
+
+    /**
+     * Queues the second stage of the pipeline, which moves the staged output
+     * into the exploded webapp and reloads the application. Unlike the build
+     * stage it is never cancelled by a new change, so that a finished build
+     * is always deployed. Builds finishing while a reload is running are
+     * deployed together by a single reload.
+     *
+     * @param stagingDirectory the output of an in-process compilation, or
+     * null if the build wrote into the exploded webapp
+     * @param changes the changed files passed to the reload
+     * @param changedClasses the classes passed to the test lane
+     */
+    private void scheduleDeploy(Path stagingDirectory, boolean rebootRequired,
+            Collection<Source> changes, Collection<String> changedClasses) {
+        synchronized (stagedOutputs) {
+            if (stagingDirectory != null) {
+                stagedOutputs.addLast(stagingDirectory);
+            }
+            rebootQueued |= rebootRequired;
+            deployChanges.addAll(changes);
+            deployClasses.addAll(changedClasses);
+            if (deployQueued) {
+                log.debug("Reload already queued for " + project.getName());
+                return;
+            }
+            deployQueued = true;
+        }
+        deployExecutorService.submit(this::deploy);
+    }
+
+    private void deploy() {
+        boolean rebootRequired;
+        List<Source> changes;
+        Set<String> changedClasses;
+        synchronized (stagedOutputs) {
+            deployQueued = false;
+            rebootRequired = rebootQueued;
+            rebootQueued = false;
+            changes = new ArrayList<>(deployChanges);
+            deployChanges.clear();
+            changedClasses = new HashSet<>(deployClasses);
+            deployClasses.clear();
+            while (!stagedOutputs.isEmpty()) {
+                Path stagingDirectory = stagedOutputs.removeFirst();
+                try {
+                    swapStagedOutput(stagingDirectory);
+                } catch (IOException ex) {
+                    log.error("Error moving " + stagingDirectory + " into the exploded webapp", ex);
+                }
+            }
+            stagedOutputs.notifyAll();
+        }
+        if (testLane != null && !changedClasses.isEmpty()) {
+            testLane.schedule(changedClasses, Collections.emptySet());
+        }
+        reloadAndRecord(rebootRequired, changes);
+    }
+
+    /**
+     * Each class file is copied next to its target and renamed over it, so
+     * that the application never loads a partially written class. The copy
+     * keeps the modification time known to the dependency graph.
+     */
+    private void swapStagedOutput(Path stagingDirectory) throws IOException {
+        Path classesDirectory = getClassesOutputDirectory();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(stagingDirectory)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Path target = classesDirectory.resolve(stagingDirectory.relativize(file).toString());
+            Files.createDirectories(target.getParent());
+            Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        log.debug("Moved " + files.size() + " staged file(s) into " + classesDirectory);
+    }
+
+    /**
+     * @return false if the outputs of a deleted source can only be removed by
+     * a full clean
+     */
+    private boolean isStaleOutputMapped(Path deleted) {
+        ClassDependencyGraph graph = null;
+        if (staleOutputs.isMainSource(deleted)) {
+            try {
+                graph = getDependencyGraph();
+            } catch (IOException ex) {
+                log.debug("Unable to scan the class dependency graph", ex);
+            }
+        }
+        return staleOutputs.isMapped(deleted, graph);
+    }
+
+    /**
+     * Removes the build outputs of the deleted sources and directories.
+     */
+    private void removeStaleOutputs() throws IOException {
+        Iterator<Path> iterator = deletedPending.iterator();
+        while (iterator.hasNext()) {
+            Path deleted = iterator.next();
+            ClassDependencyGraph graph = null;
+            List<Path> classesDirectories = new ArrayList<>();
+            if (staleOutputs.isMainSource(deleted)) {
+                graph = getDependencyGraph();
+                classesDirectories.add(Paths.get(project.getBuild().getOutputDirectory()));
+                classesDirectories.add(getClassesOutputDirectory());
+                synchronized (stagedOutputs) {
+                    classesDirectories.addAll(stagedOutputs);
+                }
+            }
+            int removed = staleOutputs.remove(deleted, graph, classesDirectories);
+            log.debug("Removed " + removed + " stale output(s) of " + deleted);
+            iterator.remove();
+        }
+    }
+
     private void executeBuildReloadTask(List<String> goalsList, boolean rebootRequired) {
-        buildReloadTaskStartTime = System.currentTimeMillis();
-        buildReloadTask = executorService.submit(() -> {
+        buildReloadTask = submitCancellable(task -> {
+            boolean clean = cleanPending.get();
+            List<Source> batch = new ArrayList<>(sourceUpdatedPending);
+            if (clean) {
+                deletedPending.clear();
+            } else {
+                try {
+                    removeStaleOutputs();
+                } catch (IOException ex) {
+                    log.error("Error removing the outputs of deleted sources", ex);
+                }
+            }
+            if (canCompileInProcess(rebootRequired, clean, batch)) {
+                compileInProcess(task, batch);
+                return;
+            }
             String message = "Auto-build started for " + project.getName() + " with goals: " + goalsList;
 
             Invoker invoker = new DefaultInvoker();
@@ -360,27 +1178,51 @@ public abstract class AutoDeployHandler implements Runnable {
             }
             request.setGoals(goalsList);
             try {
+                awaitStagedOutputs();
                 Thread.sleep(5);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt(); // Restore the interrupted status
                 return; // Exit if the thread is interrupted
             }
-            log.info(message);
+            boolean warm = canBuildWarm(goalsList);
+            log.info(message + (warm ? " (warm)" : ""));
+            long buildStartTime = System.currentTimeMillis();
+            metrics.buildStarted(warm ? "warm" : "invoker");
             try {
-                InvocationResult result = invoker.execute(request);
-                if (result.getExitCode() != 0) {
-                    if (!buildReloadTask.isCancelled()) {
-                        log.info("Auto-build failed with exit code: " + result.getExitCode());
-                        WebDriverFactory.updateTitle("Build failed", project, start.getDriver(), log);
+                boolean classesOnly = goalsList.stream().anyMatch(goal -> goal.startsWith(OPTION_OUTPUT_DIRECTORY));
+                ClassDependencyGraph graph = classesOnly ? getDependencyGraph() : null;
+                boolean success = build(task, warm, goalsList, invoker, request);
+                Set<String> recompiled = new HashSet<>();
+                while (success && graph != null && !isCancelled(task)) {
+                    graph.refresh();
+                    Set<String> dependents = graph.getDependents();
+                    dependents.removeAll(recompiled);
+                    if (dependents.isEmpty()) {
+                        break;
                     }
+                    log.info("API changed, recompiling " + dependents.size() + " dependent class(es)");
+                    recompiled.addAll(dependents);
+                    graph.markStale(dependents);
+                    success = build(task, warm, goalsList, invoker, request);
+                }
+                if (isCancelled(task)) {
+                    return;
+                }
+                metrics.buildFinished(success);
+                if (!success) {
+                    WebDriverFactory.updateTitle("Build failed", project, start.getDriver(), log);
                 } else {
-                    log.info("Auto-build successful for " + project.getName());
-                    cleanPending.set(false);
-                    sourceUpdatedPending.clear();
-
-                    reload(rebootRequired);
-                    cleanPending.set(false);
-                    sourceUpdatedPending.clear();
+                    log.info("Auto-build successful for " + project.getName() + " in "
+                            + recordBuildTime(warm, System.currentTimeMillis() - buildStartTime));
+                    if (graph == null) {
+                        dependencyGraph = null;
+                    } else {
+                        graph.commit();
+                    }
+                    Set<String> changedClasses = getAffectedClasses(batch.stream()
+                            .map(Source::getPath).collect(Collectors.toList()));
+                    completeBatch(task, clean, batch);
+                    scheduleDeploy(null, rebootRequired, batch, changedClasses);
                 }
             } catch (MavenInvocationException ex) {
                 log.error("Error invoking Maven", ex);
@@ -390,7 +1232,111 @@ public abstract class AutoDeployHandler implements Runnable {
         });
     }
 
-    public abstract void reload(boolean rebootRequired);
+    /**
+     * Removes the sources built by a task from the pending set. A batch
+     * arriving meanwhile cancels the task before adding its sources, in that
+     * case the flags are restored so that the queued build does not miss them.
+     */
+    private void completeBatch(Future<?> task, boolean clean, List<Source> batch) {
+        if (clean) {
+            cleanPending.set(false);
+        }
+        sourceUpdatedPending.removeAll(batch);
+        if (isCancelled(task)) {
+            if (clean) {
+                cleanPending.set(true);
+            }
+            sourceUpdatedPending.addAll(batch);
+        }
+    }
+
+    /**
+     * Submits a task that is handed its own future, the fields holding the
+     * in-flight tasks are replaced as soon as the next batch is scheduled.
+     */
+    private Future<?> submitCancellable(Consumer<Future<?>> body) {
+        AtomicReference<Future<?>> self = new AtomicReference<>();
+        FutureTask<Void> task = new FutureTask<>(() -> body.accept(self.get()), null);
+        self.set(task);
+        executorService.execute(task);
+        return task;
+    }
+
+    private static boolean isCancelled(Future<?> task) {
+        return task.isCancelled() || Thread.currentThread().isInterrupted();
+    }
+
+    private boolean build(Future<?> task, boolean warm, List<String> goalsList, Invoker invoker, InvocationRequest request) throws MavenInvocationException {
+        if (warm) {
+            return buildWarm(task, goalsList);
+        }
+        InvocationResult result = invoker.execute(request);
+        boolean success = result.getExitCode() == 0;
+        if (!success && !isCancelled(task)) {
+            log.info("Auto-build failed with exit code: " + result.getExitCode());
+        }
+        return success;
+    }
+
+    /**
+     * The warm build reuses the project model of the running session, so it is
+     * disabled for the rest of the session once the pom.xml has changed.
+     */
+    private boolean canBuildWarm(List<String> goalsList) {
+        if (!start.isWarmBuild() || pomModified.get()) {
+            return false;
+        }
+        if (warmBuildExecutor == null) {
+            if (start.getExecutionEnvironment() == null) {
+                return false;
+            }
+            warmBuildExecutor = new WarmBuildExecutor(start.getExecutionEnvironment(), log);
+        }
+        return warmBuildExecutor.isSupported(goalsList);
+    }
+
+    private boolean buildWarm(Future<?> task, List<String> goalsList) {
+        try {
+            warmBuildExecutor.execute(goalsList);
+            return true;
+        } catch (Exception ex) {
+            if (!isCancelled(task)) {
+                log.info("Auto-build failed: " + ex.getMessage());
+                log.debug(ex);
+            }
+            return false;
+        }
+    }
+
+    private synchronized String recordBuildTime(boolean warm, long duration) {
+        int index = warm ? 0 : 1;
+        buildCount[index]++;
+        buildTime[index] += duration;
+        StringBuilder sb = new StringBuilder();
+        sb.append(duration).append(" ms (");
+        if (buildCount[0] > 0) {
+            sb.append("warm avg ").append(buildTime[0] / buildCount[0]).append(" ms over ").append(buildCount[0]).append(" builds");
+        }
+        if (buildCount[0] > 0 && buildCount[1] > 0) {
+            sb.append(", ");
+        }
+        if (buildCount[1] > 0) {
+            sb.append("invoker avg ").append(buildTime[1] / buildCount[1]).append(" ms over ").append(buildCount[1]).append(" builds");
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * @param rebootRequired true if the instance has to be restarted
+     * @param changes the changed files deployed by this reload
+     */
+    public abstract void reload(boolean rebootRequired, Collection<Source> changes);
+
+    private void reloadAndRecord(boolean rebootRequired, Collection<Source> changes) {
+        metrics.reloadStarted();
+        reload(rebootRequired, changes);
+        metrics.reloadFinished();
+    }
 
     public void deleteBuildDir(String filePath) {
         try {
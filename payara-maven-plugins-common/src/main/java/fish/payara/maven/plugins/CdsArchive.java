@@ -0,0 +1,334 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Dynamic class data sharing (AppCDS) archive of a forked JVM. The first
+ * launch dumps the loaded classes with {@code -XX:ArchiveClassesAtExit} when
+ * the JVM exits, the later launches map them with
+ * {@code -XX:SharedArchiveFile} instead of loading and verifying them again.
+ * <p>
+ * The archive file is named after a key computed from the JDK, the
+ * application jar and the classpath, so that a change of any of them leads
+ * to a new archive. The archives of the same name with another key are
+ * deleted as stale, and an existing archive is checked once with
+ * {@code -Xshare:on}, which fails on an archive that the JVM cannot map,
+ * e.g. because the process was killed while writing it. From Java 19 the JVM
+ * validates the archive itself and creates it again when it does not match,
+ * with {@code -XX:+AutoCreateSharedArchive}. The startup time of the launch
+ * which created the archive is kept next to it to report the time saved by
+ * the later launches.
+ */
+public class CdsArchive {
+
+    /**
+     * The first Java version which supports dynamic archives.
+     */
+    public static final int MIN_JAVA_VERSION = 13;
+    /**
+     * The first Java version which validates and recreates the archive.
+     */
+    static final int AUTO_CREATE_JAVA_VERSION = 19;
+    /**
+     * The warning logged by the JVM when it cannot map the archive, e.g.
+     * because it was not written completely.
+     */
+    public static final String UNUSABLE_ARCHIVE_MESSAGE = "Unable to use shared archive";
+    private static final String ARCHIVE_EXTENSION = ".jsa";
+    private static final String STARTUP_EXTENSION = ".startup";
+    private static final Pattern VERSION_PATTERN = Pattern.compile("version \"(1\\.)?(\\d+)");
+    private static final List<String> CDS_OPTIONS = Arrays.asList(
+            "-XX:SharedArchiveFile", "-XX:ArchiveClassesAtExit", "-Xshare", "-XX:+AutoCreateSharedArchive");
+
+    private final Path archiveFile;
+    private final Path startupFile;
+    private final int javaVersion;
+    private final Log log;
+    private volatile boolean used;
+
+    /**
+     * @param directory the directory of the archives
+     * @param name the name of the archive, e.g. payara-micro-6.2026.9
+     * @param key the key of the archive, see {@link #key(String...)}
+     * @param javaVersion the feature version of the JVM
+     * @param log the logger
+     */
+    public CdsArchive(Path directory, String name, String key, int javaVersion, Log log) {
+        this.archiveFile = directory.resolve(name + '-' + key + ARCHIVE_EXTENSION);
+        this.startupFile = directory.resolve(name + '-' + key + STARTUP_EXTENSION);
+        this.javaVersion = javaVersion;
+        this.log = log;
+        deleteStaleArchives(directory, name);
+    }
+
+    /**
+     * @return the options which create or use the archive, depending on
+     * whether it exists
+     */
+    public List<String> getJvmOptions() {
+        used = Files.isRegularFile(archiveFile);
+        if (used) {
+            log.debug("Using class data sharing archive " + archiveFile);
+        } else {
+            try {
+                Files.createDirectories(archiveFile.getParent());
+            } catch (IOException ex) {
+                log.debug("Unable to create the class data sharing directory " + archiveFile.getParent(), ex);
+                return Collections.emptyList();
+            }
+            log.info("Creating class data sharing archive " + archiveFile + " when the process exits");
+            deleteIfExists(startupFile);
+        }
+        if (javaVersion >= AUTO_CREATE_JAVA_VERSION) {
+            return Arrays.asList("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archiveFile);
+        }
+        return Collections.singletonList((used ? "-XX:SharedArchiveFile=" : "-XX:ArchiveClassesAtExit=") + archiveFile);
+    }
+
+    /**
+     * @return true if the last options returned by {@link #getJvmOptions()}
+     * use an existing archive
+     */
+    public boolean isUsed() {
+        return used;
+    }
+
+    /**
+     * Records the startup time of the launch which creates the archive, or
+     * reports the time saved by the archive.
+     *
+     * @param startupTime the time (in milliseconds) from the start of the
+     * process until the application is ready
+     * @return the time (in milliseconds) saved by the archive, or -1 if
+     * unknown
+     */
+    public long startupMeasured(long startupTime) {
+        if (!used) {
+            try {
+                Files.write(startupFile, Long.toString(startupTime).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException ex) {
+                log.debug("Unable to write " + startupFile, ex);
+            }
+            return -1;
+        }
+        long baseline;
+        try {
+            baseline = Long.parseLong(new String(Files.readAllBytes(startupFile), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException ex) {
+            return -1;
+        }
+        long saved = baseline - startupTime;
+        log.info("Class data sharing archive saved " + saved + " ms of the startup (" + startupTime + " ms, "
+                + baseline + " ms for the launch which created the archive)");
+        return saved;
+    }
+
+    /**
+     * Deletes an archive which the JVM could not use, so that it is created
+     * again by the next launch.
+     */
+    public void invalidate() {
+        if (deleteIfExists(archiveFile)) {
+            log.warn("Class data sharing archive " + archiveFile + " is unusable, it is created again by the next launch");
+        }
+        deleteIfExists(startupFile);
+        used = false;
+    }
+
+    /**
+     * Checks that the JVM can map the existing archive with the classpath,
+     * and deletes it otherwise.
+     *
+     * @param javaExecutable the java executable of the launches
+     * @param classpath the classpath of the launches
+     */
+    public void validate(String javaExecutable, List<String> classpath) {
+        if (javaVersion >= AUTO_CREATE_JAVA_VERSION || !Files.isRegularFile(archiveFile)) {
+            return;
+        }
+        String result = run(log, javaExecutable, "-XX:SharedArchiveFile=" + archiveFile, "-Xshare:on",
+                "-cp", String.join(File.pathSeparator, classpath), "-version");
+        if (result == null) {
+            invalidate();
+        }
+    }
+
+    public Path getArchiveFile() {
+        return archiveFile;
+    }
+
+    private void deleteStaleArchives(Path directory, String name) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        String prefix = name + '-';
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                if (!file.equals(archiveFile) && !file.equals(startupFile)
+                        && (fileName.endsWith(ARCHIVE_EXTENSION) || fileName.endsWith(STARTUP_EXTENSION))
+                        && fileName.indexOf('-', prefix.length()) < 0) {
+                    log.debug("Deleting stale class data sharing file " + file);
+                    deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to list the class data sharing directory " + directory, ex);
+        }
+    }
+
+    private boolean deleteIfExists(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.debug("Unable to delete " + file, ex);
+            return false;
+        }
+    }
+
+    /**
+     * @return a short hash of the parts, which identifies the archive
+     */
+    public static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder key = new StringBuilder();
+            byte[] hash = digest.digest();
+            for (int i = 0; i < 8; i++) {
+                key.append(String.format("%02x", hash[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @return the path, size and modification time of the file, which
+     * identify its content as part of a key
+     */
+    public static String describeFile(String path) {
+        File file = new File(path);
+        return file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+    }
+
+    /**
+     * Runs {@code java -version} with the given executable.
+     *
+     * @return the output, which identifies the JDK as part of a key, or null
+     * if the executable could not be run
+     */
+    public static String describeJava(String javaExecutable, Log log) {
+        String output = run(log, javaExecutable, "-version");
+        return output != null ? javaExecutable + '\n' + output : null;
+    }
+
+    /**
+     * @return the output of the command, or null if it failed
+     */
+    static String run(Log log, String... command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (InputStream in = process.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                return null;
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            log.debug("Unable to run " + String.join(" ", command), ex);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * @return the feature version of the {@code java -version} output, e.g.
+     * 8 or 21, or -1 if not found
+     */
+    public static int getJavaVersion(String versionOutput) {
+        Matcher matcher = VERSION_PATTERN.matcher(versionOutput);
+        return matcher.find() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+
+    /**
+     * @return true if the JVM options already configure class data sharing
+     */
+    public static boolean isConfigured(List<String> jvmOptions) {
+        for (String option : jvmOptions) {
+            for (String cdsOption : CDS_OPTIONS) {
+                if (option != null && option.startsWith(cdsOption)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,529 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Class level dependency graph of a classes directory, built from the
+ * constant pools of the compiled classes. Each class records the classes it
+ * references and a hash of its API (the non-private members, the hierarchy
+ * and the inlinable constant values), so that after a compilation the
+ * dependents of the classes whose API changed can be recompiled as well.
+ */
+public class ClassDependencyGraph {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private final Path classesDirectory;
+    private final Log log;
+    private final Map<Path, ClassInfo> classFiles = new HashMap<>();
+    private final Map<String, ClassInfo> classes = new HashMap<>();
+    private final Set<String> apiChanged = new HashSet<>();
+    private final Set<String> constantsChanged = new HashSet<>();
+    private boolean initialized;
+
+    public ClassDependencyGraph(Path classesDirectory, Log log) {
+        this.classesDirectory = classesDirectory;
+        this.log = log;
+    }
+
+    /**
+     * Rescans the class files which were added, modified or removed since the
+     * last scan. The first call only records the current state. The classes
+     * whose API changed are accumulated until {@link #commit()} is called, so
+     * that the dependents are still recompiled after a failed or cancelled
+     * build.
+     *
+     * @return the names of the classes whose API changed in this scan,
+     * including added and removed classes
+     */
+    public synchronized Set<String> refresh() throws IOException {
+        Set<Path> removed = new HashSet<>(classFiles.keySet());
+        Set<String> changed = scan(classesDirectory, removed);
+        for (Path file : removed) {
+            ClassInfo info = classFiles.remove(file);
+            if (classes.get(info.name) == info) {
+                classes.remove(info.name);
+            }
+            changed.add(info.name);
+        }
+        if (!initialized) {
+            initialized = true;
+            log.debug("Class dependency graph of " + classesDirectory + " contains " + classes.size() + " class(es)");
+            return Collections.emptySet();
+        }
+        apiChanged.addAll(changed);
+        return changed;
+    }
+
+    /**
+     * Scans the class files of a staging directory as if they were already
+     * moved to the same relative path of the classes directory. The moved
+     * files keep their size and modification time, so they are not parsed
+     * again by the next {@link #refresh()}.
+     *
+     * @return the names of the classes whose API changed in this scan
+     */
+    public synchronized Set<String> refreshStaged(Path stagingDirectory) throws IOException {
+        if (!initialized) {
+            refresh();
+        }
+        Set<String> changed = scan(stagingDirectory, new HashSet<>());
+        apiChanged.addAll(changed);
+        return changed;
+    }
+
+    private Set<String> scan(Path directory, Set<Path> removed) throws IOException {
+        Set<String> changed = new HashSet<>();
+        if (!Files.isDirectory(directory)) {
+            return changed;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(path -> path.toString().endsWith(CLASS_FILE_EXTENSION)).forEach(files::add);
+        }
+        for (Path file : files) {
+            Path target = classesDirectory.resolve(directory.relativize(file));
+            removed.remove(target);
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException ex) {
+                continue;
+            }
+            ClassInfo previous = classFiles.get(target);
+            long modified = attrs.lastModifiedTime().toMillis();
+            if (previous != null && previous.size == attrs.size() && previous.modified == modified) {
+                continue;
+            }
+            ClassInfo current;
+            try (InputStream in = Files.newInputStream(file)) {
+                current = ClassInfo.parse(in, attrs.size(), modified);
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Unable to read class file " + file, ex);
+                continue;
+            }
+            classFiles.put(target, current);
+            classes.put(current.name, current);
+            if (previous == null || previous.apiHash != current.apiHash) {
+                changed.add(current.name);
+            }
+            if (previous != null && previous.constantsHash != current.constantsHash) {
+                changed.add(current.name);
+                constantsChanged.add(current.name);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Clears the accumulated API changes once their dependents have been
+     * recompiled.
+     */
+    public synchronized void commit() {
+        apiChanged.clear();
+        constantsChanged.clear();
+    }
+
+    /**
+     * Collects the transitive dependents of the classes whose API changed
+     * since the last commit. Constant values are inlined by javac without a
+     * constant pool reference to the declaring class, so a changed constant
+     * affects every class of the graph.
+     *
+     * @return the dependent classes, without the changed ones
+     */
+    public synchronized Set<String> getDependents() {
+        Set<String> changed = apiChanged;
+        if (!constantsChanged.isEmpty()) {
+            Set<String> all = new HashSet<>(classes.keySet());
+            all.removeAll(changed);
+            return all;
+        }
+        return getDependents(changed);
+    }
+
+    /**
+     * @param classNames the internal names of classes, which may be outside
+     * of the graph
+     * @return the classes of the graph which depend, directly or
+     * transitively, on the given classes, without the given classes
+     */
+    public synchronized Set<String> getDependents(Collection<String> classNames) {
+        Map<String, Set<String>> dependents = new HashMap<>();
+        for (ClassInfo info : classes.values()) {
+            for (String dependency : info.dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(info.name);
+            }
+        }
+        Set<String> result = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(classNames);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), Collections.emptySet())) {
+                if (!classNames.contains(dependent) && result.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the source file paths, relative to the source root, of the
+     * given classes
+     */
+    public synchronized Set<String> getSourceFiles(Collection<String> classNames) {
+        Set<String> sources = new HashSet<>();
+        for (String className : classNames) {
+            ClassInfo info = classes.get(className);
+            if (info != null && info.sourceFile != null) {
+                sources.add(info.getSourcePath());
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * @return true if the source file of every class is known, which is not
+     * the case for classes compiled without debug information
+     */
+    public synchronized boolean isSourceMapped() {
+        for (ClassInfo info : classFiles.values()) {
+            if (info.sourceFile == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param sourcePath the path of a source file or package directory,
+     * relative to the source root
+     * @return the class files compiled from the given sources, including
+     * inner and secondary classes, relative to the classes directory
+     */
+    public synchronized List<Path> getClassFiles(String sourcePath) {
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<Path, ClassInfo> entry : classFiles.entrySet()) {
+            ClassInfo info = entry.getValue();
+            if (info.sourceFile == null) {
+                continue;
+            }
+            String source = info.getSourcePath();
+            if (source.equals(sourcePath) || source.startsWith(sourcePath + '/')) {
+                files.add(classesDirectory.relativize(entry.getKey()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Resets the modification time of the class files of the given classes,
+     * so that the stale source detection of the maven-compiler-plugin
+     * recompiles them.
+     */
+    public synchronized void markStale(Collection<String> classNames) {
+        for (Map.Entry<Path, ClassInfo> entry : classFiles.entrySet()) {
+            if (classNames.contains(entry.getValue().name)) {
+                try {
+                    Files.setLastModifiedTime(entry.getKey(), FileTime.fromMillis(0));
+                } catch (IOException ex) {
+                    log.debug("Unable to mark " + entry.getKey() + " as stale", ex);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return classes.size();
+    }
+
+    private static class ClassInfo {
+
+        private final String name;
+        private final String sourceFile;
+        private final Set<String> dependencies;
+        private final long apiHash;
+        private final long constantsHash;
+        private final long size;
+        private final long modified;
+
+        ClassInfo(String name, String sourceFile, Set<String> dependencies,
+                long apiHash, long constantsHash, long size, long modified) {
+            this.name = name;
+            this.sourceFile = sourceFile;
+            this.dependencies = dependencies;
+            this.apiHash = apiHash;
+            this.constantsHash = constantsHash;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        /**
+         * @return the path of the source file relative to the source root
+         */
+        String getSourcePath() {
+            int index = name.lastIndexOf('/');
+            return index < 0 ? sourceFile : name.substring(0, index + 1) + sourceFile;
+        }
+
+        static ClassInfo parse(InputStream stream, long size, long modified) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file");
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            int count = in.readUnsignedShort();
+            Object[] pool = new Object[count];
+            int[] tags = new int[count];
+            List<Integer> classRefs = new ArrayList<>();
+            List<Integer> descriptorRefs = new ArrayList<>();
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                tags[i] = tag;
+                switch (tag) {
+                    case 1: // Utf8
+                        pool[i] = in.readUTF();
+                        break;
+                    case 3: // Integer
+                        pool[i] = in.readInt();
+                        break;
+                    case 4: // Float
+                        pool[i] = in.readFloat();
+                        break;
+                    case 5: // Long
+                        pool[i] = in.readLong();
+                        i++;
+                        break;
+                    case 6: // Double
+                        pool[i] = in.readDouble();
+                        i++;
+                        break;
+                    case 7: // Class
+                        int nameIndex = in.readUnsignedShort();
+                        pool[i] = nameIndex;
+                        classRefs.add(nameIndex);
+                        break;
+                    case 8: // String
+                    case 19: // Module
+                    case 20: // Package
+                        pool[i] = in.readUnsignedShort();
+                        break;
+                    case 16: // MethodType
+                        descriptorRefs.add(in.readUnsignedShort());
+                        break;
+                    case 12: // NameAndType
+                        in.readUnsignedShort();
+                        descriptorRefs.add(in.readUnsignedShort());
+                        break;
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        in.readInt();
+                        break;
+                    case 15: // MethodHandle
+                        in.readUnsignedByte();
+                        in.readUnsignedShort();
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+            int access = in.readUnsignedShort();
+            String name = (String) pool[(Integer) pool[in.readUnsignedShort()]];
+            int superIndex = in.readUnsignedShort();
+            String superName = superIndex == 0 ? "" : (String) pool[(Integer) pool[superIndex]];
+            List<String> api = new ArrayList<>();
+            List<String> constants = new ArrayList<>();
+            StringBuilder header = new StringBuilder("class ").append(access & ~ACC_SYNTHETIC).append(' ').append(superName);
+            int interfaces = in.readUnsignedShort();
+            List<String> interfaceNames = new ArrayList<>();
+            for (int i = 0; i < interfaces; i++) {
+                interfaceNames.add((String) pool[(Integer) pool[in.readUnsignedShort()]]);
+            }
+            Collections.sort(interfaceNames);
+            header.append(' ').append(interfaceNames);
+
+            for (int kind = 0; kind < 2; kind++) {
+                int members = in.readUnsignedShort();
+                for (int i = 0; i < members; i++) {
+                    int memberAccess = in.readUnsignedShort();
+                    String memberName = (String) pool[in.readUnsignedShort()];
+                    int descriptorIndex = in.readUnsignedShort();
+                    descriptorRefs.add(descriptorIndex);
+                    StringBuilder member = new StringBuilder(kind == 0 ? "field " : "method ")
+                            .append(memberAccess).append(' ').append(memberName).append(' ').append(pool[descriptorIndex]);
+                    Object constantValue = null;
+                    int attributes = in.readUnsignedShort();
+                    for (int j = 0; j < attributes; j++) {
+                        String attribute = (String) pool[in.readUnsignedShort()];
+                        int length = in.readInt();
+                        if ("Signature".equals(attribute)) {
+                            int signatureIndex = in.readUnsignedShort();
+                            descriptorRefs.add(signatureIndex);
+                            member.append(" signature ").append(pool[signatureIndex]);
+                        } else if ("ConstantValue".equals(attribute)) {
+                            int valueIndex = in.readUnsignedShort();
+                            // String constants refer to their Utf8 entry
+                            constantValue = tags[valueIndex] == 8 ? pool[(Integer) pool[valueIndex]] : pool[valueIndex];
+                        } else if ("Exceptions".equals(attribute)) {
+                            int exceptions = in.readUnsignedShort();
+                            List<String> exceptionNames = new ArrayList<>();
+                            for (int k = 0; k < exceptions; k++) {
+                                exceptionNames.add((String) pool[(Integer) pool[in.readUnsignedShort()]]);
+                            }
+                            Collections.sort(exceptionNames);
+                            member.append(" throws ").append(exceptionNames);
+                        } else {
+                            skipFully(in, length);
+                        }
+                    }
+                    if ((memberAccess & ACC_PRIVATE) == 0) {
+                        api.add(member.toString());
+                        if (constantValue != null && (memberAccess & (ACC_STATIC | ACC_FINAL)) == (ACC_STATIC | ACC_FINAL)) {
+                            constants.add(memberName + '=' + constantValue);
+                        }
+                    }
+                }
+            }
+            String sourceFile = null;
+            int attributes = in.readUnsignedShort();
+            for (int i = 0; i < attributes; i++) {
+                String attribute = (String) pool[in.readUnsignedShort()];
+                int length = in.readInt();
+                if ("SourceFile".equals(attribute)) {
+                    sourceFile = (String) pool[in.readUnsignedShort()];
+                } else if ("Signature".equals(attribute)) {
+                    int signatureIndex = in.readUnsignedShort();
+                    descriptorRefs.add(signatureIndex);
+                    header.append(" signature ").append(pool[signatureIndex]);
+                } else {
+                    skipFully(in, length);
+                }
+            }
+
+            Set<String> dependencies = new HashSet<>();
+            for (int index : classRefs) {
+                String className = (String) pool[index];
+                if (className.startsWith("[")) {
+                    addDescriptorTypes(className, dependencies);
+                } else {
+                    dependencies.add(className);
+                }
+            }
+            for (int index : descriptorRefs) {
+                addDescriptorTypes((String) pool[index], dependencies);
+            }
+            dependencies.remove(name);
+            Collections.sort(api);
+            api.add(0, header.toString());
+            Collections.sort(constants);
+            return new ClassInfo(name, sourceFile, dependencies, hash(api), hash(constants), size, modified);
+        }
+
+        private static void addDescriptorTypes(String descriptor, Set<String> types) {
+            int length = descriptor.length();
+            int i = 0;
+            while (i < length) {
+                if (descriptor.charAt(i) == 'L') {
+                    int start = ++i;
+                    while (i < length && descriptor.charAt(i) != ';' && descriptor.charAt(i) != '<') {
+                        i++;
+                    }
+                    types.add(descriptor.substring(start, i));
+                }
+                i++;
+            }
+        }
+
+        private static void skipFully(DataInputStream in, int length) throws IOException {
+            int remaining = length;
+            while (remaining > 0) {
+                int skipped = in.skipBytes(remaining);
+                if (skipped <= 0) {
+                    throw new IOException("Unexpected end of class file");
+                }
+                remaining -= skipped;
+            }
+        }
+
+        /**
+         * 64-bit FNV-1a hash of the given lines.
+         */
+        private static long hash(List<String> lines) {
+            long hash = 0xcbf29ce484222325L;
+            for (String line : lines) {
+                for (int i = 0; i < line.length(); i++) {
+                    hash ^= line.charAt(i);
+                    hash *= 0x100000001b3L;
+                }
+                hash ^= '\n';
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -41,7 +41,9 @@ package fish.payara.maven.plugins;
 public interface Configuration {
 
     String INOTIFY_USER_LIMIT_REACHED_MESSAGE = "User limit of inotify instances reached";
+    String INOTIFY_WATCH_LIMIT_REACHED_MESSAGE = "User limit of inotify watches reached";
     String WATCH_SERVICE_ERROR_MESSAGE = "Error starting WatchService. User limit of inotify instances reached or too many open files. Please increase the max_user_watches configuration.";
+    String WATCH_SERVICE_FALLBACK_MESSAGE = "User limit of inotify instances or watches reached, falling back to polling the project directories for changes.";
     String SKIP_TESTS_OPTION = "-DskipTests";
     String SKIP_TESTS_FLAG = "-Dmaven.test.skip=true";
     String GOAL_CLEAN = "clean";
@@ -49,6 +51,11 @@ public interface Configuration {
     String GOAL_COMPILE = "org.apache.maven.plugins:maven-compiler-plugin:3.12.1:compile"; //v3.12.1 is required as is includes fix https://github.com/apache/maven-compiler-plugin/pull/213
     String GOAL_WAR_EXPLODED = "exploded";
     String GOAL_WAR = "war";
+    String GOAL_TEST_RESOURCES = "resources:testResources";
+    String GOAL_TEST_COMPILE = "org.apache.maven.plugins:maven-compiler-plugin:3.12.1:testCompile";
+    String GOAL_SUREFIRE_TEST = "surefire:test";
+    String OPTION_TEST = "-Dtest=";
+    String OPTION_NO_SPECIFIED_TESTS_FAILURE = "-Dsurefire.failIfNoSpecifiedTests=false";
     String OPTION_DISABLE_INCREMENTAL_COMPILATION = "-Dmaven.compiler.useIncrementalCompilation=false";
     String OPTION_OUTPUT_DIRECTORY = "-Dmaven.compiler.outputDirectory=";
     String MAVEN_MULTI_MODULE_PROJECT_DIRECTORY = "maven.multiModuleProjectDirectory";
@@ -62,5 +69,11 @@ public interface Configuration {
     String JAVA_FILE_EXTENSION = ".java";
     String POM = "pom";
     String POM_XML = "pom.xml";
+    String CONTENT_HASH_INDEX = "payara-dev-hashes.properties";
+    String DEV_METRICS_FILE = "payara-dev-metrics.json";
+    String DEV_STAGING_DIRECTORY = "payara-dev-staging";
+    long DEFAULT_WATCH_QUIET_PERIOD = 300;
+    long DEFAULT_WATCH_MAX_LATENCY = 2000;
+    long DEFAULT_WATCH_POLL_INTERVAL = 1000;
 
 }
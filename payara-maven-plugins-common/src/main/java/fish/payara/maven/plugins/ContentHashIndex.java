@@ -0,0 +1,248 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Keeps the size, modification time and CRC32C checksum of the watched files,
+ * so that events for files rewritten with identical content (editor saves
+ * without edits, git checkouts touching timestamps) do not trigger a build.
+ * The index is persisted in the build directory to survive dev mode restarts.
+ */
+public class ContentHashIndex {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path baseDirectory;
+    private final Path indexFile;
+    private final Log log;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public ContentHashIndex(Path baseDirectory, Path indexFile, Log log) {
+        this.baseDirectory = baseDirectory;
+        this.indexFile = indexFile;
+        this.log = log;
+    }
+
+    /**
+     * Loads the index persisted by a previous dev mode session, if any.
+     */
+    public void load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(indexFile)) {
+            properties.load(in);
+        } catch (IOException ex) {
+            log.debug("Unable to read content hash index " + indexFile, ex);
+            return;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            Entry entry = Entry.parse(properties.getProperty(name));
+            if (entry != null) {
+                entries.put(baseDirectory.resolve(name), entry);
+            }
+        }
+        log.debug("Loaded " + entries.size() + " content hash(es) from " + indexFile);
+    }
+
+    /**
+     * Records the current content of the file. The persisted checksum is
+     * trusted as long as the size and modification time are unchanged, so
+     * seeding the index after a restart only reads the files edited in the
+     * meantime.
+     */
+    public void seed(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (!attrs.isRegularFile()) {
+                return;
+            }
+            Entry entry = entries.get(file);
+            long modified = attrs.lastModifiedTime().toMillis();
+            if (entry == null || entry.size != attrs.size() || entry.modified != modified) {
+                entries.put(file, new Entry(attrs.size(), modified, checksum(file)));
+                dirty = true;
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to hash " + file, ex);
+        }
+    }
+
+    /**
+     * Compares the current content of the file with the indexed one and
+     * updates the index.
+     *
+     * @return false if the file still has the indexed content, true if it
+     * was changed, deleted or is not indexed yet
+     */
+    public boolean update(Path file) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException ex) {
+            if (entries.remove(file) != null) {
+                dirty = true;
+            }
+            return true;
+        }
+        if (!attrs.isRegularFile()) {
+            return true;
+        }
+        Entry previous = entries.get(file);
+        long crc;
+        try {
+            crc = checksum(file);
+        } catch (IOException ex) {
+            log.debug("Unable to hash " + file, ex);
+            entries.remove(file);
+            return true;
+        }
+        Entry current = new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), crc);
+        if (!current.equals(previous)) {
+            entries.put(file, current);
+            dirty = true;
+        }
+        return previous == null || previous.size != current.size || previous.crc != current.crc;
+    }
+
+    /**
+     * Writes the index to disk if it was modified since the last save or was
+     * removed by a clean build.
+     */
+    public synchronized void save() {
+        if (!dirty && Files.exists(indexFile)) {
+            return;
+        }
+        dirty = false;
+        Properties properties = new Properties();
+        for (Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            if (entry.getKey().startsWith(baseDirectory)) {
+                String name = baseDirectory.relativize(entry.getKey()).toString().replace('\\', '/');
+                properties.setProperty(name, entry.getValue().toString());
+            }
+        }
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, "Payara dev mode content hashes");
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            dirty = true;
+            log.debug("Unable to write content hash index " + indexFile, ex);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static class Entry {
+
+        private final long size;
+        private final long modified;
+        private final long crc;
+
+        Entry(long size, long modified, long crc) {
+            this.size = size;
+            this.modified = modified;
+            this.crc = crc;
+        }
+
+        static Entry parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2], 16));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) obj;
+            return size == other.size && modified == other.modified && crc == other.crc;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(crc);
+        }
+
+        @Override
+        public String toString() {
+            return size + "," + modified + "," + Long.toHexString(crc);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Checkpoint images of a forked JVM taken with CRaC (Coordinated Restore at
+ * Checkpoint). A launch without an image runs with
+ * {@code -XX:CRaCCheckpointTo} and is checkpointed with
+ * {@code jcmd <pid> JDK.checkpoint} once it is ready, which ends the process.
+ * The later launches restore the image with {@code -XX:CRaCRestoreFrom}
+ * instead of booting.
+ * <p>
+ * Each image is stored in a directory named after a key of the launch, e.g.
+ * its arguments and the content of its boot command files, so that a launch
+ * with other inputs boots and is checkpointed again. The most recently used
+ * images are kept, so that reverting a change restores the previous image.
+ * An image is complete once the checkpointed process has exited, which is
+ * recorded by a marker file.
+ */
+public class CracCheckpoint {
+
+    static final int MAX_IMAGES = 2;
+    private static final long CHECKPOINT_TIMEOUT = 60;
+    private static final String IMAGE_PREFIX = "image-";
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private final Path directory;
+    private final String javaExecutable;
+    private final Log log;
+    private Path imageDirectory;
+
+    /**
+     * @param directory the directory of the images
+     * @param javaExecutable the java executable of the launches
+     * @param log the logger
+     */
+    public CracCheckpoint(Path directory, String javaExecutable, Log log) {
+        this.directory = directory;
+        this.javaExecutable = javaExecutable;
+        this.log = log;
+    }
+
+    /**
+     * @return true if the JVM of the java executable runs on Linux and
+     * supports CRaC
+     */
+    public static boolean isSupported(String javaExecutable, Log log) {
+        if (!System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("linux")) {
+            return false;
+        }
+        Path probeDirectory = null;
+        try {
+            probeDirectory = Files.createTempDirectory("crac");
+            return CdsArchive.run(log, javaExecutable, "-XX:CRaCCheckpointTo=" + probeDirectory, "-version") != null;
+        } catch (IOException ex) {
+            log.debug("Unable to check the CRaC support of " + javaExecutable, ex);
+            return false;
+        } finally {
+            if (probeDirectory != null) {
+                delete(probeDirectory);
+            }
+        }
+    }
+
+    /**
+     * Selects the image of the next launch, and deletes the least recently
+     * used images.
+     *
+     * @param key the key of the launch, see {@link CdsArchive#key(String...)}
+     */
+    public void select(String key) {
+        imageDirectory = directory.resolve(IMAGE_PREFIX + key);
+        List<Path> images = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, IMAGE_PREFIX + "*")) {
+                for (Path image : stream) {
+                    if (!image.equals(imageDirectory)) {
+                        images.add(image);
+                    }
+                }
+            } catch (IOException ex) {
+                log.debug("Unable to list the CRaC images of " + directory, ex);
+            }
+        }
+        images.sort(Comparator.comparing(CracCheckpoint::getLastModified).reversed());
+        for (int i = MAX_IMAGES - 1; i < images.size(); i++) {
+            log.debug("Deleting CRaC image " + images.get(i));
+            delete(images.get(i));
+        }
+    }
+
+    /**
+     * @return true if the selected image is complete
+     */
+    public boolean isRestorable() {
+        return imageDirectory != null && Files.exists(imageDirectory.resolve(COMPLETE_MARKER));
+    }
+
+    /**
+     * @return the command which restores the selected image
+     */
+    public List<String> getRestoreCommand() {
+        try {
+            Files.setLastModifiedTime(imageDirectory, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ex) {
+            log.debug("Unable to touch " + imageDirectory, ex);
+        }
+        return Arrays.asList(javaExecutable, "-XX:CRaCRestoreFrom=" + imageDirectory);
+    }
+
+    /**
+     * @return the JVM options which allow to checkpoint the launch into the
+     * selected image, an incomplete image is deleted
+     */
+    public List<String> getCheckpointOptions() {
+        delete(imageDirectory);
+        try {
+            Files.createDirectories(imageDirectory);
+        } catch (IOException ex) {
+            log.debug("Unable to create " + imageDirectory, ex);
+            return Collections.emptyList();
+        }
+        return Collections.singletonList("-XX:CRaCCheckpointTo=" + imageDirectory);
+    }
+
+    /**
+     * Checkpoints the process into the selected image, and waits for the
+     * process to exit.
+     *
+     * @return true if the image is complete, false if the checkpoint failed
+     * and the process is still running
+     */
+    public boolean checkpoint(Process process) throws InterruptedException {
+        Path java = Paths.get(javaExecutable);
+        String jcmd = java.getParent() != null ? java.resolveSibling("jcmd").toString() : "jcmd";
+        // jcmd may fail once the checkpointed process is gone, the exit of
+        // the process tells whether the checkpoint succeeded
+        String output = CdsArchive.run(log, jcmd, String.valueOf(process.pid()), "JDK.checkpoint");
+        if (!process.waitFor(CHECKPOINT_TIMEOUT, TimeUnit.SECONDS)) {
+            log.debug("CRaC checkpoint of process " + process.pid() + " failed: " + output);
+            return false;
+        }
+        try (Stream<Path> files = Files.list(imageDirectory)) {
+            if (!files.findAny().isPresent()) {
+                return false;
+            }
+            Files.createFile(imageDirectory.resolve(COMPLETE_MARKER));
+            return true;
+        } catch (IOException ex) {
+            log.debug("Unable to complete CRaC image " + imageDirectory, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the selected image, e.g. after a failed restore.
+     */
+    public void invalidate() {
+        if (imageDirectory != null) {
+            delete(imageDirectory);
+        }
+    }
+
+    public Path getImageDirectory() {
+        return imageDirectory;
+    }
+
+    private static FileTime getLastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void delete(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException ex) {
+            // deleted with the next image
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Coalesces bursts of file change events into a single build. A batch is due
+ * once no new event has been received for the quiet period, or once the
+ * first event of the batch is older than the max latency, whichever comes
+ * first.
+ */
+public class DebounceScheduler {
+
+    private final long quietPeriod;
+    private final long maxLatency;
+    private final LongSupplier clock;
+    private long firstEventTime;
+    private long lastEventTime;
+    private boolean pending;
+
+    /**
+     * @param quietPeriod the time without new events (in milliseconds) after
+     * which a batch is due
+     * @param maxLatency the maximum time (in milliseconds) a batch is delayed
+     * by a continuous stream of events
+     */
+    public DebounceScheduler(long quietPeriod, long maxLatency) {
+        this(quietPeriod, maxLatency, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    DebounceScheduler(long quietPeriod, long maxLatency, LongSupplier clock) {
+        if (quietPeriod < 0 || maxLatency < quietPeriod) {
+            throw new IllegalArgumentException("Invalid quiet period " + quietPeriod + " or max latency " + maxLatency);
+        }
+        this.quietPeriod = quietPeriod;
+        this.maxLatency = maxLatency;
+        this.clock = clock;
+    }
+
+    public synchronized void eventReceived() {
+        long now = clock.getAsLong();
+        if (!pending) {
+            pending = true;
+            firstEventTime = now;
+        }
+        lastEventTime = now;
+    }
+
+    public synchronized boolean hasPending() {
+        return pending;
+    }
+
+    /**
+     * @param idleTimeout the value returned when no batch is pending
+     * @return the time (in milliseconds) until the pending batch is due, 0 if
+     * it is already due
+     */
+    public synchronized long getDelay(long idleTimeout) {
+        if (!pending) {
+            return idleTimeout;
+        }
+        long dueTime = Math.min(lastEventTime + quietPeriod, firstEventTime + maxLatency);
+        return Math.max(0, dueTime - clock.getAsLong());
+    }
+
+    public synchronized boolean isDue() {
+        return pending && getDelay(0) == 0;
+    }
+
+    /**
+     * Marks the pending batch as dispatched.
+     *
+     * @return the time (in milliseconds) between the first event of the batch
+     * and its dispatch
+     */
+    public synchronized long dispatched() {
+        long latency = pending ? clock.getAsLong() - firstEventTime : 0;
+        pending = false;
+        return latency;
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Records where each dev mode cycle spends its time, from the file change to
+ * the deployment of the application:
+ * <ul>
+ * <li>detect: from the modification time of the first changed file to the
+ * watch event,</li>
+ * <li>debounce: from the first watch event to the dispatch of the batch,</li>
+ * <li>build: the compilation, Maven invocation or file sync,</li>
+ * <li>reload: the reload or redeploy request,</li>
+ * <li>deploy: from the end of the reload to the deployment message of the
+ * application log.</li>
+ * </ul>
+ * The number of file events of each cycle and the time spent processing them
+ * in the watcher thread are recorded as well.
+ * The phases are measured with the monotonic clock, except detect which
+ * compares the file system time with the wall clock. The recent cycles and
+ * the p50 and p95 of each phase are written to a JSON file after each cycle,
+ * along with the readiness and first deployment times of the last start of
+ * the instance.
+ */
+public class DevMetrics {
+
+    private static final int WINDOW_SIZE = 100;
+    private static final String[] PHASES = {"detect", "debounce", "build", "reload", "deploy", "total", "eventProcessing"};
+
+    private final Path metricsFile;
+    private final Log log;
+    private final Deque<Cycle> cycles = new ArrayDeque<>();
+    private final Map<String, Long> startup = new LinkedHashMap<>();
+    private Cycle building;
+    private Cycle deploying;
+    private int count;
+
+    public DevMetrics(Path metricsFile, Log log) {
+        this.metricsFile = metricsFile;
+        this.log = log;
+    }
+
+    /**
+     * Starts a cycle once a batch of changes is dispatched. A cycle whose
+     * build was superseded by the new batch, or whose reload has not started
+     * yet, is continued so that the total time is counted from the first
+     * change.
+     */
+    public synchronized void cycleStarted(int changes, long detectTime, long debounceTime) {
+        if (building != null) {
+            building.changes += changes;
+            building.debounceTime += debounceTime;
+            building.buildStart = 0;
+            building.buildEnd = 0;
+            return;
+        }
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(debounceTime);
+        building = new Cycle(++count, changes, detectTime, debounceTime, start);
+    }
+
+    /**
+     * Records the file events of the dispatched batch.
+     *
+     * @param eventTime the time (in milliseconds) spent processing the events
+     * @param storm true if the events were a storm handled by a full rebuild
+     */
+    public synchronized void eventsProcessed(int events, long eventTime, boolean storm) {
+        if (building != null) {
+            building.events += events;
+            building.eventTime += eventTime;
+            building.storm |= storm;
+        }
+    }
+
+    public synchronized void buildStarted(String kind) {
+        if (building != null) {
+            building.kind = kind;
+            building.buildStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends the build phase. A failed build completes the cycle.
+     */
+    public synchronized void buildFinished(boolean success) {
+        if (building != null && building.buildStart != 0) {
+            building.buildEnd = System.nanoTime();
+            if (!success) {
+                building.success = false;
+                complete(building, building.buildEnd);
+                building = null;
+            }
+        }
+    }
+
+    /**
+     * Hands the built cycle over to the reload. A previous cycle still
+     * waiting for its deployment message is completed without it.
+     */
+    public synchronized void reloadStarted() {
+        if (building == null || building.buildEnd == 0) {
+            // a newer batch is being built and will be reloaded as well
+            return;
+        }
+        if (deploying != null) {
+            complete(deploying, deploying.reloadEnd != 0 ? deploying.reloadEnd : System.nanoTime());
+        }
+        deploying = building;
+        building = null;
+        deploying.reloadStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the reload phase, the cycle is completed by {@link #deployed()}
+     * unless the deployment message was already seen.
+     */
+    public synchronized void reloadFinished() {
+        if (deploying != null && deploying.reloadEnd == 0) {
+            deploying.reloadEnd = System.nanoTime();
+            if (deploying.deployed != 0) {
+                complete(deploying, deploying.deployed);
+                deploying = null;
+            }
+        }
+    }
+
+    /**
+     * Completes a cycle which only refreshed the browser.
+     */
+    public synchronized void refreshed() {
+        if (building != null) {
+            long now = System.nanoTime();
+            building.reloadStart = now;
+            building.reloadEnd = now;
+            building.deployed = now;
+            complete(building, now);
+            building = null;
+        }
+    }
+
+    /**
+     * Called when the application log reports the deployment of the
+     * application.
+     */
+    public synchronized void deployed() {
+        if (deploying != null && deploying.deployed == 0) {
+            deploying.deployed = System.nanoTime();
+            if (deploying.reloadEnd != 0) {
+                complete(deploying, deploying.deployed);
+                deploying = null;
+            }
+        }
+    }
+
+    /**
+     * Records a startup time of the instance, e.g. "ready" or "firstDeploy".
+     *
+     * @param time the time (in milliseconds) since the start of the process
+     */
+    public synchronized void startupMeasured(String phase, long time) {
+        startup.put(phase, time);
+        write();
+    }
+
+    private void complete(Cycle cycle, long end) {
+        cycle.totalTime = TimeUnit.NANOSECONDS.toMillis(end - cycle.start) + cycle.detectTime;
+        cycles.addLast(cycle);
+        if (cycles.size() > WINDOW_SIZE) {
+            cycles.removeFirst();
+        }
+        log.info(format(cycle));
+        write();
+    }
+
+    private String format(Cycle cycle) {
+        StringBuilder sb = new StringBuilder("Dev cycle #").append(cycle.id)
+                .append(cycle.success ? "" : " (build failed)")
+                .append(cycle.storm ? " (event storm)" : "")
+                .append(": ").append(cycle.events).append(" event(s) in ").append(cycle.eventTime).append(" ms")
+                .append(", detect ").append(cycle.detectTime).append(" ms")
+                .append(", debounce ").append(cycle.debounceTime).append(" ms")
+                .append(", build ").append(cycle.getBuildTime()).append(" ms");
+        if (cycle.kind != null) {
+            sb.append(" (").append(cycle.kind).append(')');
+        }
+        if (cycle.success) {
+            sb.append(", reload ").append(cycle.getReloadTime()).append(" ms");
+            long deployTime = cycle.getDeployTime();
+            sb.append(", deploy ").append(deployTime >= 0 ? deployTime + " ms" : "n/a");
+        }
+        sb.append(", total ").append(cycle.totalTime).append(" ms");
+        List<Long> totals = successful(c -> c.totalTime);
+        if (totals.size() > 1) {
+            sb.append(" (p50 ").append(percentile(totals, 50)).append(" ms, p95 ").append(percentile(totals, 95)).append(" ms)");
+        }
+        return sb.toString();
+    }
+
+    private List<Long> successful(ToLongFunction<Cycle> phase) {
+        List<Long> values = new ArrayList<>();
+        for (Cycle cycle : cycles) {
+            long value = phase.applyAsLong(cycle);
+            if (cycle.success && value >= 0) {
+                values.add(value);
+            }
+        }
+        Collections.sort(values);
+        return values;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    static long percentile(List<Long> sortedValues, int percentile) {
+        if (sortedValues.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.size());
+        return sortedValues.get(Math.max(0, rank - 1));
+    }
+
+    private void write() {
+        StringBuilder json = new StringBuilder("{\n  \"summary\": {\n");
+        json.append("    \"cycles\": ").append(count).append(",\n");
+        json.append("    \"window\": ").append(cycles.size()).append(",\n");
+        json.append("    \"threads\": ").append(ProcessThreads.getActiveCount()).append(",\n");
+        if (!startup.isEmpty()) {
+            json.append("    \"startup\": {");
+            boolean firstPhase = true;
+            for (Map.Entry<String, Long> entry : startup.entrySet()) {
+                json.append(firstPhase ? "" : ", ").append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+                firstPhase = false;
+            }
+            json.append("},\n");
+        }
+        List<ToLongFunction<Cycle>> phases = new ArrayList<>();
+        phases.add(c -> c.detectTime);
+        phases.add(c -> c.debounceTime);
+        phases.add(Cycle::getBuildTime);
+        phases.add(Cycle::getReloadTime);
+        phases.add(Cycle::getDeployTime);
+        phases.add(c -> c.totalTime);
+        phases.add(c -> c.eventTime);
+        for (int i = 0; i < PHASES.length; i++) {
+            List<Long> values = successful(phases.get(i));
+            json.append("    \"").append(PHASES[i]).append("\": {\"p50\": ").append(percentile(values, 50))
+                    .append(", \"p95\": ").append(percentile(values, 95)).append('}')
+                    .append(i < PHASES.length - 1 ? ",\n" : "\n");
+        }
+        json.append("  },\n  \"cycles\": [");
+        boolean first = true;
+        for (Cycle cycle : cycles) {
+            json.append(first ? "\n" : ",\n").append("    ").append(cycle.toJson());
+            first = false;
+        }
+        json.append("\n  ]\n}\n");
+        try {
+            Files.createDirectories(metricsFile.getParent());
+            Path tempFile = metricsFile.resolveSibling(metricsFile.getFileName() + ".tmp");
+            Files.write(tempFile, json.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, metricsFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.debug("Unable to write dev metrics to " + metricsFile, ex);
+        }
+    }
+
+    private static class Cycle {
+
+        private final int id;
+        private final Instant timestamp = Instant.now();
+        private final long detectTime;
+        private final long start;
+        private int changes;
+        private int events;
+        private long eventTime;
+        private boolean storm;
+        private long debounceTime;
+        private String kind;
+        private boolean success = true;
+        private long buildStart;
+        private long buildEnd;
+        private long reloadStart;
+        private long reloadEnd;
+        private long deployed;
+        private long totalTime;
+
+        Cycle(int id, int changes, long detectTime, long debounceTime, long start) {
+            this.id = id;
+            this.changes = changes;
+            this.detectTime = detectTime;
+            this.debounceTime = debounceTime;
+            this.start = start;
+        }
+
+        long getBuildTime() {
+            return buildEnd != 0 ? TimeUnit.NANOSECONDS.toMillis(buildEnd - buildStart) : 0;
+        }
+
+        long getReloadTime() {
+            return reloadEnd != 0 ? TimeUnit.NANOSECONDS.toMillis(reloadEnd - reloadStart) : 0;
+        }
+
+        /**
+         * @return the deployment time, or -1 if the deployment message was not
+         * seen
+         */
+        long getDeployTime() {
+            return deployed != 0 && reloadEnd != 0 ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(deployed - reloadEnd)) : -1;
+        }
+
+        String toJson() {
+            return "{\"id\": " + id
+                    + ", \"timestamp\": \"" + timestamp + '"'
+                    + ", \"changes\": " + changes
+                    + ", \"events\": " + events
+                    + ", \"eventProcessing\": " + eventTime
+                    + ", \"storm\": " + storm
+                    + ", \"kind\": " + (kind != null ? '"' + kind + '"' : "null")
+                    + ", \"success\": " + success
+                    + ", \"detect\": " + detectTime
+                    + ", \"debounce\": " + debounceTime
+                    + ", \"build\": " + getBuildTime()
+                    + ", \"reload\": " + getReloadTime()
+                    + ", \"deploy\": " + getDeployTime()
+                    + ", \"total\": " + totalTime + '}';
+        }
+    }
+}
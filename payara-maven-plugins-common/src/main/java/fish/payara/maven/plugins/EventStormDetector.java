@@ -0,0 +1,101 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Detects storms of file events, e.g. from a git checkout or pull, either by
+ * their rate within a sliding window or by their count within a batch.
+ */
+public class EventStormDetector {
+
+    private final long window;
+    private final int batchThreshold;
+    private final LongSupplier clock;
+    private final long[] eventTimes;
+    private int index;
+    private int received;
+    private int batchCount;
+
+    /**
+     * @param rateThreshold the number of events within the window that
+     * starts a storm
+     * @param window the sliding window (in milliseconds)
+     * @param batchThreshold the number of events within a single batch that
+     * starts a storm, however slowly they arrive
+     */
+    public EventStormDetector(int rateThreshold, long window, int batchThreshold) {
+        this(rateThreshold, window, batchThreshold, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    EventStormDetector(int rateThreshold, long window, int batchThreshold, LongSupplier clock) {
+        if (rateThreshold < 1 || window < 0 || batchThreshold < 1) {
+            throw new IllegalArgumentException("Invalid storm threshold " + rateThreshold + " or window " + window);
+        }
+        this.eventTimes = new long[rateThreshold];
+        this.window = window;
+        this.batchThreshold = batchThreshold;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if the event starts a storm
+     */
+    public boolean eventReceived() {
+        long now = clock.getAsLong();
+        // the ring holds the time of the last rateThreshold events, the
+        // oldest one follows the newest
+        eventTimes[index] = now;
+        index = (index + 1) % eventTimes.length;
+        received++;
+        batchCount++;
+        return (received >= eventTimes.length && now - eventTimes[index] <= window) || batchCount >= batchThreshold;
+    }
+
+    /**
+     * Starts counting a new batch, once the previous one is dispatched or a
+     * storm is over.
+     */
+    public void reset() {
+        batchCount = 0;
+        received = 0;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Local TCP proxy which forwards the connections of a port to the port of
+ * the running instance. Switching the target port moves the new connections
+ * to another instance, e.g. a standby instance that takes over after a
+ * reboot, while the port used by the browser and the tests stays the same.
+ * <p>
+ * The connections already forwarded keep their instance until they are
+ * closed. A connection is closed if its target does not accept it.
+ */
+public class ForwardingProxy implements Closeable {
+
+    static final int CONNECT_TIMEOUT = 2000;
+    private static final int BUFFER_SIZE = 16384;
+    private static final long MAX_ACCEPT_BACKOFF = 1000;
+
+    private final int port;
+    private final Log log;
+    private final ExecutorService executor;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private volatile int target = -1;
+    private volatile ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    /**
+     * @param port the port to listen on, or 0 for a free port
+     * @param log the logger
+     */
+    public ForwardingProxy(int port, Log log) {
+        this.port = port;
+        this.log = log;
+        // a browser keeps many connections open, with two pumps each, so
+        // they are not run within the ProcessThreads limit
+        this.executor = ProcessThreads.newUnboundedExecutor("payara-proxy");
+    }
+
+    /**
+     * Binds the port and starts accepting connections.
+     *
+     * @throws IOException if the port is already in use
+     */
+    public void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        try {
+            socket.bind(new InetSocketAddress(port));
+        } catch (IOException ex) {
+            socket.close();
+            throw ex;
+        }
+        serverSocket = socket;
+        executor.execute(this::accept);
+    }
+
+    /**
+     * @param targetPort the local port the new connections are forwarded to
+     */
+    public void setTarget(int targetPort) {
+        int previous = target;
+        target = targetPort;
+        if (previous != targetPort) {
+            log.debug("Forwarding port " + getPort() + " to port " + targetPort);
+        }
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the port the proxy listens on
+     */
+    public int getPort() {
+        ServerSocket socket = serverSocket;
+        return socket != null ? socket.getLocalPort() : port;
+    }
+
+    /**
+     * @return the number of connections forwarded so far
+     */
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        ServerSocket socket = serverSocket;
+        if (socket != null) {
+            closeQuietly(socket);
+        }
+        for (Socket connection : sockets) {
+            closeQuietly(connection);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return a local port which is free at the time of the call
+     */
+    public static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Accepts the connections until the proxy is closed. Failures like
+     * running out of file descriptors back off instead of spinning.
+     */
+    private void accept() {
+        int failures = 0;
+        while (!closed) {
+            Socket client;
+            try {
+                client = serverSocket.accept();
+                failures = 0;
+            } catch (IOException ex) {
+                if (closed) {
+                    return;
+                }
+                log.debug("Unable to accept a connection on port " + getPort(), ex);
+                try {
+                    Thread.sleep(Math.min(MAX_ACCEPT_BACKOFF, 10L << Math.min(++failures, 7)));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            try {
+                executor.execute(() -> forward(client));
+            } catch (RejectedExecutionException ex) {
+                // closed meanwhile
+                closeQuietly(client);
+            }
+        }
+    }
+
+    private void forward(Socket client) {
+        int targetPort = target;
+        Socket backend = new Socket();
+        try {
+            if (targetPort < 0) {
+                throw new IOException("No target");
+            }
+            backend.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), targetPort), CONNECT_TIMEOUT);
+        } catch (IOException ex) {
+            log.debug("Unable to forward a connection to port " + targetPort + ": " + ex.getMessage());
+            closeQuietly(client);
+            closeQuietly(backend);
+            return;
+        }
+        connections.incrementAndGet();
+        sockets.add(client);
+        sockets.add(backend);
+        if (closed) {
+            closeQuietly(client);
+            closeQuietly(backend);
+            return;
+        }
+        AtomicInteger open = new AtomicInteger(2);
+        executor.execute(() -> copy(backend, client, open));
+        copy(client, backend, open);
+    }
+
+    /**
+     * Copies one direction of a connection. The write side is shut down at
+     * the end of the stream, and both sockets are closed once both
+     * directions have ended.
+     */
+    private void copy(Socket from, Socket to, AtomicInteger open) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            to.shutdownOutput();
+        } catch (IOException ex) {
+            // reset by either side, the other direction ends with it
+            open.set(1);
+        }
+        if (open.decrementAndGet() <= 0) {
+            closeQuietly(from);
+            closeQuietly(to);
+            sockets.remove(from);
+            sockets.remove(to);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ex) {
+            // already closed
+        }
+    }
+}
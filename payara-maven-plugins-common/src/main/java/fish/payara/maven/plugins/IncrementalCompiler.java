@@ -0,0 +1,281 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Keeps a single {@link JavaCompiler} and its file manager warm in the plugin
+ * JVM so that dev mode can recompile changed sources without forking Maven.
+ * The compile classpath is taken from the already resolved
+ * {@link MavenProject} and reused until {@link #close()} is called. The
+ * project is not reloaded, so the compiler must not be used once the
+ * pom.xml has changed.
+ */
+public class IncrementalCompiler {
+
+    private static final String COMPILER_PLUGIN_KEY = "org.apache.maven.plugins:maven-compiler-plugin";
+
+    private final MavenProject project;
+    private final Log log;
+    private final JavaCompiler compiler;
+    private StandardJavaFileManager fileManager;
+    private List<File> classpath;
+    private List<String> options;
+
+    public IncrementalCompiler(MavenProject project, Log log) {
+        this.project = project;
+        this.log = log;
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+    }
+
+    /**
+     * @return true if the running JVM provides a system Java compiler and the
+     * project does not rely on a compiler setup that can only be honoured by
+     * maven-compiler-plugin (e.g. annotation processor paths).
+     */
+    public boolean isAvailable() {
+        if (compiler == null) {
+            log.debug("In-process compiler unavailable: no system Java compiler in " + System.getProperty("java.home"));
+            return false;
+        }
+        Xpp3Dom config = getCompilerConfiguration();
+        if (config != null && config.getChild("annotationProcessorPaths") != null) {
+            log.debug("In-process compiler unavailable: annotationProcessorPaths is configured");
+            return false;
+        }
+        if (!project.getDependencies().isEmpty() && project.getArtifacts().isEmpty()) {
+            log.debug("In-process compiler unavailable: project dependencies are not resolved");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compiles the given source files into the output directory.
+     *
+     * @param sources the changed source files
+     * @param outputDirectory the staging or classes directory
+     * @param classesDirectories the directories which precede the project
+     * dependencies on the classpath, newest first
+     * @return true if the compilation succeeded
+     */
+    public synchronized boolean compile(Collection<Path> sources, File outputDirectory, List<File> classesDirectories) throws IOException {
+        if (sources.isEmpty()) {
+            return true;
+        }
+        if (fileManager == null) {
+            Charset charset = getEncoding() != null ? Charset.forName(getEncoding()) : null;
+            fileManager = compiler.getStandardFileManager(null, Locale.getDefault(), charset);
+        }
+        if (classpath == null) {
+            classpath = resolveClasspath();
+            options = resolveOptions();
+            List<File> sourcePath = new ArrayList<>();
+            for (String root : project.getCompileSourceRoots()) {
+                File rootDir = new File(root);
+                if (rootDir.isDirectory()) {
+                    sourcePath.add(rootDir);
+                }
+            }
+            fileManager.setLocation(StandardLocation.SOURCE_PATH, sourcePath);
+            log.debug("In-process compiler classpath: " + classpath);
+            log.debug("In-process compiler options: " + options);
+        }
+        outputDirectory.mkdirs();
+        List<File> effectiveClasspath = new ArrayList<>(classpath.size() + classesDirectories.size() + 1);
+        effectiveClasspath.add(outputDirectory);
+        effectiveClasspath.addAll(classesDirectories);
+        effectiveClasspath.addAll(classpath);
+        fileManager.setLocation(StandardLocation.CLASS_PATH, effectiveClasspath);
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDirectory));
+
+        List<File> files = new ArrayList<>(sources.size());
+        for (Path source : sources) {
+            files.add(source.toFile());
+        }
+        Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean success;
+        try {
+            success = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+        } catch (RuntimeException ex) {
+            if (!Thread.currentThread().isInterrupted()) {
+                throw ex;
+            }
+            success = false;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // the interrupt closes the channels of the cached archives, start
+            // over with a fresh file manager on the next build
+            close();
+            return false;
+        }
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            String message = format(diagnostic);
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                log.error(message);
+            } else if (diagnostic.getKind() == Diagnostic.Kind.WARNING
+                    || diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+                log.warn(message);
+            } else {
+                log.debug(message);
+            }
+        }
+        fileManager.flush();
+        return success;
+    }
+
+    public synchronized void close() {
+        if (fileManager != null) {
+            try {
+                fileManager.close();
+            } catch (IOException ex) {
+                log.debug(ex);
+            }
+            fileManager = null;
+        }
+        classpath = null;
+        options = null;
+    }
+
+    private List<File> resolveClasspath() {
+        List<File> elements = new ArrayList<>();
+        try {
+            for (String element : project.getCompileClasspathElements()) {
+                elements.add(new File(element));
+            }
+        } catch (DependencyResolutionRequiredException ex) {
+            log.warn("Unable to resolve compile classpath of " + project.getName(), ex);
+        }
+        return elements;
+    }
+
+    private List<String> resolveOptions() {
+        List<String> args = new ArrayList<>();
+        String release = getCompilerSetting("release", "maven.compiler.release");
+        if (release != null) {
+            args.add("--release");
+            args.add(release);
+        } else {
+            String source = getCompilerSetting("source", "maven.compiler.source");
+            String target = getCompilerSetting("target", "maven.compiler.target");
+            if (source != null) {
+                args.add("-source");
+                args.add(source);
+            }
+            if (target != null) {
+                args.add("-target");
+                args.add(target);
+            }
+        }
+        if (getEncoding() != null) {
+            args.add("-encoding");
+            args.add(getEncoding());
+        }
+        if (Boolean.parseBoolean(getCompilerSetting("parameters", "maven.compiler.parameters"))) {
+            args.add("-parameters");
+        }
+        Xpp3Dom config = getCompilerConfiguration();
+        if (config != null && config.getChild("compilerArgs") != null) {
+            for (Xpp3Dom arg : config.getChild("compilerArgs").getChildren()) {
+                if (arg.getValue() != null) {
+                    args.add(arg.getValue().trim());
+                }
+            }
+        }
+        args.add("-g");
+        return args;
+    }
+
+    private String getEncoding() {
+        return getCompilerSetting("encoding", "project.build.sourceEncoding");
+    }
+
+    private String getCompilerSetting(String name, String property) {
+        Xpp3Dom config = getCompilerConfiguration();
+        if (config != null && config.getChild(name) != null) {
+            String value = config.getChild(name).getValue();
+            if (value != null && !value.trim().isEmpty() && !value.trim().startsWith("${")) {
+                return value.trim();
+            }
+        }
+        String value = project.getProperties().getProperty(property);
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
+    }
+
+    private Xpp3Dom getCompilerConfiguration() {
+        Plugin plugin = project.getPlugin(COMPILER_PLUGIN_KEY);
+        if (plugin != null && plugin.getConfiguration() instanceof Xpp3Dom) {
+            return (Xpp3Dom) plugin.getConfiguration();
+        }
+        return null;
+    }
+
+    private static String format(Diagnostic<? extends JavaFileObject> diagnostic) {
+        StringBuilder sb = new StringBuilder();
+        if (diagnostic.getSource() != null) {
+            sb.append(diagnostic.getSource().getName())
+                    .append(":[").append(diagnostic.getLineNumber())
+                    .append(',').append(diagnostic.getColumnNumber()).append("] ");
+        }
+        sb.append(diagnostic.getMessage(Locale.getDefault()));
+        return sb.toString();
+    }
+}
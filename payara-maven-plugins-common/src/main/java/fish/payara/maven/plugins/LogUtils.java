@@ -47,35 +47,127 @@ import java.util.regex.Pattern;
  */
 public class LogUtils {
 
+    private static final String INFO_LEVEL = "INFO";
     private static final String WARNING_LEVEL = "WARNING";
     private static final String SEVERE_LEVEL = "SEVERE";
+    private static final String[] LEVELS = {INFO_LEVEL, WARNING_LEVEL, SEVERE_LEVEL};
+    private static final String LEVEL_VALUE = "[levelValue: ";
     private static final String LOG_REGEX = "\\[([^\\[\\]]*)\\].*(\\[.*(INFO|WARNING|SEVERE).*\\]).*\\[levelValue\\: \\d+\\](.*)";
+    private static final Pattern LOG_PATTERN = Pattern.compile(LOG_REGEX);
     private static final String WHITE_COLOR_CODE = "\033[97m" + '[';
     private static final String YELLOW_COLOR_CODE = "\033[93m" + '[';
     private static final String RED_COLOR_CODE = "\033[91m" + '[';
     private static final String RESET_COLOR_CODE = ']' + "\033[0m ";
 
+    /**
+     * Shortens a log record to its time, level and message. The record is
+     * parsed in a few scans of the line, giving the same groups as
+     * {@link #LOG_REGEX} without its backtracking.
+     */
     public static String trimLog(String line) {
-        Pattern pattern = Pattern.compile(LOG_REGEX);
-        Matcher matcher = pattern.matcher(line);
+        int levelValue = line.lastIndexOf(LEVEL_VALUE);
+        if (levelValue < 0) {
+            return line;
+        }
+        if (hasLineSeparator(line)) {
+            return trimLogWithPattern(line);
+        }
+        // the first bracket without nested brackets is the timestamp
+        int timestampStart = line.indexOf('[');
+        int timestampEnd = -1;
+        while (timestampStart >= 0) {
+            int i = timestampStart + 1;
+            while (i < line.length() && line.charAt(i) != '[' && line.charAt(i) != ']') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == ']') {
+                timestampEnd = i;
+                break;
+            }
+            timestampStart = i < line.length() ? i : -1;
+        }
+        if (timestampEnd < 0) {
+            return line;
+        }
+        for (; levelValue > timestampEnd; levelValue = line.lastIndexOf(LEVEL_VALUE, levelValue - 1)) {
+            int contentStart = getContentStart(line, levelValue);
+            if (contentStart < 0) {
+                continue;
+            }
+            int levelEnd = line.lastIndexOf(']', levelValue - 1);
+            for (int levelStart = line.lastIndexOf('[', levelEnd - 1); levelStart > timestampEnd;
+                    levelStart = line.lastIndexOf('[', levelStart - 1)) {
+                String level = getLastLevel(line, levelStart + 1, levelEnd);
+                if (level != null) {
+                    return format(line.substring(timestampStart + 1, timestampEnd).trim(), level,
+                            line.substring(contentStart).trim());
+                }
+            }
+        }
+        return line;
+    }
+
+    static String trimLogWithPattern(String line) {
+        Matcher matcher = LOG_PATTERN.matcher(line);
         boolean find = matcher.find();
         if (find) {
             String timeStamp = matcher.group(1).trim();
             String level = matcher.group(3).trim();
             String content = matcher.group(4).trim();
-            switch (level) {
-                case WARNING_LEVEL:
-                    return warning(getTimestamp(timeStamp) + " ", content);
-                case SEVERE_LEVEL:
-                    return severe(getTimestamp(timeStamp) + " ", content);
-                default:
-                    return getTimestamp(timeStamp) + " " + content;
-            }
+            return format(timeStamp, level, content);
         } else {
             return line;
         }
     }
 
+    private static String format(String timeStamp, String level, String content) {
+        switch (level) {
+            case WARNING_LEVEL:
+                return warning(getTimestamp(timeStamp) + " ", content);
+            case SEVERE_LEVEL:
+                return severe(getTimestamp(timeStamp) + " ", content);
+            default:
+                return getTimestamp(timeStamp) + " " + content;
+        }
+    }
+
+    /**
+     * @return the index after {@code [levelValue: <digits>]}, or -1
+     */
+    private static int getContentStart(String line, int levelValue) {
+        int i = levelValue + LEVEL_VALUE.length();
+        int digitsStart = i;
+        while (i < line.length() && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+            i++;
+        }
+        return i > digitsStart && i < line.length() && line.charAt(i) == ']' ? i + 1 : -1;
+    }
+
+    /**
+     * @return the level which occurs last in the range, like the greedy
+     * groups of {@link #LOG_REGEX}
+     */
+    private static String getLastLevel(String line, int start, int end) {
+        String last = null;
+        int lastIndex = -1;
+        for (String level : LEVELS) {
+            int index = line.lastIndexOf(level, end - level.length());
+            if (index >= start && index > lastIndex) {
+                last = level;
+                lastIndex = index;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * The line separators which do not end a line read by a
+     * {@link java.io.BufferedReader}, but are not matched by {@code .}.
+     */
+    private static boolean hasLineSeparator(String line) {
+        return line.indexOf('\u0085') >= 0 || line.indexOf('\u2028') >= 0 || line.indexOf('\u2029') >= 0;
+    }
+
     public static String highlight(String text) {
         int leadingSpaces = 0;
         while (leadingSpaces < text.length() && Character.isWhitespace(text.charAt(leadingSpaces))) {
@@ -0,0 +1,173 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Finds which of a fixed set of markers occur in a log line, in a single
+ * pass over the line and without allocating. The markers are compiled into an
+ * Aho-Corasick automaton with all transitions precomputed, so each character
+ * costs one table lookup however many markers there are.
+ */
+public class MarkerMatcher {
+
+    private static final int ASCII = 128;
+
+    private final int[] asciiIndex = new int[ASCII];
+    private final char[] otherChars;
+    private final int[][] transitions;
+    private final int[] outputs;
+    private final int all;
+
+    /**
+     * @param markers up to 32 markers, the marker at index {@code i} is
+     * reported as bit {@code 1 << i}
+     */
+    public MarkerMatcher(String... markers) {
+        if (markers.length == 0 || markers.length > Integer.SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + Integer.SIZE + " markers are supported");
+        }
+        Arrays.fill(asciiIndex, -1);
+        StringBuilder others = new StringBuilder();
+        int alphabetSize = 0;
+        for (String marker : markers) {
+            if (marker == null || marker.isEmpty()) {
+                throw new IllegalArgumentException("Markers must not be empty");
+            }
+            for (char c : marker.toCharArray()) {
+                if (c < ASCII) {
+                    if (asciiIndex[c] < 0) {
+                        asciiIndex[c] = alphabetSize++;
+                    }
+                } else if (others.indexOf(String.valueOf(c)) < 0) {
+                    others.append(c);
+                }
+            }
+        }
+        otherChars = others.toString().toCharArray();
+        Arrays.sort(otherChars);
+        int asciiSize = alphabetSize;
+        alphabetSize += otherChars.length;
+
+        // trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> trieOutputs = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        trieOutputs.add(0);
+        for (int i = 0; i < markers.length; i++) {
+            int state = 0;
+            for (char c : markers[i].toCharArray()) {
+                int index = c < ASCII ? asciiIndex[c] : asciiSize + Arrays.binarySearch(otherChars, c);
+                if (trie.get(state)[index] < 0) {
+                    trie.get(state)[index] = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    trieOutputs.add(0);
+                }
+                state = trie.get(state)[index];
+            }
+            trieOutputs.set(state, trieOutputs.get(state) | (1 << i));
+        }
+
+        // failure links, turned into a complete transition table
+        transitions = trie.toArray(new int[0][]);
+        outputs = new int[transitions.length];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = trieOutputs.get(i);
+        }
+        int[] failure = new int[transitions.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int index = 0; index < alphabetSize; index++) {
+            int next = transitions[0][index];
+            if (next < 0) {
+                transitions[0][index] = 0;
+            } else {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[failure[state]];
+            for (int index = 0; index < alphabetSize; index++) {
+                int next = transitions[state][index];
+                if (next < 0) {
+                    transitions[state][index] = transitions[failure[state]][index];
+                } else {
+                    failure[next] = transitions[failure[state]][index];
+                    queue.add(next);
+                }
+            }
+        }
+        all = markers.length == Integer.SIZE ? -1 : (1 << markers.length) - 1;
+    }
+
+    /**
+     * @return the bits of the markers contained in the text
+     */
+    public int match(CharSequence text) {
+        int state = 0;
+        int found = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int index;
+            if (c < ASCII) {
+                index = asciiIndex[c];
+            } else {
+                index = Arrays.binarySearch(otherChars, c);
+                index = index < 0 ? -1 : transitions[0].length - otherChars.length + index;
+            }
+            state = index < 0 ? 0 : transitions[state][index];
+            found |= outputs[state];
+            if (found == all) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    private static int[] newRow(int size) {
+        int[] row = new int[size];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.Watchable;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * {@link WatchService} that detects changes by periodically scanning the
+ * registered directories and comparing the size, modification time and file
+ * key (inode) of their entries with the previous snapshot. It is used when
+ * the native watch service is not available, typically because the inotify
+ * instance or watch limits of the system are reached.
+ * <p>
+ * The scans run on the {@link ProcessThreads} given to {@link #start}, with
+ * the registered directories split across a few parallel tasks. The cost of
+ * each scan is measured, and a warning is logged when scanning takes a large
+ * share of the interval.
+ */
+public class PollingWatchService implements WatchService {
+
+    // keeps most of the ProcessThreads slots for the process streams
+    private static final int MAX_PARALLELISM = 4;
+
+    private final long interval;
+    private final Log log;
+    private final Map<Path, PollingWatchKey> keys = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<WatchKey> signalled = new LinkedBlockingQueue<>();
+    private final int parallelism = Math.max(1, Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors() / 2));
+    private ProcessThreads threads;
+    private Future<?> scanner;
+    private volatile boolean closed;
+    private long scanCount;
+    private long scanTime;
+
+    /**
+     * @param interval the time (in milliseconds) between two scans
+     * @param log the logger for the scan statistics
+     */
+    public PollingWatchService(long interval, Log log) {
+        this.interval = interval;
+        this.log = log;
+    }
+
+    /**
+     * Starts scanning the registered directories every interval.
+     *
+     * @param threads the owner of the scan tasks
+     */
+    public synchronized void start(ProcessThreads threads) {
+        if (scanner != null) {
+            return;
+        }
+        this.threads = threads;
+        this.scanner = threads.submit("polling-scan-" + interval, () -> {
+            try {
+                while (!closed) {
+                    Thread.sleep(interval);
+                    scan();
+                }
+            } catch (InterruptedException ex) {
+                // closed
+            }
+        });
+    }
+
+    /**
+     * Registers a directory. Only its direct entries are watched, like a
+     * directory registered with the native watch service.
+     */
+    public WatchKey register(Path directory) throws IOException {
+        if (closed) {
+            throw new ClosedWatchServiceException();
+        }
+        PollingWatchKey key = keys.get(directory);
+        if (key == null) {
+            key = new PollingWatchKey(directory);
+            key.snapshot = list(directory);
+            keys.put(directory, key);
+        }
+        return key;
+    }
+
+    /**
+     * Scans all registered directories once and signals the keys of the
+     * directories with changes.
+     */
+    void scan() {
+        if (closed) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        AtomicInteger entries = new AtomicInteger();
+        AtomicInteger changes = new AtomicInteger();
+        List<PollingWatchKey> snapshot = new ArrayList<>(keys.values());
+        int tasks = threads == null ? 1 : Math.min(parallelism, snapshot.size());
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int i = 1; i < tasks; i++) {
+            int first = i;
+            futures.add(threads.submit("polling-scan-" + interval + "-" + i,
+                    () -> scan(snapshot, first, tasks, entries, changes)));
+        }
+        scan(snapshot, 0, tasks, entries, changes);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (CancellationException | ExecutionException ex) {
+                log.debug("Error scanning watched directories", ex);
+            }
+        }
+        recordScanTime(snapshot.size(), entries.get(), changes.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+
+    private void scan(List<PollingWatchKey> keys, int first, int step, AtomicInteger entries, AtomicInteger changes) {
+        for (int i = first; i < keys.size(); i += step) {
+            scan(keys.get(i), entries, changes);
+        }
+    }
+
+    private void scan(PollingWatchKey key, AtomicInteger entries, AtomicInteger changes) {
+        Map<Path, FileState> current;
+        try {
+            current = list(key.directory);
+        } catch (IOException ex) {
+            // the directory was deleted, its parent reports the deletion
+            keys.remove(key.directory);
+            key.cancel();
+            return;
+        }
+        List<WatchEvent<?>> events = new ArrayList<>();
+        for (Map.Entry<Path, FileState> entry : current.entrySet()) {
+            FileState previous = key.snapshot.get(entry.getKey());
+            if (previous == null) {
+                events.add(new PollingWatchEvent(StandardWatchEventKinds.ENTRY_CREATE, entry.getKey()));
+            } else if (!entry.getValue().directory && !previous.equals(entry.getValue())) {
+                events.add(new PollingWatchEvent(StandardWatchEventKinds.ENTRY_MODIFY, entry.getKey()));
+            }
+        }
+        for (Path name : key.snapshot.keySet()) {
+            if (!current.containsKey(name)) {
+                events.add(new PollingWatchEvent(StandardWatchEventKinds.ENTRY_DELETE, name));
+            }
+        }
+        key.snapshot = current;
+        entries.addAndGet(current.size());
+        if (!events.isEmpty()) {
+            changes.addAndGet(events.size());
+            key.signal(events);
+        }
+    }
+
+    private static Map<Path, FileState> list(Path directory) throws IOException {
+        Map<Path, FileState> entries = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    entries.put(path.getFileName(), new FileState(attrs));
+                } catch (IOException ex) {
+                    // deleted while scanning
+                }
+            }
+        }
+        return entries;
+    }
+
+    private synchronized void recordScanTime(int directories, int entries, int changes, long duration) {
+        scanCount++;
+        scanTime += duration;
+        if (scanCount == 1) {
+            log.info("Polling " + directories + " directories with " + entries + " entries every " + interval
+                    + " ms, first scan took " + duration + " ms");
+        } else if (changes > 0) {
+            log.debug("Scanned " + directories + " directories with " + entries + " entries in " + duration
+                    + " ms, found " + changes + " change(s) (avg " + (scanTime / scanCount) + " ms over " + scanCount + " scans)");
+        }
+        if (duration > interval / 2) {
+            log.warn("Scanning the watched directories took " + duration + " ms, consider increasing the polling interval of "
+                    + interval + " ms or excluding directories from the watch.");
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (scanner != null) {
+                scanner.cancel(true);
+            }
+        }
+        keys.clear();
+    }
+
+    @Override
+    public WatchKey poll() {
+        checkOpen();
+        return signalled.poll();
+    }
+
+    @Override
+    public WatchKey poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        return signalled.poll(timeout, unit);
+    }
+
+    @Override
+    public WatchKey take() throws InterruptedException {
+        checkOpen();
+        return signalled.take();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new ClosedWatchServiceException();
+        }
+    }
+
+    private static class FileState {
+
+        private final long size;
+        private final long modified;
+        private final Object fileKey;
+        private final boolean directory;
+
+        FileState(BasicFileAttributes attrs) {
+            this.size = attrs.size();
+            this.modified = attrs.lastModifiedTime().toMillis();
+            this.fileKey = attrs.fileKey();
+            this.directory = attrs.isDirectory();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            FileState other = (FileState) obj;
+            return size == other.size && modified == other.modified
+                    && directory == other.directory && Objects.equals(fileKey, other.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modified);
+        }
+    }
+
+    private class PollingWatchKey implements WatchKey {
+
+        private final Path directory;
+        private volatile Map<Path, FileState> snapshot = Collections.emptyMap();
+        private final List<WatchEvent<?>> events = new ArrayList<>();
+        private boolean ready = true;
+        private volatile boolean valid = true;
+
+        PollingWatchKey(Path directory) {
+            this.directory = directory;
+        }
+
+        synchronized void signal(List<WatchEvent<?>> newEvents) {
+            events.addAll(newEvents);
+            if (ready) {
+                ready = false;
+                signalled.add(this);
+            }
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid && !closed;
+        }
+
+        @Override
+        public synchronized List<WatchEvent<?>> pollEvents() {
+            List<WatchEvent<?>> result = new ArrayList<>(events);
+            events.clear();
+            return result;
+        }
+
+        @Override
+        public synchronized boolean reset() {
+            if (!isValid()) {
+                return false;
+            }
+            if (events.isEmpty()) {
+                ready = true;
+            } else {
+                signalled.add(this);
+            }
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            valid = false;
+            keys.remove(directory, this);
+        }
+
+        @Override
+        public Watchable watchable() {
+            return directory;
+        }
+    }
+
+    private static class PollingWatchEvent implements WatchEvent<Path> {
+
+        private final Kind<Path> kind;
+        private final Path context;
+
+        PollingWatchEvent(Kind<Path> kind, Path context) {
+            this.kind = kind;
+            this.context = context;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        @Override
+        public Path context() {
+            return context;
+        }
+    }
+}
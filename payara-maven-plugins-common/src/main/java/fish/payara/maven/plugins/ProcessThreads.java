@@ -0,0 +1,245 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the stream pumps, log tailers and console watchers of a started
+ * Payara instance, as well as the dev mode watcher. On JDK 21 and later every
+ * task gets its own virtual thread, older JVMs fall back to a pool of daemon
+ * platform threads. Both are bounded by {@link #MAX_THREADS} so that leaked
+ * tasks surface as an error instead of piling up.
+ *
+ * Tasks are owned by the instance they were submitted to: {@link #cancel()}
+ * interrupts them and closes their streams, e.g. before the process is
+ * restarted. {@link #getActiveCount()} is the process-wide gauge, a task
+ * is counted until its thread returns, not only until it is cancelled.
+ */
+public class ProcessThreads {
+
+    public static final int MAX_THREADS = 64;
+
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService VIRTUAL_EXECUTOR = createVirtualExecutor();
+    private static final ExecutorService EXECUTOR = VIRTUAL_EXECUTOR != null ? VIRTUAL_EXECUTOR
+            : new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "payara-process-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String name;
+    private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+
+    public ProcessThreads(String name) {
+        this.name = name;
+    }
+
+    public Future<?> submit(String taskName, Runnable runnable) {
+        return submit(taskName, null, runnable);
+    }
+
+    /**
+     * @param taskName the name of the thread while the task is running
+     * @param resource the stream the task blocks on, closed by
+     * {@link #cancel()} as blocking reads do not respond to interrupts
+     * @param runnable the task
+     * @return the future to wait for or to cancel the task
+     * @throws RejectedExecutionException if {@link #MAX_THREADS} tasks are
+     * already running
+     */
+    public Future<?> submit(String taskName, Closeable resource, Runnable runnable) {
+        if (ACTIVE.incrementAndGet() > MAX_THREADS) {
+            ACTIVE.decrementAndGet();
+            throw new RejectedExecutionException("Unable to start " + name + "-" + taskName
+                    + ", " + MAX_THREADS + " process threads are already running");
+        }
+        Task task = new Task(name + "-" + taskName, resource, runnable);
+        tasks.add(task);
+        try {
+            EXECUTOR.execute(task);
+        } catch (RejectedExecutionException ex) {
+            task.cancel(false);
+            throw ex;
+        }
+        return task;
+    }
+
+    /**
+     * Interrupts the running tasks of this owner and closes their streams.
+     */
+    public void cancel() {
+        for (Task task : tasks) {
+            task.cancel(true);
+            task.closeResource();
+        }
+    }
+
+    /**
+     * @return the number of tasks of this owner which have not completed yet
+     */
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * @return the number of tasks of all owners which have not completed yet
+     */
+    public static int getActiveCount() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * @return true if the tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor with the same kind of threads as the shared one,
+     * for tasks whose number is not under the control of the plugin, like
+     * the connections of a browser, which must not take the
+     * {@link #MAX_THREADS} slots of the process streams.
+     *
+     * @param threadName the name prefix of the platform threads
+     */
+    public static ExecutorService newUnboundedExecutor(String threadName) {
+        ExecutorService executor = createVirtualExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // JDK 20 or older, or preview features are required
+            return null;
+        }
+    }
+
+    private final class Task extends FutureTask<Void> {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int RELEASED = 2;
+
+        private final Closeable resource;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Task(String taskName, Closeable resource, Runnable runnable) {
+            super(() -> {
+                Thread thread = Thread.currentThread();
+                String previousName = thread.getName();
+                thread.setName(taskName);
+                try {
+                    runnable.run();
+                } finally {
+                    thread.setName(previousName);
+                }
+            }, null);
+            this.resource = resource;
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                // cancelled before it started
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                state.set(RELEASED);
+                release();
+            }
+        }
+
+        /**
+         * Called as soon as the task is cancelled, while a started task may
+         * still be running, its slot is then released by the task itself.
+         */
+        @Override
+        protected void done() {
+            if (state.compareAndSet(PENDING, RELEASED)) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (tasks.remove(this)) {
+                ACTIVE.decrementAndGet();
+            }
+        }
+
+        private void closeResource() {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (IOException ignored) {
+                    // the task is cancelled anyway
+                }
+            }
+        }
+    }
+}
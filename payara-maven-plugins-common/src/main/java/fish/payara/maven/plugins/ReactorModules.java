@@ -0,0 +1,254 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static fish.payara.maven.plugins.Configuration.MAVEN_MULTI_MODULE_PROJECT_DIRECTORY;
+import static fish.payara.maven.plugins.Configuration.SKIP_TESTS_FLAG;
+import static fish.payara.maven.plugins.Configuration.WEB_INF_DIRECTORY;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+
+/**
+ * The jar modules of the current reactor which the web application depends
+ * on, directly or through other reactor modules. Changed modules are compiled
+ * with a single reactor build and their classes are packaged straight into
+ * the {@code WEB-INF/lib} directory of the exploded webapp, without
+ * installing them into the local repository.
+ */
+public class ReactorModules {
+
+    private static final String LIB_DIRECTORY = "lib";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final Set<String> MODULE_PACKAGING = new HashSet<>(Arrays.asList("jar", "ejb", "bundle"));
+    private static final Set<String> MODULE_SCOPES = new HashSet<>(Arrays.asList("compile", "runtime"));
+
+    private final Log log;
+    private final Path webappDirectory;
+    private final File topLevelPom;
+    private final List<MavenProject> modules;
+
+    public ReactorModules(MavenProject project, MavenSession session, File webappDirectory, Log log) {
+        this.log = log;
+        this.webappDirectory = webappDirectory.toPath();
+        List<MavenProject> reactor = session != null ? session.getAllProjects() : null;
+        if (reactor == null && session != null) {
+            reactor = session.getProjects();
+        }
+        this.modules = reactor != null ? findModules(project, reactor) : Collections.emptyList();
+        MavenProject topLevelProject = session != null ? session.getTopLevelProject() : null;
+        this.topLevelPom = topLevelProject != null ? topLevelProject.getFile() : null;
+    }
+
+    /**
+     * Collects the reactor modules in the dependency closure of the project,
+     * in reactor build order.
+     */
+    private static List<MavenProject> findModules(MavenProject project, List<MavenProject> reactor) {
+        Map<String, MavenProject> projects = new LinkedHashMap<>();
+        for (MavenProject reactorProject : reactor) {
+            projects.put(reactorProject.getGroupId() + ':' + reactorProject.getArtifactId(), reactorProject);
+        }
+        Set<MavenProject> found = new HashSet<>();
+        Deque<Dependency> queue = new ArrayDeque<>(project.getDependencies());
+        while (!queue.isEmpty()) {
+            Dependency dependency = queue.poll();
+            String scope = dependency.getScope() == null ? "compile" : dependency.getScope();
+            MavenProject module = projects.get(dependency.getGroupId() + ':' + dependency.getArtifactId());
+            if (module != null && module != project && MODULE_SCOPES.contains(scope)
+                    && MODULE_PACKAGING.contains(module.getPackaging()) && found.add(module)) {
+                queue.addAll(module.getDependencies());
+            }
+        }
+        return projects.values().stream()
+                .filter(found::contains)
+                .collect(Collectors.toList());
+    }
+
+    public boolean isEmpty() {
+        return modules.isEmpty() || topLevelPom == null;
+    }
+
+    public List<MavenProject> getModules() {
+        return modules;
+    }
+
+    /**
+     * @return the module containing the path, or null if the path is not
+     * part of a watched module
+     */
+    public MavenProject getModule(Path path) {
+        for (MavenProject module : modules) {
+            if (path.startsWith(module.getBasedir().toPath())) {
+                return module;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the given modules with a single reactor build of the top level
+     * project. The reactor modules they depend on are built along with them,
+     * so that they are resolved to their classes directories and nothing
+     * needs to be installed.
+     *
+     * @return true if the build succeeded
+     */
+    public boolean build(Collection<MavenProject> changedModules) throws MavenInvocationException {
+        Invoker invoker = new DefaultInvoker();
+        invoker.setLogger(new InvokerLoggerImpl(log));
+        invoker.setInputStream(InputStream.nullInputStream());
+
+        InvocationRequest request = createRequest(changedModules);
+        System.setProperty(MAVEN_MULTI_MODULE_PROJECT_DIRECTORY, topLevelPom.getParent());
+        log.info("Auto-build started for reactor module(s) " + request.getProjects());
+        InvocationResult result = invoker.execute(request);
+        if (result.getExitCode() != 0) {
+            log.info("Auto-build failed with exit code: " + result.getExitCode());
+            return false;
+        }
+        return true;
+    }
+
+    InvocationRequest createRequest(Collection<MavenProject> changedModules) {
+        List<String> selectedProjects = new ArrayList<>();
+        for (MavenProject module : modules) {
+            if (changedModules.contains(module)) {
+                selectedProjects.add(module.getGroupId() + ':' + module.getArtifactId());
+            }
+        }
+        InvocationRequest request = new DefaultInvocationRequest();
+        request.setPomFile(topLevelPom);
+        request.setProjects(selectedProjects);
+        // unselected modules would be resolved from the local repository
+        request.setAlsoMake(true);
+        request.setGoals(Arrays.asList("compile", SKIP_TESTS_FLAG));
+        return request;
+    }
+
+    /**
+     * Packages the classes directory of the module into the jar of the
+     * module in {@code WEB-INF/lib}, replacing the jar copied by the war
+     * plugin.
+     */
+    public void deploy(MavenProject module) throws IOException {
+        Path classesDirectory = Paths.get(module.getBuild().getOutputDirectory());
+        Path libDirectory = webappDirectory.resolve(WEB_INF_DIRECTORY).resolve(LIB_DIRECTORY);
+        Files.createDirectories(libDirectory);
+        Path target = findJar(libDirectory, module);
+        Path tempFile = Files.createTempFile(libDirectory, module.getArtifactId(), ".tmp");
+        try {
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            try (OutputStream out = Files.newOutputStream(tempFile);
+                    JarOutputStream jar = new JarOutputStream(out, manifest)) {
+                if (Files.isDirectory(classesDirectory)) {
+                    List<Path> entries;
+                    try (Stream<Path> paths = Files.walk(classesDirectory)) {
+                        entries = paths.filter(path -> !path.equals(classesDirectory)).sorted().collect(Collectors.toList());
+                    }
+                    for (Path path : entries) {
+                        String name = classesDirectory.relativize(path).toString().replace(File.separatorChar, '/');
+                        if (name.equals("META-INF/MANIFEST.MF")) {
+                            continue;
+                        }
+                        boolean directory = Files.isDirectory(path);
+                        JarEntry entry = new JarEntry(directory ? name + '/' : name);
+                        entry.setTime(Files.getLastModifiedTime(path).toMillis());
+                        jar.putNextEntry(entry);
+                        if (!directory) {
+                            Files.copy(path, jar);
+                        }
+                        jar.closeEntry();
+                    }
+                }
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Updated " + target + " from " + classesDirectory);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Finds the jar of the module by the default file name mapping of the
+     * war plugin.
+     */
+    private static Path findJar(Path libDirectory, MavenProject module) throws IOException {
+        String prefix = module.getArtifactId() + '-' + module.getVersion();
+        try (Stream<Path> jars = Files.list(libDirectory)) {
+            return jars.filter(jar -> {
+                String name = jar.getFileName().toString();
+                return name.equals(prefix + JAR_EXTENSION) || (name.startsWith(prefix + '-') && name.endsWith(JAR_EXTENSION));
+            }).findFirst().orElse(libDirectory.resolve(prefix + JAR_EXTENSION));
+        }
+    }
+}
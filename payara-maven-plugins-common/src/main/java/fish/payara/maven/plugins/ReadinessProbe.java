@@ -0,0 +1,166 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Polls a health or readiness endpoint of the started instance until it
+ * answers with a success or redirect status, so that the readiness does not
+ * depend on the format or buffering of the instance log.
+ * <p>
+ * The delay between two attempts starts small and doubles while the instance
+ * does not answer. It drops back to the initial delay once the port accepts
+ * connections, as the remaining startup is then usually short.
+ */
+public class ReadinessProbe {
+
+    public static final long DEFAULT_TIMEOUT = 120_000;
+    static final long INITIAL_DELAY = 10;
+    static final long MAX_DELAY = 500;
+    private static final int CONNECT_TIMEOUT = 500;
+    private static final int READ_TIMEOUT = 2_000;
+
+    private final URL url;
+    private final long timeout;
+    private final Log log;
+    private int attempts;
+    private int lastStatus = -1;
+
+    /**
+     * @param url the http or https endpoint to poll
+     * @param timeout the time (in milliseconds) after which the probe gives up
+     * @param log the logger for the probe results
+     */
+    public ReadinessProbe(URL url, long timeout, Log log) {
+        if (!isSupported(url)) {
+            throw new IllegalArgumentException("Readiness URL must be an http or https URL: " + url);
+        }
+        this.url = url;
+        this.timeout = timeout;
+        this.log = log;
+    }
+
+    /**
+     * @return true if the URL can be polled, i.e. it is an http or https URL
+     */
+    public static boolean isSupported(URL url) {
+        return "http".equalsIgnoreCase(url.getProtocol()) || "https".equalsIgnoreCase(url.getProtocol());
+    }
+
+    /**
+     * Polls the endpoint until it is ready.
+     *
+     * @param alive stops the probe once false, e.g. when the process has
+     * exited
+     * @return the time (in milliseconds) until the endpoint was ready, or -1
+     * if the probe timed out or was stopped
+     */
+    public long await(BooleanSupplier alive) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long delay = INITIAL_DELAY;
+        while (alive.getAsBoolean()) {
+            attempts++;
+            int status = probe();
+            if (status >= 200 && status < 400) {
+                lastStatus = status;
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            delay = nextDelay(delay, status, lastStatus);
+            lastStatus = status;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                log.debug("Readiness probe of " + url + " timed out after " + attempts + " attempt(s), last status " + status);
+                return -1;
+            }
+            Thread.sleep(Math.min(delay, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+        }
+        return -1;
+    }
+
+    /**
+     * @return the delay before the next attempt, reset when the endpoint
+     * answers for the first time and doubled otherwise
+     */
+    static long nextDelay(long delay, int status, int previousStatus) {
+        if (status > 0 && previousStatus <= 0) {
+            return INITIAL_DELAY;
+        }
+        return Math.min(delay * 2, MAX_DELAY);
+    }
+
+    /**
+     * @return the HTTP status of the endpoint, or -1 if it is not reachable
+     */
+    private int probe() {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(false);
+            return connection.getResponseCode();
+        } catch (IOException ex) {
+            return -1;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getLastStatus() {
+        return lastStatus;
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Persistent root directory of Payara Micro ({@code --rootdir}), reused
+ * across launches instead of unpacking the runtime into a new temporary
+ * directory on each start.
+ * <p>
+ * The root directory is named after a key of the launch, e.g. the Payara
+ * Micro jar and the content of its boot command and domain files, so that a
+ * launch with other inputs starts from a new directory. After a launch, the
+ * size, modification time and CRC32C checksum of its files are written to a
+ * manifest. The next launch reuses the directory only if its files still
+ * match the manifest; a file whose size and modification time are unchanged
+ * is trusted without reading it. The directories written while the instance
+ * runs, e.g. its logs, are not part of the manifest, and the deployed
+ * applications are removed before the directory is reused.
+ * <p>
+ * A root directory is locked by the launch which uses it, so that concurrent
+ * launches with the same key do not share it.
+ */
+public class RootDirectoryCache {
+
+    private static final List<String> VOLATILE_DIRECTORIES = Arrays.asList(
+            "logs", "generated", "osgi-cache", "applications");
+    private static final List<String> APPLICATION_DIRECTORIES = Arrays.asList(
+            "generated", "applications");
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String STARTUP_EXTENSION = ".startup";
+    private static final String LOCK_EXTENSION = ".lock";
+
+    private final Path directory;
+    private final Log log;
+    private Path rootDirectory;
+    private Path manifestFile;
+    private Path startupFile;
+    private Path lockFile;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private volatile boolean reused;
+
+    /**
+     * @param directory the directory of the root directories
+     * @param log the logger
+     */
+    public RootDirectoryCache(Path directory, Log log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /**
+     * Selects the root directory of the next launch, and deletes the root
+     * directories of the same name with another key.
+     *
+     * @param name the name of the root directory, e.g. payara-micro-6.2026.9
+     * @param key the key of the launch, see {@link CdsArchive#key(String...)}
+     */
+    public void select(String name, String key) {
+        Path selected = directory.resolve(name + '-' + key);
+        if (selected.equals(rootDirectory)) {
+            return;
+        }
+        release();
+        rootDirectory = selected;
+        manifestFile = directory.resolve(name + '-' + key + MANIFEST_EXTENSION);
+        startupFile = directory.resolve(name + '-' + key + STARTUP_EXTENSION);
+        lockFile = directory.resolve(name + '-' + key + LOCK_EXTENSION);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        String prefix = name + '-';
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                if (Files.isDirectory(file) && !file.equals(rootDirectory)
+                        && fileName.indexOf('-', prefix.length()) < 0) {
+                    deleteStale(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to list " + directory, ex);
+        }
+    }
+
+    /**
+     * Locks the selected root directory for the launch.
+     *
+     * @return false if the root directory is used by another launch
+     */
+    public synchronized boolean lock() {
+        if (lock != null) {
+            return true;
+        }
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = lockChannel.tryLock();
+        } catch (IOException | OverlappingFileLockException ex) {
+            log.debug("Unable to lock " + lockFile, ex);
+        }
+        if (lock == null) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases the lock of the root directory after the launch.
+     */
+    public synchronized void release() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to release " + lockFile, ex);
+        }
+        lock = null;
+        lockChannel = null;
+    }
+
+    public synchronized boolean isLocked() {
+        return lock != null;
+    }
+
+    /**
+     * Validates the selected root directory with its manifest, and deletes it
+     * if it is incomplete or was changed. The manifest is removed until the
+     * launch has written it again, so that a launch which fails is not
+     * trusted.
+     *
+     * @return true if the root directory is reused
+     */
+    public boolean prepare() {
+        long start = System.nanoTime();
+        Map<String, String> manifest = Files.isDirectory(rootDirectory) ? readManifest() : null;
+        reused = false;
+        if (manifest != null) {
+            int changes = 0;
+            for (Map.Entry<String, String> entry : manifest.entrySet()) {
+                if (!isIntact(rootDirectory.resolve(entry.getKey()), entry.getValue())) {
+                    changes++;
+                }
+            }
+            if (changes == 0) {
+                reused = true;
+                log.debug("Validated " + manifest.size() + " file(s) of " + rootDirectory + " in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            } else {
+                log.info(changes + " file(s) of the Payara Micro root directory " + rootDirectory
+                        + " changed since the last launch, it is unpacked again");
+            }
+        }
+        deleteIfExists(manifestFile);
+        if (reused) {
+            for (String name : APPLICATION_DIRECTORIES) {
+                delete(rootDirectory.resolve(name));
+            }
+        } else {
+            delete(rootDirectory);
+            deleteIfExists(startupFile);
+        }
+        return reused;
+    }
+
+    /**
+     * Writes the manifest of the root directory after a launch. The checksum
+     * of a file is read again only if its size or modification time differ
+     * from the previous manifest.
+     */
+    public synchronized void snapshot() {
+        if (rootDirectory == null || !Files.isDirectory(rootDirectory)) {
+            return;
+        }
+        Map<String, String> previous = readManifest();
+        Properties manifest = new Properties();
+        try {
+            Files.walkFileTree(rootDirectory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return dir.getParent() != null && dir.getParent().equals(rootDirectory)
+                            && VOLATILE_DIRECTORIES.contains(dir.getFileName().toString())
+                            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        String name = rootDirectory.relativize(file).toString().replace('\\', '/');
+                        String description = describe(file, previous != null ? previous.get(name) : null);
+                        if (description != null) {
+                            manifest.setProperty(name, description);
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                manifest.store(out, "Payara Micro root directory");
+            }
+            Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.debug("Unable to write the manifest of " + rootDirectory, ex);
+        }
+    }
+
+    /**
+     * Records the startup time of the launch which unpacked the root
+     * directory, or reports the time saved by reusing it.
+     *
+     * @param startupTime the time (in milliseconds) from the start of the
+     * process until the application is ready
+     * @return the time (in milliseconds) saved by the reuse, or -1 if unknown
+     */
+    public long startupMeasured(long startupTime) {
+        if (!reused) {
+            try {
+                Files.write(startupFile, Long.toString(startupTime).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException ex) {
+                log.debug("Unable to write " + startupFile, ex);
+            }
+            return -1;
+        }
+        long baseline;
+        try {
+            baseline = Long.parseLong(new String(Files.readAllBytes(startupFile), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException ex) {
+            return -1;
+        }
+        long saved = baseline - startupTime;
+        log.info("Reusing the Payara Micro root directory saved " + saved + " ms of the startup (" + startupTime
+                + " ms, " + baseline + " ms for the launch which unpacked it)");
+        return saved;
+    }
+
+    public Path getRootDirectory() {
+        return rootDirectory;
+    }
+
+    public boolean isReused() {
+        return reused;
+    }
+
+    private Map<String, String> readManifest() {
+        if (!Files.isRegularFile(manifestFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            properties.load(in);
+        } catch (IOException ex) {
+            log.debug("Unable to read " + manifestFile, ex);
+            return null;
+        }
+        Map<String, String> manifest = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            manifest.put(name, properties.getProperty(name));
+        }
+        return manifest;
+    }
+
+    /**
+     * @return true if the file has the size and checksum of its description
+     */
+    private boolean isIntact(Path file, String known) {
+        String description = describe(file, known);
+        return description != null
+                && description.substring(0, description.indexOf(',')).equals(known.substring(0, known.indexOf(',')))
+                && description.substring(description.lastIndexOf(',')).equals(known.substring(known.lastIndexOf(',')));
+    }
+
+    /**
+     * @param known the previous description of the file, whose checksum is
+     * trusted if the size and modification time are unchanged
+     * @return the size, modification time and checksum of the file, or null
+     * if it cannot be read
+     */
+    private String describe(Path file, String known) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            String prefix = attrs.size() + "," + attrs.lastModifiedTime().toMillis() + ",";
+            if (known != null && known.startsWith(prefix)) {
+                return known;
+            }
+            return prefix + Long.toHexString(ContentHashIndex.checksum(file));
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes a root directory of another key with its files, unless it is
+     * used by another launch.
+     */
+    private void deleteStale(Path stale) {
+        Path staleLock = stale.resolveSibling(stale.getFileName() + LOCK_EXTENSION);
+        try (FileChannel channel = FileChannel.open(staleLock, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock staleLocked = channel.tryLock()) {
+            if (staleLocked == null) {
+                return;
+            }
+            log.debug("Deleting stale Payara Micro root directory " + stale);
+            delete(stale);
+            deleteIfExists(stale.resolveSibling(stale.getFileName() + MANIFEST_EXTENSION));
+            deleteIfExists(stale.resolveSibling(stale.getFileName() + STARTUP_EXTENSION));
+        } catch (IOException | OverlappingFileLockException ex) {
+            log.debug("Unable to lock " + staleLock, ex);
+            return;
+        }
+        deleteIfExists(staleLock);
+    }
+
+    private void deleteIfExists(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.debug("Unable to delete " + file, ex);
+        }
+    }
+
+    private static void delete(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException ex) {
+            // deleted with the next stale directory
+        }
+    }
+}
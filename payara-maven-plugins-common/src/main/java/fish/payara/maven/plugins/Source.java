@@ -98,7 +98,7 @@ public class Source implements Comparable<Source> {
     
     @Override
     public int compareTo(Source other) {
-        return this.path.toString().compareTo(other.path.toString());
+        return this.path.compareTo(other.path);
     }
 
     @Override
@@ -0,0 +1,153 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static fish.payara.maven.plugins.Configuration.JAVA_FILE_EXTENSION;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Maps deleted sources to their build outputs, so that a delete removes only
+ * those instead of a full clean: the classes compiled from a Java source,
+ * including its nested and anonymous classes, and the copies of a resource
+ * or webapp file.
+ */
+class StaleOutputs {
+
+    private final MavenProject project;
+    private final StaticResourceSync staticSync;
+
+    StaleOutputs(MavenProject project, StaticResourceSync staticSync) {
+        this.project = project;
+        this.staticSync = staticSync;
+    }
+
+    /**
+     * @return true if the deleted path is a main source, whose outputs are
+     * found with the class dependency graph
+     */
+    boolean isMainSource(Path deleted) {
+        return getRelativeSourcePath(deleted, project.getCompileSourceRoots()) != null;
+    }
+
+    /**
+     * @param graph the class dependency graph, required for main sources
+     * @return false if the outputs of the deleted source can only be removed
+     * by a full clean: resources copied with filtering or includes, and main
+     * sources when the graph does not know the source of every class, e.g.
+     * classes compiled without debug information
+     */
+    boolean isMapped(Path deleted, ClassDependencyGraph graph) {
+        if (isMainSource(deleted)) {
+            return graph != null && graph.isSourceMapped();
+        }
+        return !staticSync.isCopied(deleted) || !staticSync.getTargets(deleted).isEmpty();
+    }
+
+    /**
+     * Removes the outputs of the deleted source or directory.
+     *
+     * @param graph the class dependency graph, required for main sources
+     * @param classesDirectories the directories holding the classes of main
+     * sources
+     * @return the number of outputs removed
+     */
+    int remove(Path deleted, ClassDependencyGraph graph, List<Path> classesDirectories) throws IOException {
+        int removed = 0;
+        for (Path output : getOutputs(deleted, graph, classesDirectories)) {
+            if (Files.exists(output, LinkOption.NOFOLLOW_LINKS)) {
+                StaticResourceSync.delete(output);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private List<Path> getOutputs(Path deleted, ClassDependencyGraph graph, List<Path> classesDirectories) throws IOException {
+        List<Path> outputs = new ArrayList<>();
+        String sourcePath = getRelativeSourcePath(deleted, project.getCompileSourceRoots());
+        String testSourcePath = getRelativeSourcePath(deleted, project.getTestCompileSourceRoots());
+        if (sourcePath != null) {
+            for (Path classFile : graph.getClassFiles(sourcePath)) {
+                for (Path classesDirectory : classesDirectories) {
+                    outputs.add(classesDirectory.resolve(classFile));
+                }
+            }
+        } else if (testSourcePath != null) {
+            // test classes are not in the dependency graph, match them by name
+            Path testClasses = Paths.get(project.getBuild().getTestOutputDirectory());
+            String className = testSourcePath.endsWith(JAVA_FILE_EXTENSION)
+                    ? testSourcePath.substring(0, testSourcePath.length() - JAVA_FILE_EXTENSION.length()) : testSourcePath;
+            Path classFile = testClasses.resolve(className + ".class");
+            outputs.add(testClasses.resolve(className));
+            outputs.add(classFile);
+            if (Files.isDirectory(classFile.getParent())) {
+                String innerClassPrefix = classFile.getFileName().toString().replace(".class", "$");
+                try (Stream<Path> files = Files.list(classFile.getParent())) {
+                    files.filter(file -> file.getFileName().toString().startsWith(innerClassPrefix)).forEach(outputs::add);
+                }
+            }
+        } else {
+            outputs.addAll(staticSync.getTargets(deleted));
+        }
+        return outputs;
+    }
+
+    /**
+     * @return the path of the source relative to its source root, or null if
+     * it is not in any of the roots
+     */
+    static String getRelativeSourcePath(Path path, List<String> sourceRoots) {
+        for (String root : sourceRoots) {
+            Path rootPath = Paths.get(root);
+            if (path.startsWith(rootPath) && !path.equals(rootPath)) {
+                return rootPath.relativize(path).toString().replace(File.separatorChar, '/');
+            }
+        }
+        return null;
+    }
+}
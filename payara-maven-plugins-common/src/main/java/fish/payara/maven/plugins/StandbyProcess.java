@@ -0,0 +1,305 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Process booted ahead of time on another port, to take over from the
+ * running process without waiting for a boot.
+ * <p>
+ * The output of the process is read as soon as it starts, so that it does
+ * not block on a full pipe, and is kept until the process takes over: the
+ * streams of {@link #getInputStream()} and {@link #getErrorStream()} then
+ * replay it from the start, like the streams of a process started at that
+ * time. Beyond {@link #MAX_BUFFERED} bytes, the oldest lines are dropped.
+ */
+public class StandbyProcess {
+
+    static final int MAX_BUFFERED = 4 * 1024 * 1024;
+    private static final int POLL_INTERVAL = 100;
+
+    private final List<String> command;
+    private final int port;
+    private final String key;
+    private final String readyMessage;
+    private final Log log;
+    private final ProcessThreads threads = new ProcessThreads("standby");
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private Process process;
+    private ReplayStream inputStream;
+    private ReplayStream errorStream;
+    private long startTime;
+
+    /**
+     * @param command the command of the process
+     * @param port the HTTP port of the process
+     * @param key the key of the boot inputs of the process, e.g. its boot
+     * command files
+     * @param readyMessage the message logged by the process once it is ready
+     * @param log the logger
+     */
+    public StandbyProcess(List<String> command, int port, String key, String readyMessage, Log log) {
+        this.command = new ArrayList<>(command);
+        this.port = port;
+        this.key = key;
+        this.readyMessage = readyMessage;
+        this.log = log;
+    }
+
+    public void start() throws IOException {
+        log.debug("Starting standby process with the arguments: " + command);
+        startTime = System.nanoTime();
+        process = Runtime.getRuntime().exec(command.toArray(new String[0]));
+        inputStream = pump(process.getInputStream(), "stdout");
+        errorStream = pump(process.getErrorStream(), "stderr");
+    }
+
+    /**
+     * @param timeout the maximum time (in milliseconds) to wait
+     * @return true if the process is ready, false if it ended or did not
+     * become ready in time
+     */
+    public boolean awaitReady(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (!ready.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+            if (!process.isAlive() || System.nanoTime() - deadline > 0) {
+                return false;
+            }
+        }
+        return process.isAlive();
+    }
+
+    public boolean isReady() {
+        return ready.getCount() == 0 && isAlive();
+    }
+
+    public boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * Ends the process, and forcibly if it does not end within a minute.
+     */
+    public void destroy() {
+        if (process == null) {
+            return;
+        }
+        try {
+            process.destroy();
+            process.waitFor(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            process.destroyForcibly();
+            threads.cancel();
+        }
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public InputStream getErrorStream() {
+        return errorStream;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at the start of the process
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    private ReplayStream pump(InputStream in, String name) {
+        ReplayStream replay = new ReplayStream();
+        StreamingMatcher readyMatcher = new StreamingMatcher(readyMessage);
+        threads.submit(name, in, () -> {
+            byte[] buffer = new byte[8192];
+            try {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    replay.write(buffer, 0, read);
+                    if (ready.getCount() > 0
+                            && readyMatcher.feed(new String(buffer, 0, read, StandardCharsets.ISO_8859_1))) {
+                        ready.countDown();
+                    }
+                }
+            } catch (IOException ex) {
+                // the process ended or the stream was closed by destroy()
+            } finally {
+                replay.finish();
+            }
+        });
+        return replay;
+    }
+
+    /**
+     * Stream of the output written so far and of the output to come, which
+     * ends with the output of the process.
+     */
+    static class ReplayStream extends InputStream {
+
+        private final int capacity;
+        private byte[] buffer = new byte[8192];
+        private int start;
+        private int end;
+        private boolean finished;
+        private boolean closed;
+
+        ReplayStream() {
+            this(MAX_BUFFERED);
+        }
+
+        ReplayStream(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void write(byte[] bytes, int offset, int length) {
+            if (closed) {
+                return;
+            }
+            if (length > capacity) {
+                offset += length - capacity;
+                length = capacity;
+            }
+            int size = end - start;
+            if (size + length > capacity) {
+                // drop the oldest lines, up to the line which fits
+                int drop = start + size + length - capacity;
+                while (drop < end && buffer[drop - 1] != '\n') {
+                    drop++;
+                }
+                start = drop;
+                size = end - start;
+            }
+            if (end + length > buffer.length) {
+                byte[] target = size + length > buffer.length
+                        ? new byte[Math.min(capacity, Math.max(buffer.length * 2, size + length))] : buffer;
+                System.arraycopy(buffer, start, target, 0, size);
+                buffer = target;
+                start = 0;
+                end = size;
+            }
+            System.arraycopy(bytes, offset, buffer, end, length);
+            end += length;
+            notifyAll();
+        }
+
+        synchronized void finish() {
+            finished = true;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            if (!await()) {
+                return -1;
+            }
+            return buffer[start++] & 0xff;
+        }
+
+        @Override
+        public synchronized int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!await()) {
+                return -1;
+            }
+            int read = Math.min(length, end - start);
+            System.arraycopy(buffer, start, bytes, offset, read);
+            start += read;
+            return read;
+        }
+
+        @Override
+        public synchronized int available() {
+            return end - start;
+        }
+
+        /**
+         * Drops the buffered output, the process output which follows is
+         * discarded.
+         */
+        @Override
+        public synchronized void close() {
+            closed = true;
+            buffer = new byte[0];
+            start = 0;
+            end = 0;
+            notifyAll();
+        }
+
+        /**
+         * @return false at the end of the stream
+         */
+        private boolean await() throws IOException {
+            while (start == end && !finished && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            return start < end;
+        }
+    }
+}
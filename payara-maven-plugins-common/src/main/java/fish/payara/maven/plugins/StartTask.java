@@ -4,10 +4,12 @@
  */
 package fish.payara.maven.plugins;
 
+import java.util.Collections;
 import java.util.List;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.plugin.logging.Log;
 import org.openqa.selenium.WebDriver;
+import static org.twdata.maven.mojoexecutor.MojoExecutor.ExecutionEnvironment;
 
 /**
  *
@@ -24,4 +26,44 @@ public interface StartTask {
      WebDriver getDriver();
      
      boolean isLocal();
+
+    default boolean isInProcessCompile() {
+        return false;
+    }
+
+    default boolean isWarmBuild() {
+        return false;
+    }
+
+    default ExecutionEnvironment getExecutionEnvironment() {
+        return null;
+    }
+
+    default long getWatchQuietPeriod() {
+        return Configuration.DEFAULT_WATCH_QUIET_PERIOD;
+    }
+
+    default long getWatchMaxLatency() {
+        return Configuration.DEFAULT_WATCH_MAX_LATENCY;
+    }
+
+    default boolean isWatchPolling() {
+        return false;
+    }
+
+    default long getWatchPollInterval() {
+        return Configuration.DEFAULT_WATCH_POLL_INTERVAL;
+    }
+
+    default List<String> getWatchIncludes() {
+        return Collections.emptyList();
+    }
+
+    default List<String> getWatchExcludes() {
+        return Collections.emptyList();
+    }
+
+    default boolean isContinuousTesting() {
+        return false;
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static fish.payara.maven.plugins.Configuration.CLASSES_DIRECTORY;
+import static fish.payara.maven.plugins.Configuration.MAIN_DIR;
+import static fish.payara.maven.plugins.Configuration.SRC_DIR;
+import static fish.payara.maven.plugins.Configuration.WEB_INF_DIRECTORY;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Copies changed static files straight into the exploded webapp, without a
+ * Maven build. Only files which the build would copy verbatim are handled:
+ * webapp sources when the maven-war-plugin has no web resources, source
+ * includes or excludes configured, and resources without filtering,
+ * includes or excludes.
+ */
+public class StaticResourceSync {
+
+    private static final String WAR_PLUGIN_KEY = "org.apache.maven.plugins:maven-war-plugin";
+    private static final String WEBAPP_DIR = "webapp";
+    private static final String META_INF_DIRECTORY = "META-INF";
+    private static final String[] UNSUPPORTED_WAR_OPTIONS = {
+        "webResources", "warSourceIncludes", "warSourceExcludes", "packagingIncludes",
+        "packagingExcludes", "filteringDeploymentDescriptors", "overlays"
+    };
+
+    private final MavenProject project;
+    private final Path webappDirectory;
+    private final Path warSourceDirectory;
+
+    public StaticResourceSync(MavenProject project, File webappDirectory) {
+        this.project = project;
+        this.webappDirectory = webappDirectory.toPath();
+        this.warSourceDirectory = resolveWarSourceDirectory();
+    }
+
+    /**
+     * @return the files of the build output that mirror the given source, or
+     * an empty list if the source requires a Maven build
+     */
+    public List<Path> getTargets(Path source) {
+        if (warSourceDirectory != null && source.startsWith(warSourceDirectory)) {
+            return Collections.singletonList(webappDirectory.resolve(warSourceDirectory.relativize(source)));
+        }
+        for (Resource resource : project.getBuild().getResources()) {
+            Path directory = Paths.get(resource.getDirectory());
+            if (!source.startsWith(directory)) {
+                continue;
+            }
+            if (resource.isFiltering() || !resource.getIncludes().isEmpty() || !resource.getExcludes().isEmpty()) {
+                return Collections.emptyList();
+            }
+            Path relativePath = directory.relativize(source);
+            if (resource.getTargetPath() != null) {
+                relativePath = Paths.get(resource.getTargetPath()).resolve(relativePath);
+            }
+            List<Path> targets = new ArrayList<>(2);
+            targets.add(Paths.get(project.getBuild().getOutputDirectory()).resolve(relativePath));
+            targets.add(webappDirectory.resolve(WEB_INF_DIRECTORY).resolve(CLASSES_DIRECTORY).resolve(relativePath));
+            return targets;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return true if the source is copied into the build output by the
+     * resources or war plugin, whether or not it can be synchronized
+     */
+    public boolean isCopied(Path source) {
+        if (source.startsWith(project.getBasedir().toPath().resolve(SRC_DIR).resolve(MAIN_DIR).resolve(WEBAPP_DIR))
+                || (warSourceDirectory != null && source.startsWith(warSourceDirectory))) {
+            return true;
+        }
+        for (Resource resource : project.getBuild().getResources()) {
+            if (source.startsWith(Paths.get(resource.getDirectory()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deployment descriptors and classpath resources are read by the
+     * application at deployment time, other webapp files are served from the
+     * exploded directory and only need a browser refresh.
+     */
+    public boolean isReloadRequired(Path source) {
+        if (warSourceDirectory == null || !source.startsWith(warSourceDirectory)) {
+            return true;
+        }
+        Path relativePath = warSourceDirectory.relativize(source);
+        return relativePath.startsWith(WEB_INF_DIRECTORY) || relativePath.startsWith(META_INF_DIRECTORY);
+    }
+
+    /**
+     * Copies the source to the targets, or deletes the targets if the source
+     * no longer exists.
+     */
+    public void sync(Path source, List<Path> targets) throws IOException {
+        boolean exists = Files.isRegularFile(source);
+        for (Path target : targets) {
+            if (exists) {
+                Files.createDirectories(target.getParent());
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            } else {
+                delete(target);
+            }
+        }
+    }
+
+    /**
+     * Deletes a file, or a directory with its content.
+     */
+    public static void delete(Path target) throws IOException {
+        if (!Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+            Files.deleteIfExists(target);
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(target)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private Path resolveWarSourceDirectory() {
+        Path directory = project.getBasedir().toPath().resolve(SRC_DIR).resolve(MAIN_DIR).resolve(WEBAPP_DIR);
+        Plugin plugin = project.getPlugin(WAR_PLUGIN_KEY);
+        if (plugin != null && plugin.getConfiguration() instanceof Xpp3Dom) {
+            Xpp3Dom config = (Xpp3Dom) plugin.getConfiguration();
+            for (String option : UNSUPPORTED_WAR_OPTIONS) {
+                if (config.getChild(option) != null) {
+                    return null;
+                }
+            }
+            Xpp3Dom warSource = config.getChild("warSourceDirectory");
+            if (warSource != null && warSource.getValue() != null && !warSource.getValue().trim().isEmpty()) {
+                directory = project.getBasedir().toPath().resolve(warSource.getValue().trim());
+            }
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+/**
+ * Finds a fixed message in a stream of text fed in pieces, e.g. the ready
+ * message of a starting server in its output lines. It is a Knuth-Morris-Pratt
+ * matcher: each character is examined once, and the only state kept between
+ * pieces is the length of the partial match, so a long and noisy startup log
+ * costs linear time and constant memory.
+ * <p>
+ * Consecutive pieces are matched as if they were concatenated without a
+ * separator.
+ */
+public class StreamingMatcher {
+
+    private final String pattern;
+    private final int[] failure;
+    private int matched;
+    private boolean found;
+
+    public StreamingMatcher(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern must not be empty");
+        }
+        this.pattern = pattern;
+        this.failure = new int[pattern.length()];
+        for (int i = 1, k = 0; i < pattern.length(); i++) {
+            while (k > 0 && pattern.charAt(i) != pattern.charAt(k)) {
+                k = failure[k - 1];
+            }
+            if (pattern.charAt(i) == pattern.charAt(k)) {
+                k++;
+            }
+            failure[i] = k;
+        }
+    }
+
+    /**
+     * @param text the next piece of the stream
+     * @return true if the pattern has been found in the stream so far
+     */
+    public boolean feed(CharSequence text) {
+        if (found) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (matched > 0 && c != pattern.charAt(matched)) {
+                matched = failure[matched - 1];
+            }
+            if (c == pattern.charAt(matched)) {
+                matched++;
+            }
+            if (matched == pattern.length()) {
+                found = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Forgets the stream fed so far, e.g. when the process is restarted.
+     */
+    public void reset() {
+        matched = 0;
+        found = false;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static fish.payara.maven.plugins.Configuration.GOAL_SUREFIRE_TEST;
+import static fish.payara.maven.plugins.Configuration.GOAL_TEST_COMPILE;
+import static fish.payara.maven.plugins.Configuration.GOAL_TEST_RESOURCES;
+import static fish.payara.maven.plugins.Configuration.MAVEN_MULTI_MODULE_PROJECT_DIRECTORY;
+import static fish.payara.maven.plugins.Configuration.OPTION_NO_SPECIFIED_TESTS_FAILURE;
+import static fish.payara.maven.plugins.Configuration.OPTION_TEST;
+import static fish.payara.maven.plugins.Configuration.POM;
+import static fish.payara.maven.plugins.Configuration.POM_XML;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.model.Profile;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+
+/**
+ * Runs the tests affected by the changes of a dev mode build on its own
+ * worker, while the application is reloaded. The tests are selected from the
+ * class dependencies of the compiled test classes, and a run is cancelled
+ * when the next build starts so that it never delays a redeploy. The classes
+ * of a cancelled run are tested by the next one.
+ */
+public class TestLane {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final MavenProject project;
+    private final Path deployedClassesDirectory;
+    private final Log log;
+    private final ExecutorService executorService;
+    private final Set<String> classesPending = ConcurrentHashMap.newKeySet();
+    private final Set<String> testClassesPending = ConcurrentHashMap.newKeySet();
+    private ClassDependencyGraph testGraph;
+    private Future<?> testTask;
+
+    /**
+     * @param deployedClassesDirectory the classes directory of the exploded
+     * webapp, whose classes may be newer than the ones of the project output
+     * directory
+     */
+    public TestLane(MavenProject project, Path deployedClassesDirectory, Log log) {
+        this.project = project;
+        this.deployedClassesDirectory = deployedClassesDirectory;
+        this.log = log;
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Schedules a test run.
+     *
+     * @param changedClasses the internal names of the main classes compiled
+     * by the build, and of their dependents
+     * @param changedTestClasses the internal names of the test classes whose
+     * sources changed
+     */
+    public synchronized void schedule(Collection<String> changedClasses, Collection<String> changedTestClasses) {
+        cancel();
+        classesPending.addAll(changedClasses);
+        testClassesPending.addAll(changedTestClasses);
+        if (!classesPending.isEmpty() || !testClassesPending.isEmpty()) {
+            testTask = executorService.submit(this::runTests);
+        }
+    }
+
+    public synchronized void cancel() {
+        if (testTask != null && !testTask.isDone()) {
+            log.debug("Cancelling affected test run");
+            testTask.cancel(true);
+        }
+    }
+
+    public void close() {
+        cancel();
+        executorService.shutdownNow();
+    }
+
+    private void runTests() {
+        Set<String> classes = new HashSet<>(classesPending);
+        Set<String> testClasses = new HashSet<>(testClassesPending);
+        try {
+            syncDeployedClasses(classes);
+            Set<String> tests = selectTests(classes, testClasses);
+            if (tests.isEmpty()) {
+                log.debug("No tests affected by " + classes.size() + " class(es)");
+            } else if (!Thread.currentThread().isInterrupted()) {
+                invokeTests(tests);
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                classesPending.removeAll(classes);
+                testClassesPending.removeAll(testClasses);
+            }
+        } catch (IOException | MavenInvocationException ex) {
+            log.error("Error running affected tests", ex);
+        }
+    }
+
+    /**
+     * In-process and classes only builds compile into the exploded webapp,
+     * the tests run against the project output directory.
+     */
+    private void syncDeployedClasses(Set<String> classes) throws IOException {
+        Path outputDirectory = Paths.get(project.getBuild().getOutputDirectory());
+        for (String className : classes) {
+            Path source = deployedClassesDirectory.resolve(className + CLASS_FILE_EXTENSION);
+            Path target = outputDirectory.resolve(className + CLASS_FILE_EXTENSION);
+            if (!Files.isRegularFile(source)) {
+                continue;
+            }
+            BasicFileAttributes sourceAttrs = Files.readAttributes(source, BasicFileAttributes.class);
+            if (Files.isRegularFile(target)) {
+                BasicFileAttributes targetAttrs = Files.readAttributes(target, BasicFileAttributes.class);
+                if (sourceAttrs.size() == targetAttrs.size()
+                        && sourceAttrs.lastModifiedTime().compareTo(targetAttrs.lastModifiedTime()) <= 0) {
+                    continue;
+                }
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    /**
+     * @return the fully qualified names of the test classes, matching the
+     * default includes of surefire, which depend on the changed classes
+     */
+    private Set<String> selectTests(Set<String> classes, Set<String> testClasses) throws IOException {
+        if (testGraph == null) {
+            testGraph = new ClassDependencyGraph(Paths.get(project.getBuild().getTestOutputDirectory()), log);
+        }
+        testGraph.refresh();
+        Set<String> affected = new HashSet<>(testClasses);
+        affected.addAll(testGraph.getDependents(classes));
+        affected.addAll(testGraph.getDependents(testClasses));
+        Set<String> tests = new TreeSet<>();
+        for (String className : affected) {
+            String simpleName = className.substring(className.lastIndexOf('/') + 1);
+            if (!simpleName.contains("$") && isTestClassName(simpleName)) {
+                tests.add(className.replace('/', '.'));
+            }
+        }
+        return tests;
+    }
+
+    static boolean isTestClassName(String simpleName) {
+        return simpleName.startsWith("Test") || simpleName.endsWith("Test")
+                || simpleName.endsWith("Tests") || simpleName.endsWith("TestCase");
+    }
+
+    private void invokeTests(Set<String> tests) throws MavenInvocationException {
+        List<String> goalsList = new ArrayList<>();
+        goalsList.add(GOAL_TEST_RESOURCES);
+        goalsList.add(GOAL_TEST_COMPILE);
+        goalsList.add(GOAL_SUREFIRE_TEST);
+        goalsList.add(OPTION_TEST + String.join(",", tests));
+        goalsList.add(OPTION_NO_SPECIFIED_TESTS_FAILURE);
+        for (Profile profile : project.getActiveProfiles()) {
+            if (POM.equalsIgnoreCase(profile.getSource())) {
+                goalsList.add("-P" + profile.getId() + " ");
+            }
+        }
+        Invoker invoker = new DefaultInvoker();
+        invoker.setLogger(new InvokerLoggerImpl(log));
+        invoker.setInputStream(InputStream.nullInputStream());
+        InvocationRequest request = new DefaultInvocationRequest();
+        request.setPomFile(new File(project.getBasedir(), POM_XML));
+        System.setProperty(MAVEN_MULTI_MODULE_PROJECT_DIRECTORY, project.getBasedir().toString());
+        request.setGoals(goalsList);
+
+        log.info("Running " + tests.size() + " affected test class(es): " + tests);
+        long startTime = System.currentTimeMillis();
+        InvocationResult result = invoker.execute(request);
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        if (result.getExitCode() == 0) {
+            log.info("Affected tests passed in " + duration + " ms");
+        } else {
+            log.warn("Affected tests failed in " + duration + " ms");
+        }
+    }
+}
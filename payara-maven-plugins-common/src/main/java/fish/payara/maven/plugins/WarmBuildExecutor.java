@@ -0,0 +1,229 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static fish.payara.maven.plugins.Configuration.GOAL_COMPILE;
+import static fish.payara.maven.plugins.Configuration.GOAL_PROCESS_RESOURCES;
+import static fish.payara.maven.plugins.Configuration.GOAL_WAR;
+import static fish.payara.maven.plugins.Configuration.OPTION_DISABLE_INCREMENTAL_COMPILATION;
+import static fish.payara.maven.plugins.Configuration.SKIP_TESTS_FLAG;
+import static fish.payara.maven.plugins.Configuration.SKIP_TESTS_OPTION;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import static org.twdata.maven.mojoexecutor.MojoExecutor.ExecutionEnvironment;
+import static org.twdata.maven.mojoexecutor.MojoExecutor.executeMojo;
+
+/**
+ * Runs the dev mode rebuild goals inside the running Maven JVM. The project
+ * model, the plugin realms and the already JIT-compiled plugin code of the
+ * current session are reused, so a rebuild does not pay for a cold Maven
+ * fork. Goal lists that cannot be mapped to plain mojo executions are
+ * reported as unsupported and left to the Maven Invoker, which includes the
+ * process-resources phase of projects binding other plugins up to it.
+ */
+public class WarmBuildExecutor {
+
+    private static final String MAVEN_PLUGINS_GROUP_ID = "org.apache.maven.plugins";
+    private static final String RESOURCES_PLUGIN = "maven-resources-plugin";
+    private static final String COMPILER_PLUGIN = "maven-compiler-plugin";
+    private static final String WAR_PLUGIN = "maven-war-plugin";
+    private static final List<String> PHASES_TO_PROCESS_RESOURCES = Arrays.asList(
+            "validate", "initialize", "generate-sources", "process-sources",
+            "generate-resources", "process-resources");
+
+    private final ExecutionEnvironment environment;
+    private final Log log;
+
+    public WarmBuildExecutor(ExecutionEnvironment environment, Log log) {
+        this.environment = environment;
+        this.log = log;
+    }
+
+    /**
+     * @param goalsList the goals computed for the Maven Invoker
+     * @return true if every entry of the goal list can be executed in-process
+     */
+    public boolean isSupported(List<String> goalsList) {
+        return toExecutions(goalsList) != null;
+    }
+
+    public void execute(List<String> goalsList) throws MojoExecutionException {
+        List<Execution> executions = toExecutions(goalsList);
+        if (executions == null) {
+            throw new MojoExecutionException("Goals can not be executed in-process: " + goalsList);
+        }
+        for (Execution execution : executions) {
+            checkInterrupted();
+            log.debug("Executing " + execution.plugin.getKey() + ":" + execution.goal);
+            executeMojo(execution.plugin, execution.goal, execution.configuration, environment);
+        }
+        checkInterrupted();
+    }
+
+    /**
+     * Mojos do not stop on interrupts, a cancelled build must not be reported
+     * as completed while later goals have not run.
+     */
+    private static void checkInterrupted() throws MojoExecutionException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new MojoExecutionException("Warm build interrupted");
+        }
+    }
+
+    private List<Execution> toExecutions(List<String> goalsList) {
+        MavenProject project = environment.getMavenProject();
+        List<Execution> executions = new ArrayList<>();
+        Execution compile = null;
+        for (String goal : goalsList) {
+            if (goal.equals(GOAL_PROCESS_RESOURCES)) {
+                if (hasBindingsToProcessResources(project)) {
+                    return null;
+                }
+                Execution execution = createExecution(project, RESOURCES_PLUGIN, null, "resources");
+                if (execution == null) {
+                    return null;
+                }
+                executions.add(execution);
+            } else if (goal.equals(GOAL_COMPILE)) {
+                // same pinned compiler version as used by the Invoker
+                String[] coordinates = GOAL_COMPILE.split(":");
+                compile = createExecution(project, COMPILER_PLUGIN, coordinates[2], coordinates[3]);
+                if (compile == null) {
+                    return null;
+                }
+                executions.add(compile);
+            } else if (goal.equals(OPTION_DISABLE_INCREMENTAL_COMPILATION) && compile != null) {
+                setParameter(compile.configuration, "useIncrementalCompilation", Boolean.FALSE.toString());
+            } else if (goal.startsWith(GOAL_WAR + ":")) {
+                Execution execution = createExecution(project, WAR_PLUGIN, null, goal.substring(GOAL_WAR.length() + 1));
+                if (execution == null) {
+                    return null;
+                }
+                executions.add(execution);
+            } else if (goal.equals(SKIP_TESTS_FLAG) || goal.equals(SKIP_TESTS_OPTION) || goal.startsWith("-P")) {
+                // no test goals are executed and active profiles are already part of the session
+            } else {
+                log.debug("Goal not supported by warm build: " + goal);
+                return null;
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * The process-resources phase runs every plugin bound up to it, like
+     * source generators, not only the resources goal. Executions without an
+     * explicit phase are bound by their mojo defaults, which are not known
+     * here, so they are treated as bound to the phase.
+     */
+    private boolean hasBindingsToProcessResources(MavenProject project) {
+        for (Plugin plugin : project.getBuildPlugins()) {
+            if (MAVEN_PLUGINS_GROUP_ID.equals(plugin.getGroupId())
+                    && (RESOURCES_PLUGIN.equals(plugin.getArtifactId())
+                    || COMPILER_PLUGIN.equals(plugin.getArtifactId())
+                    || WAR_PLUGIN.equals(plugin.getArtifactId()))) {
+                continue;
+            }
+            for (PluginExecution execution : plugin.getExecutions()) {
+                if (execution.getPhase() == null || PHASES_TO_PROCESS_RESOURCES.contains(execution.getPhase())) {
+                    log.debug("Plugin " + plugin.getKey() + " is bound up to " + GOAL_PROCESS_RESOURCES
+                            + ", warm build not supported");
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Execution createExecution(MavenProject project, String artifactId, String version, String goal) {
+        Plugin projectPlugin = project.getPlugin(MAVEN_PLUGINS_GROUP_ID + ":" + artifactId);
+        Plugin plugin;
+        Xpp3Dom configuration;
+        if (projectPlugin != null) {
+            plugin = projectPlugin.clone();
+            configuration = projectPlugin.getConfiguration() instanceof Xpp3Dom
+                    ? new Xpp3Dom((Xpp3Dom) projectPlugin.getConfiguration())
+                    : new Xpp3Dom("configuration");
+        } else if (version != null) {
+            plugin = new Plugin();
+            plugin.setGroupId(MAVEN_PLUGINS_GROUP_ID);
+            plugin.setArtifactId(artifactId);
+            configuration = new Xpp3Dom("configuration");
+        } else {
+            log.debug("Plugin " + artifactId + " not found in the project model");
+            return null;
+        }
+        if (version != null) {
+            plugin.setVersion(version);
+        }
+        if (plugin.getVersion() == null) {
+            return null;
+        }
+        return new Execution(plugin, goal, configuration);
+    }
+
+    private static void setParameter(Xpp3Dom configuration, String name, String value) {
+        Xpp3Dom parameter = configuration.getChild(name);
+        if (parameter == null) {
+            parameter = new Xpp3Dom(name);
+            configuration.addChild(parameter);
+        }
+        parameter.setValue(value);
+    }
+
+    private static class Execution {
+
+        private final Plugin plugin;
+        private final String goal;
+        private final Xpp3Dom configuration;
+
+        Execution(Plugin plugin, String goal, Xpp3Dom configuration) {
+            this.plugin = plugin;
+            this.goal = goal;
+            this.configuration = configuration;
+        }
+    }
+}
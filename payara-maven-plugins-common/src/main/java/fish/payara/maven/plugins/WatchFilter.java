@@ -0,0 +1,257 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decides which directories are watched and which file changes are reported.
+ * The rules are compiled once into {@link PathMatcher}s and matched against
+ * paths relative to the project root:
+ * <ul>
+ * <li>the build directory, IDE metadata, VCS and front-end dependency
+ * directories and editor backup files are always excluded,</li>
+ * <li>the patterns of the root {@code .gitignore} are excluded, negated
+ * patterns re-include previously excluded paths,</li>
+ * <li>the user exclude globs are excluded,</li>
+ * <li>if user include globs are given, only the matching files are
+ * reported.</li>
+ * </ul>
+ * Excluded directories are pruned when registering, so neither their
+ * watches nor their events are created.
+ */
+public class WatchFilter {
+
+    private static final String GITIGNORE = ".gitignore";
+    private static final List<String> DEFAULT_EXCLUDED_DIRECTORIES = Arrays.asList(
+            ".git", ".svn", ".hg", ".idea", ".settings", ".vscode", "node_modules", "bower_components"
+    );
+    private static final List<String> DEFAULT_EXCLUDED_FILES = Arrays.asList(
+            // escaped like in a .gitignore, a leading # starts a comment
+            ".classpath", ".project", "nb-configuration.xml", "*~", "*.swp", "*.swx", ".#*", "\\#*#", ".DS_Store"
+    );
+
+    private final Path rootPath;
+    private final Path buildPath;
+    private final List<Rule> rules = new ArrayList<>();
+    private final List<PathMatcher> includes = new ArrayList<>();
+
+    public WatchFilter(Path rootPath, Path buildPath, List<String> includes, List<String> excludes, Log log) {
+        this.rootPath = rootPath;
+        this.buildPath = buildPath;
+        FileSystem fileSystem = rootPath.getFileSystem();
+        for (String directory : DEFAULT_EXCLUDED_DIRECTORIES) {
+            rules.addAll(Rule.parse(directory + "/", fileSystem));
+        }
+        for (String file : DEFAULT_EXCLUDED_FILES) {
+            rules.addAll(Rule.parse(file, fileSystem));
+        }
+        Path gitignore = rootPath.resolve(GITIGNORE);
+        if (Files.isRegularFile(gitignore)) {
+            try {
+                for (String line : Files.readAllLines(gitignore, StandardCharsets.UTF_8)) {
+                    try {
+                        rules.addAll(Rule.parse(line, fileSystem));
+                    } catch (PatternSyntaxException ex) {
+                        log.debug("Ignoring invalid " + GITIGNORE + " pattern: " + line, ex);
+                    }
+                }
+            } catch (IOException ex) {
+                log.debug("Unable to read " + gitignore, ex);
+            }
+        }
+        for (String exclude : nonNull(excludes)) {
+            try {
+                rules.add(new Rule(fileSystem.getPathMatcher("glob:" + exclude.trim()), false, false));
+            } catch (PatternSyntaxException ex) {
+                log.debug("Ignoring invalid exclude glob: " + exclude, ex);
+            }
+        }
+        for (String include : nonNull(includes)) {
+            try {
+                this.includes.add(fileSystem.getPathMatcher("glob:" + include.trim()));
+            } catch (PatternSyntaxException ex) {
+                log.debug("Ignoring invalid include glob: " + include, ex);
+            }
+        }
+        log.debug("Watch filter compiled " + rules.size() + " exclude rule(s) and " + this.includes.size() + " include rule(s)");
+    }
+
+    /**
+     * @return true if the directory and its subtree are not watched
+     */
+    public boolean isExcludedDirectory(Path directory) {
+        if (directory.startsWith(buildPath)) {
+            return true;
+        }
+        return isExcluded(directory, true);
+    }
+
+    /**
+     * @return true if a change of the file is not reported
+     */
+    public boolean isExcludedFile(Path file) {
+        if (file.startsWith(buildPath) || isExcluded(file, false)) {
+            return true;
+        }
+        if (includes.isEmpty()) {
+            return false;
+        }
+        Path relativePath = rootPath.relativize(file);
+        for (PathMatcher include : includes) {
+            if (include.matches(relativePath)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isExcluded(Path path, boolean directory) {
+        if (!path.startsWith(rootPath) || path.equals(rootPath)) {
+            return false;
+        }
+        Path relativePath = rootPath.relativize(path);
+        boolean excluded = false;
+        for (Rule rule : rules) {
+            if ((!rule.directoryOnly || directory) && rule.matcher.matches(relativePath)) {
+                excluded = !rule.negated;
+            }
+        }
+        return excluded;
+    }
+
+    private static List<String> nonNull(List<String> patterns) {
+        if (patterns == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.trim().isEmpty()) {
+                result.add(pattern);
+            }
+        }
+        return result;
+    }
+
+    private static class Rule {
+
+        private final PathMatcher matcher;
+        private final boolean negated;
+        private final boolean directoryOnly;
+
+        Rule(PathMatcher matcher, boolean negated, boolean directoryOnly) {
+            this.matcher = matcher;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+        }
+
+        /**
+         * Converts a {@code .gitignore} pattern to glob rules. Patterns
+         * without a slash (other than a trailing one) match at any depth,
+         * others are relative to the project root.
+         */
+        static List<Rule> parse(String line, FileSystem fileSystem) {
+            String pattern = line.trim();
+            if (pattern.isEmpty() || pattern.startsWith("#")) {
+                return Collections.emptyList();
+            }
+            boolean negated = pattern.startsWith("!");
+            if (negated) {
+                pattern = pattern.substring(1);
+            }
+            boolean directoryOnly = pattern.endsWith("/");
+            if (directoryOnly) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            pattern = toGlob(pattern);
+            if (pattern.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Rule> result = new ArrayList<>(2);
+            if (pattern.contains("/")) {
+                if (pattern.startsWith("/")) {
+                    pattern = pattern.substring(1);
+                }
+                result.add(new Rule(fileSystem.getPathMatcher("glob:" + pattern), negated, directoryOnly));
+            } else {
+                result.add(new Rule(fileSystem.getPathMatcher("glob:" + pattern), negated, directoryOnly));
+                result.add(new Rule(fileSystem.getPathMatcher("glob:**/" + pattern), negated, directoryOnly));
+            }
+            return result;
+        }
+
+        /**
+         * Escapes the glob syntax which has no meaning in {@code .gitignore}
+         * patterns. Backslash escapes are kept, a trailing one is dropped,
+         * and negated bracket expressions use the glob negation.
+         */
+        static String toGlob(String pattern) {
+            StringBuilder glob = new StringBuilder(pattern.length() + 4);
+            boolean bracket = false;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '\\') {
+                    if (i + 1 < pattern.length()) {
+                        glob.append(c).append(pattern.charAt(++i));
+                    }
+                } else if (bracket) {
+                    glob.append(c == '^' && pattern.charAt(i - 1) == '[' ? '!' : c);
+                    bracket = c != ']' || pattern.charAt(i - 1) == '[';
+                } else if (c == '{' || c == '}') {
+                    glob.append('\\').append(c);
+                } else {
+                    glob.append(c);
+                    bracket = c == '[';
+                }
+            }
+            return glob.toString();
+        }
+    }
+}
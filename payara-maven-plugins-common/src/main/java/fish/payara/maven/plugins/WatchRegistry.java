@@ -0,0 +1,399 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.Watchable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.Log;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Multiplexes a single native {@link WatchService} (or a single polling one
+ * per interval) across all dev mode projects of the JVM, e.g. when several
+ * modules run {@code dev} in one reactor. Each directory is registered once
+ * no matter how many projects watch it, and its events are dispatched to the
+ * project whose watched root is the closest parent of the directory.
+ */
+public class WatchRegistry {
+
+    private static final WatchRegistry INSTANCE = new WatchRegistry();
+
+    private final ProcessThreads threads = new ProcessThreads("payara-watch");
+    private Backend nativeBackend;
+    private final Map<Long, Backend> pollingBackends = new HashMap<>();
+    private final Map<Path, Set<ProjectWatchService>> roots = new HashMap<>();
+
+    WatchRegistry() {
+    }
+
+    public static WatchRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return a view of the shared native watch service
+     * @throws IOException if the native watch service can not be created,
+     * e.g. because the inotify instance limit is reached
+     */
+    public synchronized ProjectWatchService newWatchService() throws IOException {
+        if (nativeBackend == null) {
+            nativeBackend = new Backend(FileSystems.getDefault().newWatchService(), null);
+        }
+        return new ProjectWatchService(nativeBackend);
+    }
+
+    /**
+     * @return a view of the shared polling watch service of the interval
+     */
+    public synchronized ProjectWatchService newPollingWatchService(long interval, Log log) {
+        Backend backend = pollingBackends.get(interval);
+        if (backend == null) {
+            PollingWatchService service = new PollingWatchService(interval, log);
+            service.start(threads);
+            backend = new Backend(service, interval);
+            pollingBackends.put(interval, backend);
+        }
+        return new ProjectWatchService(backend);
+    }
+
+    /**
+     * @return the number of directories registered with the shared watch
+     * services
+     */
+    public synchronized int getDirectoryCount() {
+        int count = nativeBackend != null ? nativeBackend.registrations.size() : 0;
+        for (Backend backend : pollingBackends.values()) {
+            count += backend.registrations.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return the projects registered for the directory, owning the
+     * closest root
+     */
+    private synchronized List<ProjectWatchService> getOwners(Backend backend, Path directory) {
+        Set<ProjectWatchService> registered = backend.registrations.get(directory);
+        List<ProjectWatchService> owners = new ArrayList<>();
+        if (registered == null) {
+            return owners;
+        }
+        for (Path path = directory; path != null && owners.isEmpty(); path = path.getParent()) {
+            Set<ProjectWatchService> services = roots.get(path);
+            if (services != null) {
+                for (ProjectWatchService service : services) {
+                    if (registered.contains(service)) {
+                        owners.add(service);
+                    }
+                }
+            }
+        }
+        if (owners.isEmpty()) {
+            owners.addAll(registered);
+        }
+        return owners;
+    }
+
+    private synchronized List<ProjectWatchService> getClients(Backend backend) {
+        return new ArrayList<>(backend.clients);
+    }
+
+    private synchronized void unregister(Backend backend, Path directory, WatchKey key) {
+        if (backend.keys.remove(directory, key)) {
+            backend.registrations.remove(directory);
+        }
+    }
+
+    private synchronized void close(ProjectWatchService client) {
+        Backend backend = client.backend;
+        if (!backend.clients.remove(client)) {
+            return;
+        }
+        for (Path root : client.roots) {
+            Set<ProjectWatchService> services = roots.get(root);
+            if (services != null && services.remove(client) && services.isEmpty()) {
+                roots.remove(root);
+            }
+        }
+        backend.registrations.entrySet().removeIf(entry -> {
+            if (entry.getValue().remove(client) && entry.getValue().isEmpty()) {
+                WatchKey key = backend.keys.remove(entry.getKey());
+                if (key != null) {
+                    key.cancel();
+                }
+                return true;
+            }
+            return false;
+        });
+        if (backend.clients.isEmpty()) {
+            if (backend == nativeBackend) {
+                nativeBackend = null;
+            } else {
+                pollingBackends.remove(backend.interval);
+            }
+            try {
+                backend.service.close();
+            } catch (IOException ex) {
+                // the dispatcher stops anyway
+            }
+        }
+    }
+
+    private class Backend {
+
+        private final WatchService service;
+        private final Long interval;
+        private final Set<ProjectWatchService> clients = new HashSet<>();
+        private final Map<Path, Set<ProjectWatchService>> registrations = new HashMap<>();
+        private final Map<Path, WatchKey> keys = new HashMap<>();
+
+        Backend(WatchService service, Long interval) {
+            this.service = service;
+            this.interval = interval;
+            threads.submit(interval == null ? "native" : "polling-" + interval, this::dispatch);
+        }
+
+        private void register(ProjectWatchService client, Path directory) throws IOException {
+            synchronized (WatchRegistry.this) {
+                Set<ProjectWatchService> services = registrations.get(directory);
+                WatchKey key = keys.get(directory);
+                if (key == null || !key.isValid()) {
+                    if (service instanceof PollingWatchService) {
+                        key = ((PollingWatchService) service).register(directory);
+                    } else {
+                        key = directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                    }
+                    keys.put(directory, key);
+                }
+                if (services == null) {
+                    services = new HashSet<>();
+                    registrations.put(directory, services);
+                }
+                services.add(client);
+            }
+        }
+
+        private void dispatch() {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    Path directory = (Path) key.watchable();
+                    List<WatchEvent<?>> events = key.pollEvents();
+                    List<WatchEvent<?>> overflows = new ArrayList<>();
+                    for (WatchEvent<?> event : events) {
+                        if (event.kind() == OVERFLOW) {
+                            overflows.add(event);
+                        }
+                    }
+                    if (!overflows.isEmpty()) {
+                        // the lost events may belong to any project
+                        events.removeAll(overflows);
+                        for (ProjectWatchService client : getClients(this)) {
+                            client.signal(directory, overflows);
+                        }
+                    }
+                    if (!events.isEmpty()) {
+                        for (ProjectWatchService client : getOwners(this, directory)) {
+                            client.signal(directory, events);
+                        }
+                    }
+                    if (!key.reset()) {
+                        unregister(this, directory, key);
+                    }
+                }
+            } catch (ClosedWatchServiceException | InterruptedException ex) {
+                // the last project stopped watching
+            }
+        }
+    }
+
+    /**
+     * The watch service of a single project, backed by a shared one.
+     */
+    public final class ProjectWatchService implements WatchService {
+
+        private final Backend backend;
+        private final Set<Path> roots = new HashSet<>();
+        private final Map<Path, ProjectWatchKey> keys = new HashMap<>();
+        private final LinkedBlockingQueue<WatchKey> signalled = new LinkedBlockingQueue<>();
+        private volatile boolean closed;
+
+        private ProjectWatchService(Backend backend) {
+            this.backend = backend;
+            backend.clients.add(this);
+        }
+
+        /**
+         * Declares the root directory of the project (or of one of its
+         * reactor modules), the events below it are dispatched to this
+         * project rather than to a project watching a parent directory.
+         */
+        public void addRoot(Path root) {
+            synchronized (WatchRegistry.this) {
+                checkOpen();
+                roots.add(root);
+                WatchRegistry.this.roots.computeIfAbsent(root, path -> new HashSet<>()).add(this);
+            }
+        }
+
+        /**
+         * Registers a directory. Only its direct entries are watched, like a
+         * directory registered with the native watch service.
+         */
+        public void register(Path directory) throws IOException {
+            checkOpen();
+            backend.register(this, directory);
+        }
+
+        private void signal(Path directory, List<WatchEvent<?>> events) {
+            ProjectWatchKey key;
+            synchronized (keys) {
+                key = keys.get(directory);
+                if (key == null) {
+                    key = new ProjectWatchKey(directory);
+                    keys.put(directory, key);
+                }
+            }
+            key.signal(events);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            WatchRegistry.this.close(this);
+        }
+
+        @Override
+        public WatchKey poll() {
+            checkOpen();
+            return signalled.poll();
+        }
+
+        @Override
+        public WatchKey poll(long timeout, TimeUnit unit) throws InterruptedException {
+            checkOpen();
+            return signalled.poll(timeout, unit);
+        }
+
+        @Override
+        public WatchKey take() throws InterruptedException {
+            checkOpen();
+            return signalled.take();
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new ClosedWatchServiceException();
+            }
+        }
+
+        private class ProjectWatchKey implements WatchKey {
+
+            private final Path directory;
+            private final List<WatchEvent<?>> events = new ArrayList<>();
+            private boolean ready = true;
+
+            ProjectWatchKey(Path directory) {
+                this.directory = directory;
+            }
+
+            synchronized void signal(List<WatchEvent<?>> newEvents) {
+                events.addAll(newEvents);
+                if (ready) {
+                    ready = false;
+                    signalled.add(this);
+                }
+            }
+
+            @Override
+            public boolean isValid() {
+                return !closed;
+            }
+
+            @Override
+            public synchronized List<WatchEvent<?>> pollEvents() {
+                List<WatchEvent<?>> result = new ArrayList<>(events);
+                events.clear();
+                return result;
+            }
+
+            @Override
+            public synchronized boolean reset() {
+                if (!isValid()) {
+                    return false;
+                }
+                if (events.isEmpty()) {
+                    ready = true;
+                } else {
+                    signalled.add(this);
+                }
+                return true;
+            }
+
+            @Override
+            public void cancel() {
+                synchronized (keys) {
+                    keys.remove(directory, this);
+                }
+            }
+
+            @Override
+            public Watchable watchable() {
+                return directory;
+            }
+        }
+    }
+}
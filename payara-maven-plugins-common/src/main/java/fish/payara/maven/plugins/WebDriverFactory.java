@@ -190,6 +190,16 @@ public class WebDriverFactory {
         WebDriverFactory.executeScript(String.format("document.title = '%s %s';", state, project.getName()), driver, log);
     }
 
+    public static void refresh(WebDriver driver, Log log) {
+        if (driver != null) {
+            try {
+                driver.navigate().refresh();
+            } catch (Exception ex) {
+                log.debug("Error in refreshing with WebDriver", ex);
+            }
+        }
+    }
+
     public static String getCurrentTitle(WebDriver driver) {
         if (driver != null) {
             if (driver instanceof JavascriptExecutor) {
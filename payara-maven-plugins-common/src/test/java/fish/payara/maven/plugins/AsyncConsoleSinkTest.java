@@ -0,0 +1,196 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class AsyncConsoleSinkTest {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final ProcessThreads threads = new ProcessThreads("console-test");
+    private final SlowConsole console = new SlowConsole();
+    private final PrintStream target = new PrintStream(console, false);
+
+    @Test
+    public void testLinesAreWrittenInOrder() {
+        console.release();
+        AsyncConsoleSink sink = new AsyncConsoleSink(target, 4, AsyncConsoleSink.OverflowPolicy.BLOCK, threads, new SystemStreamLog());
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sink.println("line " + i);
+            expected.append("line ").append(i).append(LINE_SEPARATOR);
+        }
+        sink.close();
+        assertEquals(expected.toString(), console.getOutput());
+        assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockWaitsForConsole() throws InterruptedException {
+        AsyncConsoleSink sink = fillWhileConsoleIsBusy(AsyncConsoleSink.OverflowPolicy.BLOCK);
+        Thread producer = new Thread(() -> sink.println("line 3"));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        console.release();
+        producer.join(10000);
+        sink.close();
+        assertEquals(lines(0, 1, 2, 3), console.getOutput());
+        assertEquals(1, sink.getThrottledCount());
+        assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    public void testDropDebug() throws InterruptedException {
+        AsyncConsoleSink sink = fillWhileConsoleIsBusy(AsyncConsoleSink.OverflowPolicy.DROP_DEBUG);
+        sink.println("[2026-10-15T10:15:30.123+0000] [Payara 6.2026.9] [FINE] [] [levelValue: 500] detail");
+        sink.println("[2026-10-15T10:15:30.123+0000] [Payara 6.2026.9] [FINEST] [] trace");
+        assertEquals(2, sink.getDroppedCount());
+
+        console.release();
+        sink.close();
+        assertEquals(lines(0, 1, 2), console.getOutput());
+    }
+
+    @Test
+    public void testSample() throws InterruptedException {
+        AsyncConsoleSink sink = fillWhileConsoleIsBusy(AsyncConsoleSink.OverflowPolicy.SAMPLE);
+        Thread producer = new Thread(() -> sink.println("line 3"));
+        producer.start();
+        while (sink.getThrottledCount() == 0) {
+            Thread.sleep(10);
+        }
+        for (int i = 4; i < 4 + AsyncConsoleSink.SAMPLE_RATE - 1; i++) {
+            sink.println("line " + i);
+        }
+        assertEquals(AsyncConsoleSink.SAMPLE_RATE - 1, sink.getDroppedCount());
+
+        console.release();
+        producer.join(10000);
+        sink.close();
+        assertEquals(lines(0, 1, 2, 3), console.getOutput());
+    }
+
+    @Test
+    public void testIsDebug() {
+        assertTrue(AsyncConsoleSink.isDebug("[2026-10-15] [Payara] [CONFIG] [] [levelValue: 700] config"));
+        assertTrue(AsyncConsoleSink.isDebug("[levelValue: 500] fine"));
+        assertFalse(AsyncConsoleSink.isDebug("[2026-10-15] [Payara] [INFO] [] [levelValue: 800] info"));
+        assertFalse(AsyncConsoleSink.isDebug("plain output"));
+    }
+
+    @Test
+    public void testOverflowPolicyNames() {
+        assertEquals(AsyncConsoleSink.OverflowPolicy.BLOCK, AsyncConsoleSink.OverflowPolicy.of(null));
+        assertEquals(AsyncConsoleSink.OverflowPolicy.DROP_DEBUG, AsyncConsoleSink.OverflowPolicy.of("drop-debug"));
+        assertEquals(AsyncConsoleSink.OverflowPolicy.SAMPLE, AsyncConsoleSink.OverflowPolicy.of(" Sample "));
+    }
+
+    /**
+     * Lets the writer take line 0 and block on the console, then fills the
+     * buffer of two lines.
+     */
+    private AsyncConsoleSink fillWhileConsoleIsBusy(AsyncConsoleSink.OverflowPolicy policy) throws InterruptedException {
+        AsyncConsoleSink sink = new AsyncConsoleSink(target, 2, policy, threads, new SystemStreamLog());
+        sink.println("line 0");
+        assertTrue(console.awaitWrite());
+        sink.println("line 1");
+        sink.println("line 2");
+        return sink;
+    }
+
+    private static String lines(int... numbers) {
+        StringBuilder lines = new StringBuilder();
+        for (int number : numbers) {
+            lines.append("line ").append(number).append(LINE_SEPARATOR);
+        }
+        return lines.toString();
+    }
+
+    private static class SlowConsole extends OutputStream {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writing.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (output) {
+                output.write(b, off, len);
+            }
+        }
+
+        boolean awaitWrite() throws InterruptedException {
+            return writing.await(10, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        String getOutput() {
+            synchronized (output) {
+                return new String(output.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CdsArchiveTest {
+
+    private static final String NAME = "payara-micro-6.2026.9";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cds-archive");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCreateThenUseArchive() throws IOException {
+        CdsArchive archive = new CdsArchive(directory, NAME, "0123456789abcdef", 17, new SystemStreamLog());
+        assertEquals(Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive.getArchiveFile()), archive.getJvmOptions());
+        assertFalse(archive.isUsed());
+        assertEquals(-1, archive.startupMeasured(5000));
+
+        // written by the JVM when the first launch exits
+        Files.write(archive.getArchiveFile(), new byte[]{1});
+        assertEquals(Collections.singletonList("-XX:SharedArchiveFile=" + archive.getArchiveFile()), archive.getJvmOptions());
+        assertTrue(archive.isUsed());
+        assertEquals(2000, archive.startupMeasured(3000));
+    }
+
+    @Test
+    public void testAutoCreateArchive() throws IOException {
+        CdsArchive archive = new CdsArchive(directory, NAME, "0123456789abcdef", 21, new SystemStreamLog());
+        assertEquals(Arrays.asList("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive.getArchiveFile()),
+                archive.getJvmOptions());
+        assertFalse(archive.isUsed());
+    }
+
+    @Test
+    public void testStaleArchivesAreDeleted() throws IOException {
+        Path stale = Files.write(directory.resolve(NAME + "-fedcba9876543210.jsa"), new byte[]{1});
+        Path staleStartup = Files.write(directory.resolve(NAME + "-fedcba9876543210.startup"), "5000".getBytes());
+        Path otherVersion = Files.write(directory.resolve("payara-micro-6.2026.10-fedcba9876543210.jsa"), new byte[]{1});
+        new CdsArchive(directory, NAME, "0123456789abcdef", 17, new SystemStreamLog());
+        assertFalse(Files.exists(stale));
+        assertFalse(Files.exists(staleStartup));
+        assertTrue(Files.exists(otherVersion));
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        CdsArchive archive = new CdsArchive(directory, NAME, "0123456789abcdef", 17, new SystemStreamLog());
+        Files.write(archive.getArchiveFile(), new byte[]{1});
+        archive.getJvmOptions();
+        archive.invalidate();
+        assertFalse(archive.isUsed());
+        assertFalse(Files.exists(archive.getArchiveFile()));
+        assertTrue(archive.getJvmOptions().get(0).startsWith("-XX:ArchiveClassesAtExit="));
+    }
+
+    @Test
+    public void testValidateDeletesUnusableArchive() throws IOException {
+        CdsArchive archive = new CdsArchive(directory, NAME, "0123456789abcdef", 17, new SystemStreamLog());
+        // e.g. the process was killed while writing the archive
+        Files.write(archive.getArchiveFile(), new byte[]{1, 2, 3});
+        archive.validate(currentJava(), Collections.singletonList(directory.toString()));
+        assertFalse(Files.exists(archive.getArchiveFile()));
+    }
+
+    @Test
+    public void testKey() {
+        String key = CdsArchive.key("java 17", "payara-micro.jar:1:2");
+        assertEquals(16, key.length());
+        assertEquals(key, CdsArchive.key("java 17", "payara-micro.jar:1:2"));
+        assertFalse(key.equals(CdsArchive.key("java 21", "payara-micro.jar:1:2")));
+        assertFalse(CdsArchive.key("a", "bc").equals(CdsArchive.key("ab", "c")));
+    }
+
+    @Test
+    public void testJavaVersion() {
+        assertEquals(8, CdsArchive.getJavaVersion("java version \"1.8.0_392\"\nJava(TM) SE Runtime Environment"));
+        assertEquals(17, CdsArchive.getJavaVersion("openjdk version \"17.0.2\" 2022-01-18"));
+        assertEquals(21, CdsArchive.getJavaVersion("openjdk version \"21\" 2023-09-19"));
+        assertEquals(-1, CdsArchive.getJavaVersion("unknown"));
+
+        String output = CdsArchive.describeJava(currentJava(), new SystemStreamLog());
+        assertNotNull(output);
+        assertTrue(CdsArchive.getJavaVersion(output) >= 8);
+    }
+
+    @Test
+    public void testConfigured() {
+        assertTrue(CdsArchive.isConfigured(Arrays.asList("-Xmx512m", "-Xshare:off")));
+        assertTrue(CdsArchive.isConfigured(Arrays.asList("-XX:SharedArchiveFile=/tmp/app.jsa")));
+        assertFalse(CdsArchive.isConfigured(Arrays.asList("-Xmx512m", null)));
+    }
+
+    private static String currentJava() {
+        return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    }
+}
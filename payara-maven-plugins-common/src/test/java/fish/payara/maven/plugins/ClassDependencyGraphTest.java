@@ -0,0 +1,169 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassDependencyGraphTest {
+
+    private Path sourceDirectory;
+    private Path classesDirectory;
+    private ClassDependencyGraph graph;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceDirectory = Files.createTempDirectory("dependency-graph");
+        classesDirectory = sourceDirectory.resolve("classes");
+        write("a/A.java", "package a; public class A { int x() { return new B().y(); } }");
+        write("a/B.java", "package a; public class B { public static final int K = 1; public int y() { return C.c(); } }");
+        write("a/C.java", "package a; class C { static int c() { return 1; } }");
+        write("a/D.java", "package a; public class D { }");
+        compile("a/A.java", "a/B.java", "a/C.java", "a/D.java");
+        graph = new ClassDependencyGraph(classesDirectory, new SystemStreamLog());
+        assertTrue(graph.refresh().isEmpty());
+        assertEquals(4, graph.size());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(sourceDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testBodyChangeHasNoDependents() throws IOException {
+        write("a/C.java", "package a; class C { static int c() { return 2; } }");
+        compile("a/C.java");
+        assertTrue(graph.refresh().isEmpty());
+        assertTrue(graph.getDependents().isEmpty());
+    }
+
+    @Test
+    public void testApiChangeHasTransitiveDependents() throws IOException {
+        write("a/C.java", "package a; class C { static int c() { return 2; } static int d() { return 3; } }");
+        compile("a/C.java");
+        assertEquals(Collections.singleton("a/C"), graph.refresh());
+        assertEquals(new HashSet<>(Arrays.asList("a/A", "a/B")), graph.getDependents());
+        assertEquals(new HashSet<>(Arrays.asList("a/A.java", "a/B.java")), graph.getSourceFiles(graph.getDependents()));
+
+        graph.commit();
+        assertTrue(graph.getDependents().isEmpty());
+    }
+
+    @Test
+    public void testConstantChangeAffectsAllClasses() throws IOException {
+        write("a/B.java", "package a; public class B { public static final int K = 2; public int y() { return C.c(); } }");
+        compile("a/B.java");
+        graph.refresh();
+        assertEquals(new HashSet<>(Arrays.asList("a/A", "a/C", "a/D")), graph.getDependents());
+    }
+
+    @Test
+    public void testStagedChangeIsNotScannedAgainOnceMoved() throws IOException {
+        Path stagingDirectory = sourceDirectory.resolve("staging");
+        write("a/C.java", "package a; class C { static int c() { return 2; } static int d() { return 3; } }");
+        compile(stagingDirectory, "a/C.java");
+        assertEquals(Collections.singleton("a/C"), graph.refreshStaged(stagingDirectory));
+        assertEquals(new HashSet<>(Arrays.asList("a/A", "a/B")), graph.getDependents());
+
+        graph.commit();
+        Files.copy(stagingDirectory.resolve("a/C.class"), classesDirectory.resolve("a/C.class"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        assertTrue(graph.refresh().isEmpty());
+        assertEquals(4, graph.size());
+    }
+
+    @Test
+    public void testClassFilesIncludeInnerAndSecondaryClasses() throws IOException {
+        write("a/E.java", "package a; public class E { class Inner { } Object o = new Object() { }; } class F { }");
+        compile("a/E.java");
+        graph.refresh();
+        assertEquals(new HashSet<>(Arrays.asList("a/E.class", "a/E$Inner.class", "a/E$1.class", "a/F.class")),
+                graph.getClassFiles("a/E.java").stream().map(path -> path.toString().replace('\\', '/')).collect(Collectors.toSet()));
+        assertEquals(8, graph.getClassFiles("a").size());
+    }
+
+    @Test
+    public void testDependentsOfExternalClasses() throws IOException {
+        assertEquals(new HashSet<>(Arrays.asList("a/A", "a/B")), graph.getDependents(Collections.singleton("a/C")));
+        assertTrue(graph.getDependents(Collections.singleton("b/Missing")).isEmpty());
+    }
+
+    private void write(String name, String content) throws IOException {
+        Path file = sourceDirectory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes());
+    }
+
+    private void compile(String... names) throws IOException {
+        compile(classesDirectory, names);
+    }
+
+    private void compile(Path outputDirectory, String... names) throws IOException {
+        Files.createDirectories(outputDirectory);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String[] args = new String[names.length + 4];
+        args[0] = "-d";
+        args[1] = outputDirectory.toString();
+        args[2] = "-cp";
+        args[3] = classesDirectory.toString();
+        for (int i = 0; i < names.length; i++) {
+            args[i + 4] = sourceDirectory.resolve(names[i]).toString();
+        }
+        assertEquals(0, compiler.run(null, null, null, args));
+    }
+}
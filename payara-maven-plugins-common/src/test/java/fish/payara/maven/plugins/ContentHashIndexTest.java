@@ -0,0 +1,125 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentHashIndexTest {
+
+    private Path baseDirectory;
+    private Path indexFile;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDirectory = Files.createTempDirectory("content-hash");
+        indexFile = baseDirectory.resolve("target").resolve("hashes.properties");
+        file = baseDirectory.resolve("src").resolve("Hello.java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "class Hello {}".getBytes());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(baseDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRewriteWithSameContentIsUnchanged() throws IOException {
+        ContentHashIndex index = newIndex();
+        index.seed(file);
+        Files.write(file, "class Hello {}".getBytes());
+        touch(file, 60000);
+        assertFalse(index.update(file));
+    }
+
+    @Test
+    public void testModifiedContentIsChanged() throws IOException {
+        ContentHashIndex index = newIndex();
+        index.seed(file);
+        Files.write(file, "class Hellp {}".getBytes());
+        assertTrue(index.update(file));
+        assertFalse(index.update(file));
+    }
+
+    @Test
+    public void testUnknownAndDeletedFilesAreChanged() throws IOException {
+        ContentHashIndex index = newIndex();
+        assertTrue(index.update(file));
+        Files.delete(file);
+        assertTrue(index.update(file));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testIndexSurvivesRestart() throws IOException {
+        ContentHashIndex index = newIndex();
+        index.seed(file);
+        index.save();
+        assertTrue(Files.isRegularFile(indexFile));
+
+        ContentHashIndex restarted = newIndex();
+        restarted.load();
+        assertEquals(1, restarted.size());
+        touch(file, 60000);
+        assertFalse(restarted.update(file));
+    }
+
+    private ContentHashIndex newIndex() {
+        return new ContentHashIndex(baseDirectory, indexFile, new SystemStreamLog());
+    }
+
+    private static void touch(Path path, long offset) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + offset));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CracCheckpointTest {
+
+    private static final String JAVA = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("crac-checkpoint");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCheckpointThenRestore() throws Exception {
+        CracCheckpoint checkpoint = new CracCheckpoint(directory, JAVA, new SystemStreamLog());
+        checkpoint.select("0123456789abcdef");
+        assertFalse(checkpoint.isRestorable());
+        assertEquals(Collections.singletonList("-XX:CRaCCheckpointTo=" + checkpoint.getImageDirectory()),
+                checkpoint.getCheckpointOptions());
+        assertTrue(Files.isDirectory(checkpoint.getImageDirectory()));
+
+        // the image written by the JVM, which exits once checkpointed
+        Files.write(checkpoint.getImageDirectory().resolve("core-1.img"), new byte[]{1});
+        Process process = new ProcessBuilder(JAVA, "-version").redirectErrorStream(true).start();
+        process.getInputStream().close();
+        process.waitFor();
+        assertTrue(checkpoint.checkpoint(process));
+        assertTrue(checkpoint.isRestorable());
+        assertEquals(Arrays.asList(JAVA, "-XX:CRaCRestoreFrom=" + checkpoint.getImageDirectory()),
+                checkpoint.getRestoreCommand());
+
+        checkpoint.invalidate();
+        assertFalse(checkpoint.isRestorable());
+    }
+
+    @Test
+    public void testIncompleteImageIsNotRestored() throws Exception {
+        CracCheckpoint checkpoint = new CracCheckpoint(directory, JAVA, new SystemStreamLog());
+        checkpoint.select("0123456789abcdef");
+        checkpoint.getCheckpointOptions();
+        Files.write(checkpoint.getImageDirectory().resolve("core-1.img"), new byte[]{1});
+        assertFalse(checkpoint.isRestorable());
+        // the next checkpoint starts from an empty image
+        checkpoint.getCheckpointOptions();
+        try (Stream<Path> files = Files.list(checkpoint.getImageDirectory())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedImagesAreDeleted() throws IOException {
+        Path oldest = Files.createDirectories(directory.resolve("image-aaaa"));
+        Path recent = Files.createDirectories(directory.resolve("image-bbbb"));
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        CracCheckpoint checkpoint = new CracCheckpoint(directory, JAVA, new SystemStreamLog());
+        checkpoint.select("cccc");
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(recent));
+    }
+
+    @Test
+    public void testUnsupportedJava() {
+        assertFalse(CracCheckpoint.isSupported(directory.resolve("java").toString(), new SystemStreamLog()));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class DebounceSchedulerTest {
+
+    private static final long QUIET_PERIOD = 300;
+    private static final long MAX_LATENCY = 2000;
+
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final DebounceScheduler scheduler = new DebounceScheduler(QUIET_PERIOD, MAX_LATENCY, clock::get);
+
+    @Test
+    public void testIdleWithoutEvents() {
+        assertFalse(scheduler.hasPending());
+        assertFalse(scheduler.isDue());
+        assertEquals(60000, scheduler.getDelay(60000));
+    }
+
+    @Test
+    public void testSingleEventIsDueAfterQuietPeriod() {
+        scheduler.eventReceived();
+        assertTrue(scheduler.hasPending());
+        assertEquals(QUIET_PERIOD, scheduler.getDelay(60000));
+
+        clock.addAndGet(QUIET_PERIOD - 1);
+        assertFalse(scheduler.isDue());
+        assertEquals(1, scheduler.getDelay(60000));
+
+        clock.incrementAndGet();
+        assertTrue(scheduler.isDue());
+        assertEquals(0, scheduler.getDelay(60000));
+    }
+
+    @Test
+    public void testBurstIsCoalescedIntoOneBatch() {
+        // IDE "save all": ten files written 50 ms apart
+        for (int i = 0; i < 10; i++) {
+            scheduler.eventReceived();
+            clock.addAndGet(50);
+            assertFalse(scheduler.isDue());
+        }
+        clock.addAndGet(QUIET_PERIOD - 50);
+        assertTrue(scheduler.isDue());
+        assertEquals(10 * 50 + QUIET_PERIOD - 50, scheduler.dispatched());
+        assertFalse(scheduler.hasPending());
+        assertFalse(scheduler.isDue());
+    }
+
+    @Test
+    public void testContinuousEventsAreCappedByMaxLatency() {
+        long elapsed = 0;
+        while (!scheduler.isDue()) {
+            scheduler.eventReceived();
+            clock.addAndGet(100);
+            elapsed += 100;
+            assertTrue("batch must be dispatched within max latency", elapsed <= MAX_LATENCY);
+        }
+        assertEquals(MAX_LATENCY, elapsed);
+        assertEquals(MAX_LATENCY, scheduler.dispatched());
+    }
+
+    @Test
+    public void testNextBatchStartsAfterDispatch() {
+        scheduler.eventReceived();
+        clock.addAndGet(QUIET_PERIOD);
+        scheduler.dispatched();
+
+        clock.addAndGet(5000);
+        scheduler.eventReceived();
+        assertEquals(QUIET_PERIOD, scheduler.getDelay(60000));
+        clock.addAndGet(QUIET_PERIOD);
+        assertTrue(scheduler.isDue());
+        assertEquals(QUIET_PERIOD, scheduler.dispatched());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxLatencyShorterThanQuietPeriod() {
+        new DebounceScheduler(QUIET_PERIOD, QUIET_PERIOD - 1, clock::get);
+    }
+}
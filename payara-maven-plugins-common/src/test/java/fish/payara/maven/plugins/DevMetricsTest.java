@@ -0,0 +1,126 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DevMetricsTest {
+
+    private Path directory;
+    private Path metricsFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("dev-metrics");
+        metricsFile = directory.resolve("target").resolve("metrics.json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testPercentile() {
+        assertEquals(0, DevMetrics.percentile(Collections.emptyList(), 50));
+        assertEquals(5, DevMetrics.percentile(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), 50));
+        assertEquals(10, DevMetrics.percentile(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), 95));
+        assertEquals(7, DevMetrics.percentile(Collections.singletonList(7L), 95));
+    }
+
+    @Test
+    public void testCycleCompletedByDeployment() throws IOException {
+        DevMetrics metrics = new DevMetrics(metricsFile, new SystemStreamLog());
+        metrics.cycleStarted(2, 15, 300);
+        metrics.buildStarted("invoker");
+        metrics.buildFinished(true);
+        metrics.reloadStarted();
+        metrics.reloadFinished();
+        assertFalse(Files.exists(metricsFile));
+        metrics.deployed();
+        String json = new String(Files.readAllBytes(metricsFile), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"cycles\": 1,"));
+        assertTrue(json.contains("\"kind\": \"invoker\""));
+        assertTrue(json.contains("\"detect\": 15, \"debounce\": 300"));
+    }
+
+    @Test
+    public void testDeploymentBeforeEndOfReload() throws IOException {
+        DevMetrics metrics = new DevMetrics(metricsFile, new SystemStreamLog());
+        metrics.cycleStarted(1, 0, 300);
+        metrics.buildStarted("in-process");
+        metrics.buildFinished(true);
+        metrics.reloadStarted();
+        metrics.deployed();
+        assertFalse(Files.exists(metricsFile));
+        metrics.reloadFinished();
+        assertTrue(Files.exists(metricsFile));
+    }
+
+    @Test
+    public void testCancelledBuildIsMergedIntoNextCycle() throws IOException {
+        DevMetrics metrics = new DevMetrics(metricsFile, new SystemStreamLog());
+        metrics.cycleStarted(1, 0, 300);
+        metrics.buildStarted("invoker");
+        metrics.cycleStarted(3, 0, 400);
+        metrics.buildStarted("invoker");
+        metrics.buildFinished(true);
+        metrics.refreshed();
+        String json = new String(Files.readAllBytes(metricsFile), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"cycles\": 1,"));
+        assertTrue(json.contains("\"changes\": 4"));
+        assertTrue(json.contains("\"debounce\": 700"));
+    }
+}
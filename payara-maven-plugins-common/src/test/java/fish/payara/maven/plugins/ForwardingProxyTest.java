@@ -0,0 +1,124 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ForwardingProxyTest {
+
+    private HttpServer blue;
+    private HttpServer green;
+    private ForwardingProxy proxy;
+
+    @Before
+    public void setUp() throws IOException {
+        blue = startServer("blue");
+        green = startServer("green");
+        proxy = new ForwardingProxy(0, new SystemStreamLog());
+        proxy.start();
+    }
+
+    @After
+    public void tearDown() {
+        proxy.close();
+        blue.stop(0);
+        green.stop(0);
+    }
+
+    @Test
+    public void testForwardToTarget() throws IOException {
+        proxy.setTarget(blue.getAddress().getPort());
+        assertEquals("blue", get());
+        assertEquals("blue", get());
+        assertEquals(2, proxy.getConnectionCount());
+    }
+
+    @Test
+    public void testSwitchTarget() throws IOException {
+        proxy.setTarget(blue.getAddress().getPort());
+        assertEquals("blue", get());
+        proxy.setTarget(green.getAddress().getPort());
+        assertEquals("green", get());
+    }
+
+    @Test(expected = IOException.class)
+    public void testConnectionIsClosedWithoutTarget() throws IOException {
+        int port = blue.getAddress().getPort();
+        blue.stop(0);
+        proxy.setTarget(port);
+        get();
+    }
+
+    private String get() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "127.0.0.1", proxy.getPort(), "/").openConnection();
+        connection.setRequestProperty("Connection", "close");
+        connection.setReadTimeout(5000);
+        try (InputStream in = connection.getInputStream()) {
+            byte[] body = new byte[16];
+            int read = in.read(body);
+            return new String(body, 0, read, StandardCharsets.US_ASCII);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static HttpServer startServer(String name) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = name.getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalCompilerTest {
+
+    private Path root;
+    private Path sourceDirectory;
+    private Path classesDirectory;
+    private IncrementalCompiler compiler;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("incremental-compiler");
+        sourceDirectory = root.resolve("src/main/java");
+        classesDirectory = root.resolve("target/classes");
+        MavenProject project = new MavenProject();
+        project.setGroupId("org.example");
+        project.setArtifactId("app");
+        project.setVersion("1.0");
+        project.setFile(root.resolve("pom.xml").toFile());
+        project.getBuild().setOutputDirectory(classesDirectory.toString());
+        project.addCompileSourceRoot(sourceDirectory.toString());
+        compiler = new IncrementalCompiler(project, new SystemStreamLog());
+        assumeTrue(compiler.isAvailable());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        compiler.close();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCompileChangedSourceAndDependent() throws Exception {
+        write("a/A.java", "package a; public class A { public static int value() { return 1; } }");
+        write("a/B.java", "package a; public class B { public static long value() { return A.value() + 1; } }");
+        write("a/C.java", "package a; public class C { }");
+        assertTrue(compiler.compile(Arrays.asList(source("a/A.java"), source("a/B.java"), source("a/C.java")),
+                classesDirectory.toFile(), Collections.emptyList()));
+
+        // the API of A changes, B is recompiled as its dependent
+        write("a/A.java", "package a; public class A { public static long value() { return 41; } }");
+        Path stagingDirectory = root.resolve("staging");
+        assertTrue(compiler.compile(Arrays.asList(source("a/A.java"), source("a/B.java")),
+                stagingDirectory.toFile(), Collections.singletonList(classesDirectory.toFile())));
+        assertTrue(Files.isRegularFile(stagingDirectory.resolve("a/A.class")));
+        assertTrue(Files.isRegularFile(stagingDirectory.resolve("a/B.class")));
+        assertFalse(Files.exists(stagingDirectory.resolve("a/C.class")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{stagingDirectory.toUri().toURL(),
+            classesDirectory.toUri().toURL()}, null)) {
+            assertEquals(42L, loader.loadClass("a.B").getMethod("value").invoke(null));
+        }
+    }
+
+    @Test
+    public void testCompileError() throws IOException {
+        write("a/A.java", "package a; public class A { int x = \"no\"; }");
+        assertFalse(compiler.compile(Collections.singletonList(source("a/A.java")),
+                classesDirectory.toFile(), Collections.emptyList()));
+        assertFalse(Files.exists(classesDirectory.resolve("a/A.class")));
+    }
+
+    private Path source(String path) {
+        return sourceDirectory.resolve(path);
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = source(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.util.Random;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+public class LogUtilsTest {
+
+    private static final String RECORD = "[2026-10-15T10:15:30.123+0000] [Payara 6.2026.9] [%s] [] "
+            + "[fish.payara.micro.cdi] [tid: _ThreadID=1 _ThreadName=main] [timeMillis: 1792066530123] "
+            + "[levelValue: 800] %s";
+
+    @Test
+    public void testTrimLog() {
+        assertEquals("\033[97m[10:15:30.123]\033[0m  Deployed hello", LogUtils.trimLog(String.format(RECORD, "INFO", "Deployed hello")));
+        assertEquals("\033[97m[10:15:30.123]\033[0m  \033[93m[WARNING]\033[0m Slow", LogUtils.trimLog(String.format(RECORD, "WARNING", " Slow ")));
+        assertEquals("\033[97m[10:15:30.123]\033[0m  \033[91m[SEVERE]\033[0m Failed", LogUtils.trimLog(String.format(RECORD, "SEVERE", "Failed")));
+        assertEquals("Plain output", LogUtils.trimLog("Plain output"));
+    }
+
+    /**
+     * Compares the parser with the regular expression on random lines made
+     * of the tokens the expression depends on.
+     */
+    @Test
+    public void testSameResultAsPattern() {
+        String[] tokens = {"[", "]", " ", "x", "INFO", "WARNING", "SEVERE", "INF", "[levelValue: ", "800", "]",
+            "[levelValue: 900]", "[2026-10-15T10:15:30.123+0000]", "[2026-10-15T10:15:30-0100]", "[]", "\u2028"};
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(14);
+            for (int j = 0; j < length; j++) {
+                line.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertEquals(line.toString(), trim(LogUtils::trimLogWithPattern, line.toString()), trim(LogUtils::trimLog, line.toString()));
+        }
+    }
+
+    /**
+     * Reports the cost per line of the former per-line compiled expression,
+     * the precompiled expression and the parser, on a mix of records and
+     * plain lines. Only run with the benchmark profile.
+     */
+    @Test
+    public void testTrimLogBenchmark() {
+        assumeTrue(Boolean.getBoolean("payara.benchmark"));
+        String[] lines = new String[1000];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = i % 4 == 0 ? "    at org.example.Bean.method(Bean.java:" + i + ")"
+                    : String.format(RECORD, i % 3 == 0 ? "WARNING" : "INFO", "Initializing bean #" + i);
+        }
+        Pattern[] compiled = new Pattern[1];
+        LineFormatter compilePerLine = line -> {
+            compiled[0] = Pattern.compile("\\[([^\\[\\]]*)\\].*(\\[.*(INFO|WARNING|SEVERE).*\\]).*\\[levelValue\\: \\d+\\](.*)");
+            Matcher matcher = compiled[0].matcher(line);
+            return matcher.find() ? matcher.group(4) : line;
+        };
+        long[] results = {
+            measure(compilePerLine, lines),
+            measure(LogUtils::trimLogWithPattern, lines),
+            measure(LogUtils::trimLog, lines)
+        };
+        Logger.getLogger(LogUtilsTest.class.getName()).info("trimLog cost per line: compiled per line "
+                + results[0] + " ns, precompiled " + results[1] + " ns, parser " + results[2] + " ns");
+        assertTrue(results[2] < results[0]);
+    }
+
+    private static long measure(LineFormatter formatter, String[] lines) {
+        int rounds = 50;
+        long checksum = 0;
+        long startTime = 0;
+        for (int round = 0; round < rounds * 2; round++) {
+            if (round == rounds) {
+                // the first half warms up the JIT
+                startTime = System.nanoTime();
+            }
+            for (String line : lines) {
+                checksum += formatter.format(line).length();
+            }
+        }
+        long duration = System.nanoTime() - startTime;
+        return checksum == 0 ? -1 : duration / ((long) rounds * lines.length);
+    }
+
+    private static String trim(LineFormatter formatter, String line) {
+        try {
+            return formatter.format(line);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    private interface LineFormatter {
+
+        String format(String line);
+    }
+}
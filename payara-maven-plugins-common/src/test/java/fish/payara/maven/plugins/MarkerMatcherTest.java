@@ -0,0 +1,72 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class MarkerMatcherTest {
+
+    @Test
+    public void testMarkers() {
+        MarkerMatcher matcher = new MarkerMatcher("was successfully deployed", "Loading application",
+                "Exception while loading the app", "Payara Micro URLs:");
+        assertEquals(0, matcher.match("[INFO] Initializing bean"));
+        assertEquals(1, matcher.match("hello was successfully deployed in 412 milliseconds."));
+        assertEquals(2, matcher.match("Loading application [hello] at [/hello]"));
+        assertEquals(4, matcher.match("Exception while loading the app : java.lang.IllegalStateException"));
+        assertEquals(8 | 1, matcher.match("Payara Micro URLs: ... was successfully deployed"));
+    }
+
+    @Test
+    public void testOverlappingMarkers() {
+        MarkerMatcher matcher = new MarkerMatcher("he", "she", "his", "hers");
+        assertEquals(1 | 2 | 8, matcher.match("ushers"));
+        assertEquals(4, matcher.match("ahishe".substring(0, 4)));
+        assertEquals(1 | 2 | 4, matcher.match("ahishe"));
+    }
+
+    @Test
+    public void testNonAsciiMarker() {
+        MarkerMatcher matcher = new MarkerMatcher("d\u00e9ploy\u00e9", "ready");
+        assertEquals(1, matcher.match("application d\u00e9ploy\u00e9"));
+        assertEquals(0, matcher.match("application deploye \u00e9"));
+        assertEquals(2, matcher.match("ready \u00fc"));
+    }
+}
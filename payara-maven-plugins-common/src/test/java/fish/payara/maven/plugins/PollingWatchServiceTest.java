@@ -0,0 +1,142 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PollingWatchServiceTest {
+
+    private static final long INTERVAL = 50;
+
+    private Path directory;
+    private PollingWatchService watchService;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("polling-watch");
+        watchService = new PollingWatchService(INTERVAL, new SystemStreamLog());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        watchService.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSnapshotDiff() throws IOException {
+        Files.write(directory.resolve("modified.txt"), "a".getBytes());
+        Files.write(directory.resolve("deleted.txt"), "a".getBytes());
+        Files.write(directory.resolve("unchanged.txt"), "a".getBytes());
+        Files.createDirectory(directory.resolve("sub"));
+        WatchKey key = watchService.register(directory);
+        watchService.scan();
+        assertNull(watchService.poll());
+
+        Files.write(directory.resolve("created.txt"), "a".getBytes());
+        Files.write(directory.resolve("modified.txt"), "ab".getBytes());
+        Files.delete(directory.resolve("deleted.txt"));
+        Files.write(directory.resolve("sub/nested.txt"), "a".getBytes());
+        watchService.scan();
+
+        assertEquals(key, watchService.poll());
+        Map<Path, WatchEvent.Kind<?>> events = new HashMap<>();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            events.put((Path) event.context(), event.kind());
+        }
+        assertEquals(StandardWatchEventKinds.ENTRY_CREATE, events.get(Paths.get("created.txt")));
+        assertEquals(StandardWatchEventKinds.ENTRY_MODIFY, events.get(Paths.get("modified.txt")));
+        assertEquals(StandardWatchEventKinds.ENTRY_DELETE, events.get(Paths.get("deleted.txt")));
+        // only the direct entries are watched, and directories are not modified
+        assertEquals(3, events.size());
+        assertTrue(key.reset());
+
+        watchService.scan();
+        assertNull(watchService.poll());
+    }
+
+    @Test
+    public void testDeletedDirectoryCancelsKey() throws IOException {
+        Path sub = Files.createDirectory(directory.resolve("sub"));
+        WatchKey key = watchService.register(sub);
+        Files.delete(sub);
+        watchService.scan();
+        assertFalse(key.isValid());
+        assertNull(watchService.poll());
+    }
+
+    @Test
+    public void testStartedScans() throws Exception {
+        ProcessThreads threads = new ProcessThreads("polling-test");
+        watchService.register(directory);
+        watchService.start(threads);
+        Files.write(directory.resolve("created.txt"), "a".getBytes());
+        WatchKey key = watchService.poll(10, TimeUnit.SECONDS);
+        assertNotNull(key);
+        assertEquals(StandardWatchEventKinds.ENTRY_CREATE, key.pollEvents().get(0).kind());
+
+        watchService.close();
+        for (int i = 0; i < 100 && threads.getTaskCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, threads.getTaskCount());
+    }
+}
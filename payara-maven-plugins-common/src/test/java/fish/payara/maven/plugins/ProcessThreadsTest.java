@@ -0,0 +1,151 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ProcessThreadsTest {
+
+    @Test
+    public void testTaskRunsUnderItsName() throws Exception {
+        ProcessThreads threads = new ProcessThreads("owner");
+        AtomicReference<String> name = new AtomicReference<>();
+        threads.submit("task", () -> name.set(Thread.currentThread().getName())).get(10, TimeUnit.SECONDS);
+        assertEquals("owner-task", name.get());
+        awaitTaskCount(threads, 0);
+    }
+
+    @Test
+    public void testCancelUnblocksStreamReader() throws Exception {
+        ProcessThreads threads = new ProcessThreads("owner");
+        ProcessThreads other = new ProcessThreads("other");
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> otherTask = other.submit("sleeper", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        PipedOutputStream out = new PipedOutputStream();
+        PipedInputStream in = new PipedInputStream(out);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        threads.submit("pump", in, () -> {
+            started.countDown();
+            try {
+                while (in.read() != -1) {
+                }
+            } catch (IOException ignored) {
+            } finally {
+                finished.countDown();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(1, threads.getTaskCount());
+        assertTrue(ProcessThreads.getActiveCount() >= 2);
+
+        threads.cancel();
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        awaitTaskCount(threads, 0);
+        assertEquals(1, other.getTaskCount());
+
+        release.countDown();
+        otherTask.get(10, TimeUnit.SECONDS);
+        out.close();
+    }
+
+    @Test
+    public void testCancelledTaskCountedUntilItReturns() throws Exception {
+        ProcessThreads threads = new ProcessThreads("owner");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> task = threads.submit("stubborn", () -> {
+            started.countDown();
+            boolean done = false;
+            while (!done) {
+                try {
+                    done = release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                    // keeps running like a mojo ignoring interrupts
+                }
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        int active = ProcessThreads.getActiveCount();
+
+        threads.cancel();
+        assertTrue(task.isCancelled());
+        assertEquals(1, threads.getTaskCount());
+        assertTrue(ProcessThreads.getActiveCount() >= 1);
+        assertEquals(active, ProcessThreads.getActiveCount());
+
+        release.countDown();
+        awaitTaskCount(threads, 0);
+    }
+
+    @Test
+    public void testVirtualThreadsOnlyWhereAvailable() throws Exception {
+        boolean available;
+        try {
+            Thread.class.getMethod("isVirtual");
+            available = true;
+        } catch (NoSuchMethodException ex) {
+            available = false;
+        }
+        assertEquals(available, ProcessThreads.isVirtual());
+    }
+
+    private static void awaitTaskCount(ProcessThreads threads, int count) throws InterruptedException {
+        // the task is removed right after its waiters are released
+        for (int i = 0; i < 100 && threads.getTaskCount() != count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, threads.getTaskCount());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReactorModulesTest {
+
+    private Path root;
+    private MavenProject parent;
+    private MavenProject web;
+    private MavenProject api;
+    private MavenProject service;
+    private MavenProject tools;
+    private ReactorModules modules;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("reactor-modules");
+        parent = createProject("parent", "pom", root);
+        parent.setExecutionRoot(true);
+        api = createProject("api", "jar", root.resolve("api"));
+        service = createProject("service", "jar", root.resolve("service"), dependency("api", null));
+        tools = createProject("tools", "jar", root.resolve("tools"));
+        web = createProject("web", "war", root.resolve("web"),
+                dependency("service", null), dependency("tools", "test"));
+        MavenSession session = new MavenSession(null, new DefaultMavenExecutionRequest(),
+                new DefaultMavenExecutionResult(), Arrays.asList(parent, api, service, tools, web));
+        modules = new ReactorModules(web, session, root.resolve("web/target/web").toFile(), new SystemStreamLog());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testDependencyClosureInReactorOrder() {
+        assertFalse(modules.isEmpty());
+        assertEquals(Arrays.asList(api, service), modules.getModules());
+        assertEquals(service, modules.getModule(root.resolve("service/src/main/java/S.java")));
+        assertNull(modules.getModule(root.resolve("tools/src/main/java/T.java")));
+    }
+
+    @Test
+    public void testBuildAlsoMakesUnchangedDependencies() {
+        InvocationRequest request = modules.createRequest(Collections.singleton(service));
+        assertEquals(parent.getFile(), request.getPomFile());
+        assertEquals(Collections.singletonList("org.example:service"), request.getProjects());
+        assertTrue(request.isAlsoMake());
+        assertEquals("compile", request.getGoals().get(0));
+    }
+
+    @Test
+    public void testDeployReplacesModuleJar() throws IOException {
+        Path classes = Files.createDirectories(root.resolve("api/target/classes/a"));
+        Files.write(classes.resolve("A.class"), new byte[]{1, 2, 3});
+        Path lib = Files.createDirectories(root.resolve("web/target/web/WEB-INF/lib"));
+        Files.write(lib.resolve("api-1.0.jar"), new byte[0]);
+
+        modules.deploy(api);
+        List<String> entries;
+        try (JarFile jar = new JarFile(lib.resolve("api-1.0.jar").toFile())) {
+            assertNotNull(jar.getManifest());
+            entries = jar.stream().map(entry -> entry.getName()).collect(Collectors.toList());
+        }
+        assertTrue(entries.contains("a/A.class"));
+        try (Stream<Path> files = Files.list(lib)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static MavenProject createProject(String artifactId, String packaging, Path basedir, Dependency... dependencies) throws IOException {
+        Files.createDirectories(basedir);
+        MavenProject project = new MavenProject();
+        project.setGroupId("org.example");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging(packaging);
+        project.setFile(new File(basedir.toFile(), "pom.xml"));
+        project.getBuild().setDirectory(basedir.resolve("target").toString());
+        project.getBuild().setOutputDirectory(basedir.resolve("target/classes").toString());
+        project.getModel().setDependencies(new ArrayList<>(Arrays.asList(dependencies)));
+        return project;
+    }
+
+    private static Dependency dependency(String artifactId, String scope) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("org.example");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0");
+        dependency.setScope(scope);
+        return dependency;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ReadinessProbeTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int readyAfter;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/health", exchange -> {
+            int status = requests.incrementAndGet() > readyAfter ? 200 : 503;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private URL healthUrl() throws IOException {
+        return new URL("http", "127.0.0.1", server.getAddress().getPort(), "/health");
+    }
+
+    @Test
+    public void testReadyAfterUnavailable() throws Exception {
+        readyAfter = 3;
+        ReadinessProbe probe = new ReadinessProbe(healthUrl(), 10_000, new SystemStreamLog());
+        assertTrue(probe.await(() -> true) >= 0);
+        assertEquals(4, probe.getAttempts());
+        assertEquals(200, probe.getLastStatus());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        readyAfter = Integer.MAX_VALUE;
+        ReadinessProbe probe = new ReadinessProbe(healthUrl(), 200, new SystemStreamLog());
+        assertEquals(-1, probe.await(() -> true));
+        assertEquals(503, probe.getLastStatus());
+        assertTrue(probe.getAttempts() > 1);
+    }
+
+    @Test
+    public void testStoppedWhenProcessExits() throws Exception {
+        ReadinessProbe probe = new ReadinessProbe(healthUrl(), 10_000, new SystemStreamLog());
+        assertEquals(-1, probe.await(() -> false));
+        assertEquals(0, probe.getAttempts());
+    }
+
+    @Test
+    public void testBackoff() {
+        // unreachable: doubled up to the maximum
+        assertEquals(2 * ReadinessProbe.INITIAL_DELAY, ReadinessProbe.nextDelay(ReadinessProbe.INITIAL_DELAY, -1, -1));
+        assertEquals(ReadinessProbe.MAX_DELAY, ReadinessProbe.nextDelay(ReadinessProbe.MAX_DELAY, -1, -1));
+        // first answer of the server: back to the initial delay
+        assertEquals(ReadinessProbe.INITIAL_DELAY, ReadinessProbe.nextDelay(ReadinessProbe.MAX_DELAY, 503, -1));
+        assertEquals(4 * ReadinessProbe.INITIAL_DELAY, ReadinessProbe.nextDelay(2 * ReadinessProbe.INITIAL_DELAY, 503, 503));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedUrl() throws Exception {
+        new ReadinessProbe(new URL("file:/tmp/health"), 1_000, new SystemStreamLog());
+    }
+}
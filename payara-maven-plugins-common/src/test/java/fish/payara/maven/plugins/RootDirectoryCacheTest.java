@@ -0,0 +1,173 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RootDirectoryCacheTest {
+
+    private static final String NAME = "payara-micro-6.2026.9";
+    private static final String KEY = "0123456789abcdef";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("root-directory");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testUnpackThenReuse() throws IOException {
+        RootDirectoryCache cache = launch(false);
+        assertEquals(-1, cache.startupMeasured(5000));
+        cache.snapshot();
+        cache.release();
+
+        cache = launch(true);
+        Path root = cache.getRootDirectory();
+        assertTrue(Files.exists(root.resolve("config/domain.xml")));
+        assertTrue(Files.exists(root.resolve("osgi-cache/bundle.jar")));
+        assertEquals(2000, cache.startupMeasured(3000));
+        cache.release();
+    }
+
+    @Test
+    public void testChangedFileIsUnpackedAgain() throws IOException {
+        RootDirectoryCache cache = launch(false);
+        cache.snapshot();
+        cache.release();
+        Files.write(cache.getRootDirectory().resolve("config/domain.xml"), "<domain/>".getBytes());
+
+        cache = launch(false);
+        assertEquals("<domain></domain>", new String(Files.readAllBytes(cache.getRootDirectory().resolve("config/domain.xml"))));
+        cache.release();
+    }
+
+    @Test
+    public void testTouchedFileIsReused() throws IOException {
+        RootDirectoryCache cache = launch(false);
+        cache.snapshot();
+        cache.release();
+        Path domain = cache.getRootDirectory().resolve("config/domain.xml");
+        Files.setLastModifiedTime(domain, FileTime.fromMillis(Files.getLastModifiedTime(domain).toMillis() - 60000));
+        Files.write(cache.getRootDirectory().resolve("logs/server.log"), "restarted".getBytes());
+
+        launch(true).release();
+    }
+
+    @Test
+    public void testLaunchWithoutSnapshotIsNotTrusted() throws IOException {
+        RootDirectoryCache cache = launch(false);
+        cache.snapshot();
+        cache.release();
+        launch(true).release();
+
+        launch(false).release();
+    }
+
+    @Test
+    public void testLockedRootDirectory() throws IOException {
+        RootDirectoryCache first = new RootDirectoryCache(directory, new SystemStreamLog());
+        first.select(NAME, KEY);
+        assertTrue(first.lock());
+
+        RootDirectoryCache second = new RootDirectoryCache(directory, new SystemStreamLog());
+        second.select(NAME, KEY);
+        assertFalse(second.lock());
+        first.release();
+        assertTrue(second.lock());
+        second.release();
+    }
+
+    @Test
+    public void testStaleRootDirectoriesAreDeleted() throws IOException {
+        Path stale = Files.createDirectories(directory.resolve(NAME + "-fedcba9876543210/config"));
+        Path staleManifest = Files.write(directory.resolve(NAME + "-fedcba9876543210.manifest"), new byte[0]);
+        Path otherVersion = Files.createDirectories(directory.resolve("payara-micro-6.2026.10-fedcba9876543210"));
+        RootDirectoryCache cache = new RootDirectoryCache(directory, new SystemStreamLog());
+        cache.select(NAME, KEY);
+        assertFalse(Files.exists(stale.getParent()));
+        assertFalse(Files.exists(staleManifest));
+        assertTrue(Files.exists(otherVersion));
+    }
+
+    /**
+     * Selects and prepares the root directory, then unpacks it as Payara
+     * Micro would if it was not reused.
+     */
+    private RootDirectoryCache launch(boolean expectReused) throws IOException {
+        RootDirectoryCache cache = new RootDirectoryCache(directory, new SystemStreamLog());
+        cache.select(NAME, KEY);
+        assertTrue(cache.lock());
+        assertEquals(expectReused, cache.prepare());
+        Path root = cache.getRootDirectory();
+        if (expectReused) {
+            assertFalse(Files.exists(root.resolve("applications")));
+        } else {
+            assertFalse(Files.exists(root));
+            Files.createDirectories(root.resolve("config"));
+            Files.write(root.resolve("config/domain.xml"), "<domain></domain>".getBytes());
+            Files.createDirectories(root.resolve("osgi-cache"));
+            Files.write(root.resolve("osgi-cache/bundle.jar"), new byte[]{1, 2, 3});
+        }
+        Files.createDirectories(root.resolve("applications/app"));
+        Files.createDirectories(root.resolve("logs"));
+        Files.write(root.resolve("logs/server.log"), "started".getBytes());
+        return cache;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaleOutputsTest {
+
+    private Path basedir;
+    private Path sourceRoot;
+    private Path resourceDirectory;
+    private Path filteredDirectory;
+    private Path classesDirectory;
+    private Path webappDirectory;
+    private StaleOutputs staleOutputs;
+
+    @Before
+    public void setUp() throws IOException {
+        basedir = Files.createTempDirectory("stale-outputs");
+        sourceRoot = basedir.resolve("src/main/java");
+        resourceDirectory = basedir.resolve("src/main/resources");
+        filteredDirectory = basedir.resolve("src/main/filtered");
+        classesDirectory = basedir.resolve("target/classes");
+        webappDirectory = basedir.resolve("target/app");
+        MavenProject project = new MavenProject();
+        project.setFile(new File(basedir.toFile(), "pom.xml"));
+        project.getBuild().setDirectory(basedir.resolve("target").toString());
+        project.getBuild().setOutputDirectory(classesDirectory.toString());
+        project.getBuild().setTestOutputDirectory(basedir.resolve("target/test-classes").toString());
+        project.addCompileSourceRoot(sourceRoot.toString());
+        project.getBuild().addResource(resource(resourceDirectory, false));
+        project.getBuild().addResource(resource(filteredDirectory, true));
+        staleOutputs = new StaleOutputs(project, new StaticResourceSync(project, webappDirectory.toFile()));
+        write(sourceRoot.resolve("a/A.java"), "package a; public class A { class Inner { } Object o = new Object() { }; }");
+        write(sourceRoot.resolve("a/B.java"), "package a; public class B { }");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(basedir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testDeletedSourceRemovesNestedAndAnonymousClasses() throws IOException {
+        compile();
+        ClassDependencyGraph graph = new ClassDependencyGraph(classesDirectory, new SystemStreamLog());
+        graph.refresh();
+        Path deleted = sourceRoot.resolve("a/A.java");
+        Files.delete(deleted);
+        assertTrue(staleOutputs.isMainSource(deleted));
+        assertTrue(staleOutputs.isMapped(deleted, graph));
+
+        assertEquals(3, staleOutputs.remove(deleted, graph, Collections.singletonList(classesDirectory)));
+        assertFalse(Files.exists(classesDirectory.resolve("a/A.class")));
+        assertFalse(Files.exists(classesDirectory.resolve("a/A$Inner.class")));
+        assertFalse(Files.exists(classesDirectory.resolve("a/A$1.class")));
+        assertTrue(Files.exists(classesDirectory.resolve("a/B.class")));
+    }
+
+    @Test
+    public void testDeletedSourceWithoutDebugInfoNeedsClean() throws IOException {
+        compile("-g:none");
+        ClassDependencyGraph graph = new ClassDependencyGraph(classesDirectory, new SystemStreamLog());
+        graph.refresh();
+        Path deleted = sourceRoot.resolve("a/A.java");
+        Files.delete(deleted);
+        // the nested and anonymous classes cannot be told apart from the others
+        assertFalse(staleOutputs.isMapped(deleted, graph));
+        assertFalse(staleOutputs.isMapped(deleted, null));
+    }
+
+    @Test
+    public void testDeletedResourceRemovesBothCopies() throws IOException {
+        Path deleted = resourceDirectory.resolve("META-INF/app.properties");
+        Path copy = classesDirectory.resolve("META-INF/app.properties");
+        Path exploded = webappDirectory.resolve("WEB-INF/classes/META-INF/app.properties");
+        write(copy, "key=value");
+        write(exploded, "key=value");
+        assertFalse(staleOutputs.isMainSource(deleted));
+        assertTrue(staleOutputs.isMapped(deleted, null));
+
+        assertEquals(2, staleOutputs.remove(deleted, null, Collections.emptyList()));
+        assertFalse(Files.exists(copy));
+        assertFalse(Files.exists(exploded));
+    }
+
+    @Test
+    public void testDeletedFilteredResourceNeedsClean() throws IOException {
+        Path deleted = filteredDirectory.resolve("app.properties");
+        assertFalse(staleOutputs.isMapped(deleted, null));
+    }
+
+    @Test
+    public void testDeletedWebappFileRemovesExplodedCopy() throws IOException {
+        Path deleted = basedir.resolve("src/main/webapp/css/site.css");
+        Path exploded = webappDirectory.resolve("css/site.css");
+        write(exploded, "body { }");
+        assertTrue(staleOutputs.isMapped(deleted, null));
+
+        assertEquals(1, staleOutputs.remove(deleted, null, Collections.emptyList()));
+        assertFalse(Files.exists(exploded));
+        assertTrue(Files.isDirectory(webappDirectory.resolve("css")));
+    }
+
+    private static Resource resource(Path directory, boolean filtering) {
+        Resource resource = new Resource();
+        resource.setDirectory(directory.toString());
+        resource.setFiltering(filtering);
+        return resource;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes());
+    }
+
+    private void compile(String... options) throws IOException {
+        Files.createDirectories(classesDirectory);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> args = new ArrayList<>(Arrays.asList(options));
+        args.addAll(Arrays.asList("-d", classesDirectory.toString(),
+                sourceRoot.resolve("a/A.java").toString(), sourceRoot.resolve("a/B.java").toString()));
+        assertEquals(0, compiler.run(null, null, null, args.toArray(new String[0])));
+    }
+}
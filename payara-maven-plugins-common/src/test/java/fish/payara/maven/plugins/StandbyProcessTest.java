@@ -0,0 +1,109 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class StandbyProcessTest {
+
+    @Test
+    public void testReplayOutputAfterExit() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        StandbyProcess standby = new StandbyProcess(Arrays.asList(java, "-version"), 8081, "key", "version",
+                new SystemStreamLog());
+        standby.start();
+        assertEquals(0, standby.getProcess().waitFor());
+        assertFalse(standby.awaitReady(1000));
+        assertTrue(readAll(standby.getErrorStream()).contains("version"));
+        assertEquals("", readAll(standby.getInputStream()));
+    }
+
+    @Test
+    public void testReplayStream() throws IOException {
+        StandbyProcess.ReplayStream stream = new StandbyProcess.ReplayStream();
+        write(stream, "first\n");
+        write(stream, "second\n");
+        stream.finish();
+        assertEquals("first\nsecond\n", readAll(stream));
+    }
+
+    @Test
+    public void testOldestLinesAreDropped() throws IOException {
+        StandbyProcess.ReplayStream stream = new StandbyProcess.ReplayStream(16);
+        write(stream, "line 1\n");
+        write(stream, "line 2\n");
+        write(stream, "line 3\n");
+        stream.finish();
+        assertEquals("line 2\nline 3\n", readAll(stream));
+    }
+
+    @Test
+    public void testClosedStreamDiscardsOutput() throws IOException {
+        StandbyProcess.ReplayStream stream = new StandbyProcess.ReplayStream();
+        write(stream, "first\n");
+        stream.close();
+        write(stream, "second\n");
+        assertEquals(-1, stream.read());
+    }
+
+    private static void write(StandbyProcess.ReplayStream stream, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        stream.write(bytes, 0, bytes.length);
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[5];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.logging.Logger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class StreamingMatcherTest {
+
+    private static final String READY_MESSAGE = "ready in";
+
+    @Test
+    public void testMatchInLine() {
+        StreamingMatcher matcher = new StreamingMatcher(READY_MESSAGE);
+        assertFalse(matcher.feed("[INFO] Loading application"));
+        assertTrue(matcher.feed("[INFO] Payara Micro 6 ready in 4,211 (ms)"));
+        assertTrue(matcher.feed("[INFO] later line"));
+    }
+
+    @Test
+    public void testMatchAcrossPieces() {
+        StreamingMatcher matcher = new StreamingMatcher(READY_MESSAGE);
+        assertFalse(matcher.feed("... rea"));
+        assertTrue(matcher.feed("dy in 42 ms"));
+    }
+
+    @Test
+    public void testPartialMatchFallsBack() {
+        StreamingMatcher matcher = new StreamingMatcher("aab");
+        assertTrue(matcher.feed("aaab"));
+        matcher = new StreamingMatcher("abab");
+        assertFalse(matcher.feed("abaaba"));
+        assertTrue(matcher.feed("b"));
+    }
+
+    @Test
+    public void testReset() {
+        StreamingMatcher matcher = new StreamingMatcher(READY_MESSAGE);
+        assertFalse(matcher.feed("ready"));
+        matcher.reset();
+        assertFalse(matcher.feed(" in"));
+        assertFalse(matcher.isFound());
+    }
+
+    /**
+     * Feeds synthetic log lines through the loop of the log pump of the start
+     * mojos, with the ready message on the last line. The benchmark profile
+     * runs it with one million lines and reports the time taken.
+     */
+    @Test
+    public void testPumpBenchmark() throws IOException {
+        boolean benchmark = Boolean.getBoolean("payara.benchmark");
+        int lines = benchmark ? 1_000_000 : 10_000;
+        StreamingMatcher matcher = new StreamingMatcher(READY_MESSAGE);
+        PrintStream printStream = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        long startTime = System.nanoTime();
+        int count = 0;
+        boolean found = false;
+        try (BufferedReader br = new BufferedReader(new SyntheticLog(lines))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                count++;
+                printStream.println(line);
+                if (matcher.feed(line)) {
+                    found = true;
+                    break;
+                }
+            }
+        }
+        long duration = (System.nanoTime() - startTime) / 1_000_000;
+        if (benchmark) {
+            Logger.getLogger(StreamingMatcherTest.class.getName()).info("Pumped " + count + " log lines in " + duration + " ms");
+        }
+        assertTrue(found);
+        assertEquals(lines, count);
+    }
+
+    private static class SyntheticLog extends Reader {
+
+        private final int lines;
+        private int line;
+        private String current = "";
+        private int position;
+
+        SyntheticLog(int lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == current.length()) {
+                if (line == lines) {
+                    return -1;
+                }
+                line++;
+                current = line == lines
+                        ? "[2026-10-15T10:00:00.000+0000] [] [INFO] [] [fish.payara.micro] [levelValue: 800] Payara Micro ready in 4211 (ms)\n"
+                        : "[2026-10-15T10:00:00.000+0000] [] [INFO] [] [org.example.App] [levelValue: 800] Initializing bean #" + line + " (reading config)\n";
+                position = 0;
+            }
+            int count = Math.min(length, current.length() - position);
+            current.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
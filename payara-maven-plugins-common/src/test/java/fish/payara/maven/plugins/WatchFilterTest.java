@@ -0,0 +1,136 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WatchFilterTest {
+
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("watch-filter");
+        Files.write(root.resolve(".gitignore"), Arrays.asList(
+                "# generated",
+                "frontend/dist/",
+                "*.log",
+                "!keep.log",
+                "/generated"
+        ));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(root.resolve(".gitignore"));
+        Files.delete(root);
+    }
+
+    @Test
+    public void testDefaultExclusions() {
+        WatchFilter filter = newFilter(Collections.emptyList(), Collections.emptyList());
+        assertTrue(filter.isExcludedDirectory(root.resolve("target")));
+        assertTrue(filter.isExcludedDirectory(root.resolve("target/classes")));
+        assertTrue(filter.isExcludedDirectory(root.resolve(".git")));
+        assertTrue(filter.isExcludedDirectory(root.resolve("frontend/node_modules")));
+        assertTrue(filter.isExcludedFile(root.resolve(".project")));
+        assertTrue(filter.isExcludedFile(root.resolve("src/main/java/A.java~")));
+        assertTrue(filter.isExcludedFile(root.resolve("src/main/java/#A.java#")));
+        assertTrue(filter.isExcludedFile(root.resolve("src/main/java/.#A.java")));
+        assertFalse(filter.isExcludedDirectory(root));
+        assertFalse(filter.isExcludedDirectory(root.resolve("src/main/java")));
+        assertFalse(filter.isExcludedFile(root.resolve("src/main/java/A.java")));
+        assertFalse(filter.isExcludedFile(root.resolve("pom.xml")));
+    }
+
+    @Test
+    public void testGitignore() {
+        WatchFilter filter = newFilter(Collections.emptyList(), Collections.emptyList());
+        assertTrue(filter.isExcludedDirectory(root.resolve("frontend/dist")));
+        assertFalse(filter.isExcludedFile(root.resolve("frontend/dist")));
+        assertTrue(filter.isExcludedFile(root.resolve("server.log")));
+        assertTrue(filter.isExcludedFile(root.resolve("logs/server.log")));
+        assertFalse(filter.isExcludedFile(root.resolve("logs/keep.log")));
+        assertTrue(filter.isExcludedDirectory(root.resolve("generated")));
+        assertFalse(filter.isExcludedDirectory(root.resolve("src/generated")));
+    }
+
+    @Test
+    public void testGitignoreSyntaxNotInGlobs() throws IOException {
+        Files.write(root.resolve(".gitignore"), Arrays.asList(
+                "build{1,2}",
+                "[unbalanced",
+                "\\!important.txt",
+                "draft[^0-9].md",
+                "trailing\\"
+        ));
+        WatchFilter filter = newFilter(Collections.emptyList(), Arrays.asList("{broken"));
+        assertTrue(filter.isExcludedFile(root.resolve("build{1,2}")));
+        assertFalse(filter.isExcludedFile(root.resolve("build1")));
+        assertTrue(filter.isExcludedFile(root.resolve("docs/!important.txt")));
+        assertTrue(filter.isExcludedFile(root.resolve("draftX.md")));
+        assertFalse(filter.isExcludedFile(root.resolve("draft1.md")));
+        assertFalse(filter.isExcludedFile(root.resolve("unbalanced")));
+        assertFalse(filter.isExcludedFile(root.resolve("src/main/java/A.java")));
+    }
+
+    @Test
+    public void testUserIncludesAndExcludes() {
+        WatchFilter filter = newFilter(Arrays.asList("src/**", "pom.xml"), Arrays.asList("src/main/webapp/vendor"));
+        assertTrue(filter.isExcludedDirectory(root.resolve("src/main/webapp/vendor")));
+        assertFalse(filter.isExcludedFile(root.resolve("src/main/java/A.java")));
+        assertFalse(filter.isExcludedFile(root.resolve("pom.xml")));
+        assertTrue(filter.isExcludedFile(root.resolve("README.md")));
+    }
+
+    private WatchFilter newFilter(List<String> includes, List<String> excludes) {
+        return new WatchFilter(root, root.resolve("target"), includes, excludes, new SystemStreamLog());
+    }
+}
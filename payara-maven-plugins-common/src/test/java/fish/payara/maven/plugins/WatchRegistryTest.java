@@ -0,0 +1,124 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WatchRegistryTest {
+
+    private static final long INTERVAL = 50;
+
+    private Path parent;
+    private Path module;
+    private final WatchRegistry registry = new WatchRegistry();
+
+    @Before
+    public void setUp() throws IOException {
+        parent = Files.createTempDirectory("watch-registry");
+        module = Files.createDirectories(parent.resolve("module"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(parent)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testOverlappingRootsAreRegisteredOnce() throws Exception {
+        WatchRegistry.ProjectWatchService parentWatch = watch(parent, parent, module);
+        WatchRegistry.ProjectWatchService moduleWatch = watch(module, module);
+        assertEquals(2, registry.getDirectoryCount());
+
+        moduleWatch.close();
+        assertEquals(2, registry.getDirectoryCount());
+        parentWatch.close();
+        assertEquals(0, registry.getDirectoryCount());
+    }
+
+    @Test
+    public void testEventsAreDispatchedToOwner() throws Exception {
+        WatchRegistry.ProjectWatchService parentWatch = watch(parent, parent, module);
+        WatchRegistry.ProjectWatchService moduleWatch = watch(module, module);
+
+        Files.write(module.resolve("Module.java"), new byte[1]);
+        assertEvent(moduleWatch, module, "Module.java");
+        Files.write(parent.resolve("pom.xml"), new byte[1]);
+        assertEvent(parentWatch, parent, "pom.xml");
+        assertNull(moduleWatch.poll(INTERVAL * 4, TimeUnit.MILLISECONDS));
+
+        moduleWatch.close();
+        Files.write(module.resolve("Other.java"), new byte[1]);
+        assertEvent(parentWatch, module, "Other.java");
+        parentWatch.close();
+    }
+
+    private WatchRegistry.ProjectWatchService watch(Path root, Path... directories) throws IOException {
+        WatchRegistry.ProjectWatchService watchService = registry.newPollingWatchService(INTERVAL, new SystemStreamLog());
+        watchService.addRoot(root);
+        for (Path directory : directories) {
+            watchService.register(directory);
+        }
+        return watchService;
+    }
+
+    private static void assertEvent(WatchRegistry.ProjectWatchService watchService, Path directory, String name) throws InterruptedException {
+        WatchKey key = watchService.poll(10, TimeUnit.SECONDS);
+        assertNotNull(key);
+        assertEquals(directory, key.watchable());
+        WatchEvent<?> event = key.pollEvents().get(0);
+        assertEquals(name, event.context().toString());
+        key.reset();
+    }
+}
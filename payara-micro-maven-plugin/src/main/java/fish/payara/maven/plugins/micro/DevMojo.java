@@ -45,13 +45,14 @@ import java.util.logging.Logger;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
 /**
  * Run mojo that executes payara-micro in dev mode
  *
  * @author Gaurav Gupta
  */
-@Mojo(name = "dev")
+@Mojo(name = "dev", requiresDependencyResolution = ResolutionScope.COMPILE)
 public class DevMojo extends StartMojo {
 
     @Override
@@ -70,6 +71,12 @@ public class DevMojo extends StartMojo {
         if (trimLog == null) {
             trimLog = true;
         }
+        if (inProcessCompile == null) {
+            inProcessCompile = true;
+        }
+        if (warmBuild == null) {
+            warmBuild = true;
+        }
         super.execute();
     }
 }
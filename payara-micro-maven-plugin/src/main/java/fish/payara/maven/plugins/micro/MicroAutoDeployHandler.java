@@ -40,6 +40,7 @@ package fish.payara.maven.plugins.micro;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.apache.maven.plugin.MojoExecutionException;
 import fish.payara.maven.plugins.AutoDeployHandler;
@@ -61,11 +62,13 @@ public class MicroAutoDeployHandler extends AutoDeployHandler {
     }
 
     @Override
-    public void reload(boolean rebootRequired) {
+    public void reload(boolean rebootRequired, Collection<Source> changes) {
         if (rebootRequired) {
             if (start.getMicroProcess().isAlive()) {
                 WebDriverFactory.updateTitle("Restarting", project, start.getDriver(), log);
-                start.getMicroProcess().destroy();
+                if (!start.isStandbyEnabled() || !start.swapToStandby()) {
+                    start.getMicroProcess().destroy();
+                }
             }
         } else {
             WebDriverFactory.updateTitle(RELOADING, project, start.getDriver(), log);
@@ -79,7 +82,7 @@ public class MicroAutoDeployHandler extends AutoDeployHandler {
                 Path rootPath = project.getBasedir().toPath();
                 List<String> sourcesChanged = new ArrayList<>();
                 reloadMojo.setHotDeploy(start.hotDeploy);
-                for (Source source : sourceUpdatedPending) {
+                for (Source source : changes) {
                     String extension = source.getPath().toString().substring(source.getPath().toString().lastIndexOf('.') + 1);
                     if (extension.equals("xml") || extension.equals("properties")) {
                         reloadMojo.setMetadataChanged(true);
@@ -0,0 +1,360 @@
+/*
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/master/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.maven.plugins.micro;
+
+import fish.payara.maven.plugins.AsyncConsoleSink;
+import fish.payara.maven.plugins.LogUtils;
+import fish.payara.maven.plugins.ProcessThreads;
+import fish.payara.maven.plugins.StreamingMatcher;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.maven.plugin.logging.Log;
+
+import static fish.payara.maven.plugins.micro.Configuration.MICRO_READY_MESSAGE;
+
+/**
+ * Local cluster of Payara Micro instances which deploy the same application.
+ * Each instance gets its own HTTP, Hazelcast and debug ports and instance
+ * name, and
+ * its output is written to the console with the name of the instance as
+ * prefix. The instances start in parallel, and the topology of the ready
+ * cluster is written to a properties file so that tests can target every
+ * instance.
+ */
+class MicroCluster {
+
+    static final String TOPOLOGY_FILE = "payara-cluster.properties";
+    // one stream pump per instance
+    static final int MAX_INSTANCES = ProcessThreads.MAX_THREADS / 2;
+    static final int DEFAULT_HTTP_PORT = 8080;
+    static final int DEFAULT_HAZELCAST_PORT = 6900;
+    private static final String HTTP_PORT = "--port";
+    private static final String SSL_PORT = "--sslport";
+    private static final String HAZELCAST_PORT = "--hzport";
+    private static final String INSTANCE_NAME = "--name";
+    private static final String CLUSTER_NAME = "--clustername";
+    private static final String ROOT_DIR = "--rootdir";
+    private static final int POLL_INTERVAL = 100;
+    private static final Pattern DEBUG_ADDRESS = Pattern.compile("^((?:-agentlib:jdwp=|-Xrunjdwp:).*address=(?:[^,]*:)?)(\\d+)(.*)$");
+
+    private final String name;
+    private final Log log;
+    private final List<Instance> instances = new ArrayList<>();
+
+    MicroCluster(String name, Log log) {
+        this.name = name;
+        this.log = log;
+    }
+
+    /**
+     * Allocates the ports of the instances, from the given ports upwards,
+     * skipping the ports in use.
+     *
+     * @param args the command of a single instance
+     * @param count the number of instances
+     */
+    void configure(List<String> args, int count, int httpPort, int hazelcastPort) throws IOException {
+        Set<Integer> allocated = new HashSet<>();
+        int sslPort = getPortOption(args, SSL_PORT);
+        String rootDir = getOption(args, ROOT_DIR);
+        int nextHttpPort = httpPort;
+        int nextHazelcastPort = hazelcastPort;
+        int nextSslPort = sslPort;
+        int debugIndex = getDebugOption(args);
+        int nextDebugPort = debugIndex >= 0 ? getDebugPort(args.get(debugIndex)) : -1;
+        for (int i = 1; i <= count; i++) {
+            Instance instance = new Instance(name + '-' + i);
+            instance.httpPort = nextHttpPort = findFreePort(nextHttpPort, allocated);
+            instance.hazelcastPort = nextHazelcastPort = findFreePort(nextHazelcastPort, allocated);
+            List<String> command = new ArrayList<>(args);
+            setOption(command, HTTP_PORT, Integer.toString(instance.httpPort));
+            setOption(command, HAZELCAST_PORT, Integer.toString(instance.hazelcastPort));
+            if (sslPort > 0) {
+                instance.sslPort = nextSslPort = findFreePort(nextSslPort, allocated);
+                setOption(command, SSL_PORT, Integer.toString(instance.sslPort));
+            }
+            if (debugIndex >= 0) {
+                // a shared JDWP port would fail every instance but the first
+                instance.debugPort = nextDebugPort = findFreePort(nextDebugPort, allocated);
+                command.set(debugIndex, setDebugPort(args.get(debugIndex), instance.debugPort));
+            }
+            if (rootDir != null) {
+                setOption(command, ROOT_DIR, rootDir + File.separator + instance.name);
+            }
+            setOption(command, INSTANCE_NAME, instance.name);
+            setOption(command, CLUSTER_NAME, name);
+            instance.command = command;
+            instances.add(instance);
+        }
+    }
+
+    /**
+     * Starts all instances, and writes their output to the console.
+     */
+    void start(ProcessThreads threads, AsyncConsoleSink console, boolean trimLog) throws IOException {
+        for (Instance instance : instances) {
+            log.info("Starting Payara Micro instance " + instance.name + " with the arguments: " + instance.command);
+            instance.startTime = System.nanoTime();
+            instance.process = new ProcessBuilder(instance.command).redirectErrorStream(true).start();
+            InputStream in = instance.process.getInputStream();
+            String prefix = "[" + instance.name + "] ";
+            threads.submit("stream", in, () -> {
+                StreamingMatcher readyMatcher = new StreamingMatcher(MICRO_READY_MESSAGE);
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(in))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        console.println(prefix + (trimLog ? LogUtils.trimLog(line) : line));
+                        if (instance.ready.getCount() > 0 && readyMatcher.feed(line)) {
+                            instance.readyTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - instance.startTime);
+                            instance.ready.countDown();
+                        }
+                    }
+                } catch (IOException ex) {
+                    // the process ended or the stream was closed
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for the instances, which start concurrently, to become ready.
+     *
+     * @param timeout the maximum time (in milliseconds) to wait for all
+     * instances
+     * @return false if an instance ended or did not become ready in time
+     */
+    boolean awaitReady(long timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (Instance instance : instances) {
+            while (!instance.ready.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (!instance.process.isAlive()) {
+                    log.error("Payara Micro instance " + instance.name + " ended with exit code "
+                            + instance.process.exitValue() + " before it was ready");
+                    return false;
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    log.error("Payara Micro instance " + instance.name + " did not become ready in " + timeout + " ms");
+                    return false;
+                }
+            }
+        }
+        for (Instance instance : instances) {
+            log.info("Payara Micro instance " + instance.name + " ready in " + instance.readyTime
+                    + " ms on HTTP port " + instance.httpPort + " and Hazelcast port " + instance.hazelcastPort
+                    + (instance.debugPort > 0 ? ", debug port " + instance.debugPort : ""));
+        }
+        log.info("Payara Micro cluster " + name + " of " + instances.size() + " instances ready in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return true;
+    }
+
+    /**
+     * Writes the name, process ID, ports and URL of each instance.
+     *
+     * @param file the topology file
+     * @param contextRoot the context root of the application, e.g. /app
+     */
+    void writeTopology(Path file, String contextRoot) throws IOException {
+        Properties topology = new Properties();
+        topology.setProperty("cluster.name", name);
+        topology.setProperty("instances", Integer.toString(instances.size()));
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < instances.size(); i++) {
+            Instance instance = instances.get(i);
+            String prefix = "instance." + (i + 1) + '.';
+            String url = "http://localhost:" + instance.httpPort + contextRoot;
+            urls.add(url);
+            topology.setProperty(prefix + "name", instance.name);
+            topology.setProperty(prefix + "pid", Long.toString(instance.process.pid()));
+            topology.setProperty(prefix + "http.port", Integer.toString(instance.httpPort));
+            topology.setProperty(prefix + "hazelcast.port", Integer.toString(instance.hazelcastPort));
+            if (instance.sslPort > 0) {
+                topology.setProperty(prefix + "ssl.port", Integer.toString(instance.sslPort));
+            }
+            if (instance.debugPort > 0) {
+                topology.setProperty(prefix + "debug.port", Integer.toString(instance.debugPort));
+            }
+            topology.setProperty(prefix + "url", url);
+            topology.setProperty(prefix + "ready.time", Long.toString(instance.readyTime));
+        }
+        topology.setProperty("urls", String.join(",", urls));
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            topology.store(out, "Payara Micro cluster");
+        }
+        log.info("Payara Micro cluster topology written to " + file);
+    }
+
+    /**
+     * Waits for all instances to end.
+     */
+    void waitFor() throws InterruptedException {
+        for (Instance instance : instances) {
+            instance.process.waitFor();
+        }
+    }
+
+    /**
+     * Ends all instances, and forcibly those which do not end within a
+     * minute.
+     */
+    void stop() {
+        for (Instance instance : instances) {
+            if (instance.process != null) {
+                instance.process.destroy();
+            }
+        }
+        for (Instance instance : instances) {
+            if (instance.process != null) {
+                try {
+                    instance.process.waitFor(1, TimeUnit.MINUTES);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    instance.process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the first port from the given one which is free and not
+     * allocated to another instance
+     */
+    private static int findFreePort(int from, Set<Integer> allocated) throws IOException {
+        for (int port = from; port <= 65535; port++) {
+            if (!allocated.contains(port) && isFree(port)) {
+                allocated.add(port);
+                return port;
+            }
+        }
+        throw new IOException("No free port from " + from);
+    }
+
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static String getOption(List<String> args, String option) {
+        int index = args.lastIndexOf(option);
+        return index >= 0 && index < args.size() - 1 ? args.get(index + 1) : null;
+    }
+
+    private static int getPortOption(List<String> args, String option) {
+        String value = getOption(args, option);
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the index of the JDWP agent option with a fixed port, or -1
+     */
+    private static int getDebugOption(List<String> args) {
+        for (int i = 0; i < args.size(); i++) {
+            if (DEBUG_ADDRESS.matcher(args.get(i)).matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int getDebugPort(String option) {
+        Matcher matcher = DEBUG_ADDRESS.matcher(option);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+
+    private static String setDebugPort(String option, int port) {
+        Matcher matcher = DEBUG_ADDRESS.matcher(option);
+        return matcher.matches() ? matcher.group(1) + port + matcher.group(3) : option;
+    }
+
+    private static void setOption(List<String> args, String option, String value) {
+        int index = args.lastIndexOf(option);
+        if (index >= 0 && index < args.size() - 1) {
+            args.set(index + 1, value);
+        } else {
+            args.add(option);
+            args.add(value);
+        }
+    }
+
+    private static class Instance {
+
+        private final String name;
+        private final CountDownLatch ready = new CountDownLatch(1);
+        private int httpPort;
+        private int hazelcastPort;
+        private int sslPort = -1;
+        private int debugPort = -1;
+        private List<String> command;
+        private Process process;
+        private long startTime;
+        private volatile long readyTime = -1;
+
+        Instance(String name) {
+            this.name = name;
+        }
+    }
+}
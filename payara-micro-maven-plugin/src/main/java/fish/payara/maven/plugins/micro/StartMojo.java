@@ -39,9 +39,19 @@
 package fish.payara.maven.plugins.micro;
 
 import fish.payara.maven.plugins.LogUtils;
+import fish.payara.maven.plugins.MarkerMatcher;
+import fish.payara.maven.plugins.AsyncConsoleSink;
 import fish.payara.maven.plugins.AutoDeployHandler;
+import fish.payara.maven.plugins.CdsArchive;
+import fish.payara.maven.plugins.CracCheckpoint;
+import fish.payara.maven.plugins.ForwardingProxy;
+import fish.payara.maven.plugins.RootDirectoryCache;
+import fish.payara.maven.plugins.StandbyProcess;
+import fish.payara.maven.plugins.ProcessThreads;
 import fish.payara.maven.plugins.PropertiesUtils;
+import fish.payara.maven.plugins.ReadinessProbe;
 import fish.payara.maven.plugins.StartTask;
+import fish.payara.maven.plugins.StreamingMatcher;
 import fish.payara.maven.plugins.WebDriverFactory;
 import fish.payara.maven.plugins.micro.processor.MicroFetchProcessor;
 import org.apache.commons.io.IOUtils;
@@ -56,16 +66,24 @@ import org.apache.maven.toolchain.Toolchain;
 import org.twdata.maven.mojoexecutor.MojoExecutor;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static fish.payara.maven.plugins.micro.Configuration.*;
 import java.awt.Desktop;
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
@@ -88,6 +106,33 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     private static final String PRE_BOOT = "--prebootcommandfile";
     private static final String POST_BOOT = "--postbootcommandfile";
     private static final String POST_DEPLOY = "--postdeploycommandfile";
+    private static final String DOMAIN_CONFIG = "--domainconfig";
+    private static final String CDS_DIRECTORY = "payara-cds";
+    private static final String CRAC_DIRECTORY = "payara-crac";
+    private static final String ROOT_DIR = "--rootdir";
+    private static final String ROOT_DIRECTORY = "payara-rootdir";
+    private static final String HTTP_PORT = "--port";
+    private static final String NO_CLUSTER = "--nocluster";
+    private static final int DEFAULT_HTTP_PORT = 8080;
+    private static final List<String> STANDBY_UNSUPPORTED_OPTIONS = Arrays.asList(
+            "--sslport", "--autobindhttp", "--autobindssl");
+    // the exit code of a JVM stopped by Process.destroy()
+    private static final int SIGTERM_EXIT_CODE = 143;
+    private static final Pattern HOST_IP_REGEX = Pattern.compile(HOST_IP_PATTERN);
+    private static final Pattern HOST_PORT_REGEX = Pattern.compile(HOST_PORT_PATTERN);
+    private static final Pattern LOADING_APPLICATION_REGEX = Pattern.compile(LOADING_APPLICATION_PATTERN);
+    private static final Pattern APP_DEPLOYED_REGEX = Pattern.compile(APP_DEPLOYED_PATTERN);
+    // the bits of the markers are in the order of the constructor arguments
+    private static final MarkerMatcher LOG_MARKERS = new MarkerMatcher(APP_DEPLOYED, INSTANCE_CONFIGURATION,
+            PAYARA_MICRO_URLS, APP_DEPLOYMENT_FAILED, LOADING_APPLICATION, INOTIFY_USER_LIMIT_REACHED_MESSAGE,
+            CdsArchive.UNUSABLE_ARCHIVE_MESSAGE);
+    private static final int APP_DEPLOYED_MARKER = 1;
+    private static final int INSTANCE_CONFIGURATION_MARKER = 1 << 1;
+    private static final int PAYARA_MICRO_URLS_MARKER = 1 << 2;
+    private static final int APP_DEPLOYMENT_FAILED_MARKER = 1 << 3;
+    private static final int LOADING_APPLICATION_MARKER = 1 << 4;
+    private static final int INOTIFY_USER_LIMIT_REACHED_MARKER = 1 << 5;
+    private static final int CDS_ARCHIVE_UNUSABLE_MARKER = 1 << 6;
 
     @Parameter(property = "payara.java.home", defaultValue = "${env.PAYARA_JAVA_HOME}")
     private String javaHome;
@@ -152,6 +197,72 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     @Parameter(property = "payara.hot.deploy", defaultValue = "${env.PAYARA_HOT_DEPLOY}")
     protected boolean hotDeploy;
 
+    @Parameter(property = "payara.in.process.compile", defaultValue = "${env.PAYARA_IN_PROCESS_COMPILE}")
+    protected Boolean inProcessCompile;
+
+    @Parameter(property = "payara.warm.build", defaultValue = "${env.PAYARA_WARM_BUILD}")
+    protected Boolean warmBuild;
+
+    @Parameter(property = "payara.watch.quiet.period", defaultValue = "${env.PAYARA_WATCH_QUIET_PERIOD}")
+    protected Long watchQuietPeriod;
+
+    @Parameter(property = "payara.watch.max.latency", defaultValue = "${env.PAYARA_WATCH_MAX_LATENCY}")
+    protected Long watchMaxLatency;
+
+    @Parameter(property = "payara.watch.polling", defaultValue = "${env.PAYARA_WATCH_POLLING}")
+    protected Boolean watchPolling;
+
+    @Parameter(property = "payara.watch.poll.interval", defaultValue = "${env.PAYARA_WATCH_POLL_INTERVAL}")
+    protected Long watchPollInterval;
+
+    @Parameter(property = "payara.watch.includes")
+    protected List<String> watchIncludes;
+
+    @Parameter(property = "payara.watch.excludes")
+    protected List<String> watchExcludes;
+
+    @Parameter(property = "payara.continuous.testing", defaultValue = "${env.PAYARA_CONTINUOUS_TESTING}")
+    protected Boolean continuousTesting;
+
+    @Parameter(property = "payara.console.buffer", defaultValue = "${env.PAYARA_CONSOLE_BUFFER}")
+    protected Integer consoleBuffer;
+
+    @Parameter(property = "payara.console.overflow", defaultValue = "${env.PAYARA_CONSOLE_OVERFLOW}")
+    protected String consoleOverflow;
+
+    @Parameter(property = "payara.readiness.url", defaultValue = "${env.PAYARA_READINESS_URL}")
+    protected String readinessUrl;
+
+    @Parameter(property = "payara.readiness.timeout", defaultValue = "${env.PAYARA_READINESS_TIMEOUT}")
+    protected Long readinessTimeout;
+
+    @Parameter(property = "payara.cds", defaultValue = "${env.PAYARA_CDS}")
+    protected Boolean cds;
+
+    @Parameter(property = "payara.cds.directory", defaultValue = "${env.PAYARA_CDS_DIRECTORY}")
+    protected String cdsDirectory;
+
+    @Parameter(property = "payara.crac", defaultValue = "${env.PAYARA_CRAC}")
+    protected Boolean crac;
+
+    @Parameter(property = "payara.rootdir.cache", defaultValue = "${env.PAYARA_ROOTDIR_CACHE}")
+    protected Boolean rootDirCache;
+
+    @Parameter(property = "payara.standby", defaultValue = "${env.PAYARA_STANDBY}")
+    protected Boolean standby;
+
+    @Parameter(property = "payara.cluster.instances", defaultValue = "${env.PAYARA_CLUSTER_INSTANCES}")
+    protected Integer clusterInstances;
+
+    @Parameter(property = "payara.cluster.name", defaultValue = "${env.PAYARA_CLUSTER_NAME}")
+    protected String clusterName;
+
+    @Parameter(property = "payara.cluster.http.port", defaultValue = "${env.PAYARA_CLUSTER_HTTP_PORT}")
+    protected Integer clusterHttpPort;
+
+    @Parameter(property = "payara.cluster.hazelcast.port", defaultValue = "${env.PAYARA_CLUSTER_HAZELCAST_PORT}")
+    protected Integer clusterHazelcastPort;
+
     /**
      * The directory where the webapp is built, default value is exploded war.
      */
@@ -179,8 +290,27 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     private List<ArtifactItem> classpathArtifactItems;
 
     private Process microProcess;
-    private Thread microProcessorThread;
-    private final ThreadGroup threadGroup;
+    private volatile Future<?> microProcessorTask;
+    private AsyncConsoleSink.OverflowPolicy consoleOverflowPolicy;
+    private URL readinessEndpoint;
+    private volatile ReadinessProbe readinessProbe;
+    private volatile boolean logReady;
+    private volatile long processStartTime;
+    private final AtomicBoolean firstDeployment = new AtomicBoolean();
+    private final AtomicBoolean startupReported = new AtomicBoolean();
+    private CdsArchive cdsArchive;
+    private volatile CracCheckpoint cracCheckpoint;
+    private String cracJava;
+    private volatile boolean cracCheckpointing;
+    private volatile Future<?> cracCheckpointTask;
+    private RootDirectoryCache rootDirectoryCache;
+    private ForwardingProxy proxy;
+    private final Object standbyLock = new Object();
+    private StandbyProcess standbyProcess;
+    private volatile StandbyProcess promotedStandby;
+    private volatile List<String> standbyArgs;
+    private final ProcessThreads processThreads;
+    private final ProcessThreads streamThreads;
     private Toolchain toolchain;
 
     private AutoDeployHandler autoDeployHandler;
@@ -191,7 +321,8 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     private final Map<String, String> contextRoots = new HashMap<>();
 
     StartMojo() {
-        threadGroup = new ThreadGroup(MICRO_THREAD_NAME);
+        processThreads = new ProcessThreads(MICRO_THREAD_NAME);
+        streamThreads = new ProcessThreads(MICRO_THREAD_NAME + "-io");
         
         // Backward compatibility for params
         if (javaPath != null) {
@@ -246,6 +377,30 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
         if (trimLog == null) {
             trimLog = false;
         }
+        try {
+            consoleOverflowPolicy = AsyncConsoleSink.OverflowPolicy.of(consoleOverflow);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException("Unknown console overflow policy " + consoleOverflow
+                    + ", expected block, drop-debug or sample");
+        }
+        if (readinessUrl != null && !readinessUrl.trim().isEmpty()) {
+            try {
+                readinessEndpoint = new URL(readinessUrl.trim());
+            } catch (MalformedURLException ex) {
+                throw new MojoExecutionException("Invalid readiness URL " + readinessUrl, ex);
+            }
+            if (!ReadinessProbe.isSupported(readinessEndpoint)) {
+                throw new MojoExecutionException("Readiness URL must be an http or https URL: " + readinessUrl);
+            }
+        }
+        boolean cluster = clusterInstances != null && clusterInstances > 1;
+        if (cluster && clusterInstances > MicroCluster.MAX_INSTANCES) {
+            throw new MojoExecutionException("A Payara Micro cluster is limited to " + MicroCluster.MAX_INSTANCES + " instances");
+        }
+        if (cluster && autoDeploy != null && autoDeploy) {
+            getLog().warn("Auto deploy is not supported for a cluster of Payara Micro instances");
+            autoDeploy = false;
+        }
         if (autoDeploy == null) {
             autoDeploy = false;
         }
@@ -255,11 +410,15 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
         if (keepState == null) {
             keepState = false;
         }
+        if (inProcessCompile == null) {
+            inProcessCompile = false;
+        }
+        if (warmBuild == null) {
+            warmBuild = false;
+        }
         if (autoDeploy && autoDeployHandler == null) {
             autoDeployHandler = new MicroAutoDeployHandler(this, webappDirectory);
-            Thread devModeThread = new Thread(autoDeployHandler);
-            devModeThread.setDaemon(true);
-            devModeThread.start();
+            processThreads.submit("dev", autoDeployHandler);
         } else {
             autoDeployHandler = null;
         }
@@ -277,119 +436,116 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
 
         toolchain = getToolchain();
         final String path = decideOnWhichMicroToUse();
+        if (cluster) {
+            startCluster(path);
+            return;
+        }
+        if (crac != null && crac) {
+            cracCheckpoint = createCracCheckpoint();
+        }
+        cdsArchive = cracCheckpoint == null ? createCdsArchive(path) : null;
+        proxy = standby != null && standby ? createProxy() : null;
+        rootDirectoryCache = cracCheckpoint == null && proxy == null ? createRootDirectoryCache() : null;
 
-        microProcessorThread = new Thread(threadGroup, () -> {
+        Runnable microProcessor = () -> {
+            // the pumps of a previous process may still block on a stream
+            // which is inherited by a child process
+            streamThreads.cancel();
+            getLog().debug(ProcessThreads.getActiveCount() + " process thread(s) active"
+                    + (ProcessThreads.isVirtual() ? " on virtual threads" : ""));
 
-            final List<String> actualArgs = new ArrayList<>();
             getLog().info("Starting payara-micro from path: " + path);
-            int indice = 0;
-            actualArgs.add(indice++, evaluateJavaPath());
-
-            if (debug != null && !debug.equalsIgnoreCase("false")) {
-                if (Boolean.parseBoolean(debug)) {
-                    actualArgs.add(indice++, "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=5005");
+            final List<String> actualArgs = getLaunchArgs(path);
+
+            RootDirectoryCache rootDirectory = rootDirectoryCache;
+            if (rootDirectory != null) {
+                rootDirectory.select(getMicroName(path), getRootDirectoryKey(actualArgs, path));
+                if (rootDirectory.lock()) {
+                    rootDirectory.prepare();
+                    actualArgs.add(ROOT_DIR);
+                    actualArgs.add(rootDirectory.getRootDirectory().toString());
                 } else {
-                    actualArgs.add(indice++, debug);
-                }
-            }
-
-            if (javaCommandLineOptions != null) {
-                for (Option option : javaCommandLineOptions) {
-                    if (option.getKey() != null && option.getValue() != null) {
-                        String systemProperty = String.format("%s=%s", option.getKey(), option.getValue());
-                        actualArgs.add(indice++, systemProperty);
-                    } else if (option.getValue() != null) {
-                        actualArgs.add(indice++, option.getValue());
-                    }
+                    getLog().info("Payara Micro root directory " + rootDirectory.getRootDirectory()
+                            + " is used by another launch, it is unpacked into a temporary directory");
                 }
             }
 
-            String execArgs = mavenSession.getRequest().getUserProperties().getProperty("exec.args");
-            if (execArgs != null && !execArgs.trim().isEmpty()) {
-                for (String execArg : execArgs.split("\\s+")) {
-                    actualArgs.add(indice++, execArg);
+            int httpPort = -1;
+            if (proxy != null) {
+                standbyArgs = new ArrayList<>(actualArgs);
+                try {
+                    httpPort = ForwardingProxy.findFreePort();
+                } catch (IOException ex) {
+                    throw new RuntimeException(ERROR_MESSAGE, ex);
                 }
+                setHttpPort(actualArgs, httpPort);
             }
 
-            actualArgs.add(indice++, "-Dgav=" + getProjectGAV());
-            if (classpathArtifactItems != null && !classpathArtifactItems.isEmpty()) {
-                actualArgs.add(indice++, "-cp");
-                List<String> artifactsPath = new ArrayList<>();
-                for (ArtifactItem classpathArtifactItem : classpathArtifactItems) {
-                    DefaultArtifact artifact = new DefaultArtifact(classpathArtifactItem.getGroupId(),
-                            classpathArtifactItem.getArtifactId(),
-                            classpathArtifactItem.getVersion(),
-                            null,
-                            JAR_EXTENSION,
-                            null,
-                            new DefaultArtifactHandler(JAR_EXTENSION));
-                    artifactsPath.add(findLocalPathOfArtifact(artifact));
-                }
-                artifactsPath.add(path);
-                actualArgs.add(indice++, StringUtils.join(artifactsPath, File.pathSeparator));
-                actualArgs.add(indice++, "fish.payara.micro.PayaraMicro");
-            } else {
-                actualArgs.add(indice++, "-jar");
-                actualArgs.add(indice++, path);
-            }
-            if (deployWar && WAR_EXTENSION.equalsIgnoreCase(mavenProject.getPackaging())) {
-                if (useUberJar) {
-                    getLog().warn("useUberJar and deployWar are both set to true! You'll probably have "
-                            + "your application tried to deploy twice: 1. as uber jar 2. as a separate war");
-                }
-                actualArgs.add(indice++, "--deploy");
-                if (exploded) {
-                    actualArgs.add(indice++, evaluateProjectArtifactAbsolutePath(""));
+            try {
+                StandbyProcess promoted = promotedStandby;
+                promotedStandby = null;
+                boolean cracRestoring = false;
+                CracCheckpoint checkpoint = cracCheckpoint;
+                cracCheckpointing = false;
+                cracCheckpointTask = null;
+                if (promoted != null) {
+                    adoptStandby(promoted);
                 } else {
-                    actualArgs.add(indice++, evaluateProjectArtifactAbsolutePath("." + mavenProject.getPackaging()));
-                }
-            }
-            if (clientUrlPart != null && !clientUrlPart.trim().isEmpty()) {
-                actualArgs.add(indice++, "--contextroot");
-                actualArgs.add(indice++, clientUrlPart.trim());
-            } else if (contextRoot != null) {
-                actualArgs.add(indice++, "--contextroot");
-                actualArgs.add(indice++, contextRoot);
-            }
-            if (hotDeploy) {
-                actualArgs.add(indice++, "--hotdeploy");
-            }
-            if (commandLineOptions != null) {
-                for (Option option : commandLineOptions) {
-                    if (option.getKey() != null) {
-                        actualArgs.add(indice++, option.getKey());
-                        if (autoDeploy
-                                && option.getValue() != null
-                                && !option.getValue().isEmpty()
-                                && (option.getKey().equals(PRE_BOOT)
-                                || option.getKey().equals(POST_BOOT)
-                                || option.getKey().equals(POST_DEPLOY))) {
-                            Path bootpath = Paths.get(option.getValue());
-                            if (Files.exists(bootpath)) {
-                                rebootOnChange.add(bootpath.getFileName().toString());
-                            }
+                    List<String> command = actualArgs;
+                    if (checkpoint != null) {
+                        checkpoint.select(getCracKey(actualArgs, path));
+                        if (checkpoint.isRestorable()) {
+                            getLog().info("Restoring Payara Micro from the CRaC checkpoint " + checkpoint.getImageDirectory());
+                            command = checkpoint.getRestoreCommand();
+                            cracRestoring = true;
+                        } else {
+                            command = new ArrayList<>(actualArgs);
+                            command.addAll(1, checkpoint.getCheckpointOptions());
+                            cracCheckpointing = true;
                         }
                     }
-                    if (option.getValue() != null) {
-                        actualArgs.add(indice++, option.getValue());
+                    getLog().info("Starting Payara Micro with the these arguments: " + command);
+                    final Runtime re = Runtime.getRuntime();
+                    processStartTime = System.nanoTime();
+                    logReady = false;
+                    firstDeployment.set(false);
+                    startupReported.set(false);
+                    microProcess = re.exec(command.toArray(new String[0]));
+                    if (proxy != null) {
+                        proxy.setTarget(httpPort);
                     }
-                }
-            }
-
-            try {
-                getLog().info("Starting Payara Micro with the these arguments: " + actualArgs);
-                final Runtime re = Runtime.getRuntime();
-                microProcess = re.exec(actualArgs.toArray(new String[0]));
 
-                if (daemon) {
-                    redirectStream(microProcess.getInputStream(), System.out);
-                    redirectStream(microProcess.getErrorStream(), System.err);
-                } else {
-                    redirectStreamToGivenOutputStream(microProcess.getInputStream(), System.out);
-                    redirectStreamToGivenOutputStream(microProcess.getErrorStream(), System.err);
+                    if (daemon) {
+                        redirectStream(microProcess.getInputStream(), System.out);
+                        redirectStream(microProcess.getErrorStream(), System.err);
+                    } else {
+                        redirectStreamToGivenOutputStream(microProcess.getInputStream(), System.out);
+                        redirectStreamToGivenOutputStream(microProcess.getErrorStream(), System.err);
+                    }
+                    if (readinessEndpoint != null && !(daemon && immediateExit)) {
+                        probeReadiness(microProcess);
+                    }
+                    if (cracRestoring) {
+                        // the restored instance runs the application of the
+                        // checkpoint, redeploy the exploded war
+                        redeploy();
+                    }
                 }
 
                 int exitCode = microProcess.waitFor();
+                Future<?> checkpointTask = cracCheckpointTask;
+                if (checkpointTask != null) {
+                    try {
+                        checkpointTask.get();
+                    } catch (ExecutionException | CancellationException ex) {
+                        getLog().debug(ex);
+                    }
+                }
+                if (cracRestoring && exitCode != 0 && exitCode != SIGTERM_EXIT_CODE && !firstDeployment.get()) {
+                    getLog().warn("Payara Micro could not be restored from the CRaC checkpoint (exit code " + exitCode
+                            + "), it is booted and checkpointed again");
+                    checkpoint.invalidate();
+                }
                 if (exitCode != 0 && !autoDeploy) {
                     throw new MojoFailureException(ERROR_MESSAGE);
                 }
@@ -400,34 +556,196 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
                 if (!daemon) {
                     closeMicroProcess();
                 }
+                if (rootDirectory != null && rootDirectory.isLocked()) {
+                    if (startupReported.get()) {
+                        rootDirectory.snapshot();
+                    }
+                    rootDirectory.release();
+                }
             }
-        });
+        };
 
         if (daemon) {
-            microProcessorThread.setDaemon(true);
-            microProcessorThread.start();
+            microProcessorTask = processThreads.submit("process", microProcessor);
 
             if (!immediateExit) {
                 try {
-                    microProcessorThread.join();
+                    microProcessorTask.get();
+                } catch (CancellationException ignored) {
                 } catch (InterruptedException e) {
                     e.printStackTrace();
+                } catch (ExecutionException e) {
+                    getLog().error(ERROR_MESSAGE, e.getCause());
                 }
             }
         } else {
             Runtime.getRuntime().addShutdownHook(getShutdownHook());
-            microProcessorThread.run();
+            microProcessor.run();
 
             if (autoDeploy) {
                 while (autoDeployHandler.isAlive()) {
-                    microProcessorThread.run();
+                    microProcessor.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the command of a Payara Micro launch, from the Java and Payara
+     * Micro options of the goal
+     */
+    private List<String> getLaunchArgs(String path) {
+        final List<String> actualArgs = new ArrayList<>();
+        int indice = 0;
+        actualArgs.add(indice++, evaluateJavaPath());
+
+        if (debug != null && !debug.equalsIgnoreCase("false")) {
+            if (Boolean.parseBoolean(debug)) {
+                actualArgs.add(indice++, "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=5005");
+            } else {
+                actualArgs.add(indice++, debug);
+            }
+        }
+
+        if (javaCommandLineOptions != null) {
+            for (Option option : javaCommandLineOptions) {
+                if (option.getKey() != null && option.getValue() != null) {
+                    String systemProperty = String.format("%s=%s", option.getKey(), option.getValue());
+                    actualArgs.add(indice++, systemProperty);
+                } else if (option.getValue() != null) {
+                    actualArgs.add(indice++, option.getValue());
+                }
+            }
+        }
+
+        String execArgs = mavenSession.getRequest().getUserProperties().getProperty("exec.args");
+        if (execArgs != null && !execArgs.trim().isEmpty()) {
+            for (String execArg : execArgs.split("\\s+")) {
+                actualArgs.add(indice++, execArg);
+            }
+        }
+        if (cdsArchive != null) {
+            for (String option : cdsArchive.getJvmOptions()) {
+                actualArgs.add(indice++, option);
+            }
+        }
+
+        actualArgs.add(indice++, "-Dgav=" + getProjectGAV());
+        if (classpathArtifactItems != null && !classpathArtifactItems.isEmpty()) {
+            actualArgs.add(indice++, "-cp");
+            List<String> artifactsPath = getClasspathArtifacts();
+            artifactsPath.add(path);
+            actualArgs.add(indice++, StringUtils.join(artifactsPath, File.pathSeparator));
+            actualArgs.add(indice++, "fish.payara.micro.PayaraMicro");
+        } else {
+            actualArgs.add(indice++, "-jar");
+            actualArgs.add(indice++, path);
+        }
+        if (deployWar && WAR_EXTENSION.equalsIgnoreCase(mavenProject.getPackaging())) {
+            if (useUberJar) {
+                getLog().warn("useUberJar and deployWar are both set to true! You'll probably have "
+                        + "your application tried to deploy twice: 1. as uber jar 2. as a separate war");
+            }
+            actualArgs.add(indice++, "--deploy");
+            if (exploded) {
+                actualArgs.add(indice++, evaluateProjectArtifactAbsolutePath(""));
+            } else {
+                actualArgs.add(indice++, evaluateProjectArtifactAbsolutePath("." + mavenProject.getPackaging()));
+            }
+        }
+        if (clientUrlPart != null && !clientUrlPart.trim().isEmpty()) {
+            actualArgs.add(indice++, "--contextroot");
+            actualArgs.add(indice++, clientUrlPart.trim());
+        } else if (contextRoot != null) {
+            actualArgs.add(indice++, "--contextroot");
+            actualArgs.add(indice++, contextRoot);
+        }
+        if (hotDeploy) {
+            actualArgs.add(indice++, "--hotdeploy");
+        }
+        if (commandLineOptions != null) {
+            for (Option option : commandLineOptions) {
+                if (option.getKey() != null) {
+                    actualArgs.add(indice++, option.getKey());
+                    if (autoDeploy
+                            && option.getValue() != null
+                            && !option.getValue().isEmpty()
+                            && (option.getKey().equals(PRE_BOOT)
+                            || option.getKey().equals(POST_BOOT)
+                            || option.getKey().equals(POST_DEPLOY))) {
+                        Path bootpath = Paths.get(option.getValue());
+                        if (Files.exists(bootpath)) {
+                            rebootOnChange.add(bootpath.getFileName().toString());
+                        }
+                    }
+                }
+                if (option.getValue() != null) {
+                    actualArgs.add(indice++, option.getValue());
                 }
             }
         }
+        return actualArgs;
+    }
+
+    /**
+     * Starts the instances of a local cluster in parallel, and waits until all
+     * of them are ready. Unless the goal runs as a daemon, it then waits for
+     * the instances to end.
+     */
+    private void startCluster(String path) throws MojoExecutionException {
+        String name = clusterName != null && !clusterName.trim().isEmpty() ? clusterName.trim() : mavenProject.getArtifactId();
+        MicroCluster cluster = new MicroCluster(name, getLog());
+        try {
+            cluster.configure(getLaunchArgs(path), clusterInstances,
+                    clusterHttpPort != null ? clusterHttpPort : MicroCluster.DEFAULT_HTTP_PORT,
+                    clusterHazelcastPort != null ? clusterHazelcastPort : MicroCluster.DEFAULT_HAZELCAST_PORT);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to allocate the ports of the Payara Micro cluster", ex);
+        }
+        if (!daemon) {
+            Runtime.getRuntime().addShutdownHook(new Thread(cluster::stop));
+        }
+        AsyncConsoleSink console = createConsoleSink(System.out);
+        try {
+            cluster.start(streamThreads, console, trimLog);
+            if (!cluster.awaitReady(readinessTimeout != null ? readinessTimeout : ReadinessProbe.DEFAULT_TIMEOUT)) {
+                cluster.stop();
+                throw new MojoExecutionException(ERROR_MESSAGE);
+            }
+            cluster.writeTopology(Paths.get(getBaseDir(), MicroCluster.TOPOLOGY_FILE), getClusterContextRoot());
+            if (!daemon) {
+                cluster.waitFor();
+            }
+        } catch (IOException ex) {
+            cluster.stop();
+            throw new MojoExecutionException(ERROR_MESSAGE, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cluster.stop();
+        } finally {
+            console.close();
+            if (daemon) {
+                streamThreads.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return the context root of the application deployed to the cluster
+     */
+    private String getClusterContextRoot() {
+        String root = contextRoot;
+        if (root == null && deployWar && WAR_EXTENSION.equalsIgnoreCase(mavenProject.getPackaging())) {
+            root = evaluateExecutorName("");
+        }
+        if (root == null || root.isEmpty() || "/".equals(root)) {
+            return "/";
+        }
+        return root.startsWith("/") ? root : "/" + root;
     }
 
     private Thread getShutdownHook() {
-        return new Thread(threadGroup, () -> {
+        return new Thread(() -> {
             if (microProcess != null && microProcess.isAlive()) {
                 try {
                     microProcess.destroy();
@@ -440,6 +758,9 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
             if (autoDeployHandler != null) {
                 autoDeployHandler.stop();
             }
+            if (proxy != null) {
+                stopStandby();
+            }
             if (driver != null) {
                 try {
                     PropertiesUtils.saveProperties(payaraMicroURL, driver.getCurrentUrl());
@@ -514,6 +835,381 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
         throw new MojoExecutionException("Could not determine Payara Micro path. Please set it by defining either \"useUberJar\", \"payaraMicroAbsolutePath\" or \"artifactItem\" configuration options.");
     }
 
+    private List<String> getClasspathArtifacts() {
+        List<String> artifactsPath = new ArrayList<>();
+        if (classpathArtifactItems != null) {
+            for (ArtifactItem classpathArtifactItem : classpathArtifactItems) {
+                DefaultArtifact artifact = new DefaultArtifact(classpathArtifactItem.getGroupId(),
+                        classpathArtifactItem.getArtifactId(),
+                        classpathArtifactItem.getVersion(),
+                        null,
+                        JAR_EXTENSION,
+                        null,
+                        new DefaultArtifactHandler(JAR_EXTENSION));
+                artifactsPath.add(findLocalPathOfArtifact(artifact));
+            }
+        }
+        return artifactsPath;
+    }
+
+    /**
+     * @return the class data sharing archive of the Payara Micro launches, or
+     * null if it is disabled, configured by the JVM options or not supported
+     * by the JDK
+     */
+    private CdsArchive createCdsArchive(String path) {
+        if (cds != null && !cds) {
+            return null;
+        }
+        List<String> jvmOptions = new ArrayList<>();
+        if (javaCommandLineOptions != null) {
+            for (Option option : javaCommandLineOptions) {
+                jvmOptions.add(option.getKey());
+                jvmOptions.add(option.getValue());
+            }
+        }
+        String execArgs = mavenSession.getRequest().getUserProperties().getProperty("exec.args");
+        if (execArgs != null) {
+            jvmOptions.addAll(Arrays.asList(execArgs.trim().split("\\s+")));
+        }
+        if (CdsArchive.isConfigured(jvmOptions)) {
+            getLog().debug("Class data sharing is configured by the JVM options");
+            return null;
+        }
+        String javaExecutable = evaluateJavaPath();
+        String java = CdsArchive.describeJava(javaExecutable, getLog());
+        int javaVersion = java != null ? CdsArchive.getJavaVersion(java) : -1;
+        if (javaVersion < CdsArchive.MIN_JAVA_VERSION) {
+            getLog().debug("Class data sharing archive disabled, it requires Java " + CdsArchive.MIN_JAVA_VERSION + " or later");
+            return null;
+        }
+        List<String> keyParts = new ArrayList<>();
+        keyParts.add(java);
+        List<String> classpath = getClasspathArtifacts();
+        classpath.add(path);
+        for (String element : classpath) {
+            keyParts.add(CdsArchive.describeFile(element));
+        }
+        Path directory = cdsDirectory != null && !cdsDirectory.trim().isEmpty() ? Paths.get(cdsDirectory.trim())
+                : Paths.get(mavenSession.getLocalRepository().getBasedir()).resolveSibling(CDS_DIRECTORY);
+        CdsArchive archive = new CdsArchive(directory, getMicroName(path), CdsArchive.key(keyParts.toArray(new String[0])), javaVersion, getLog());
+        archive.validate(javaExecutable, classpath);
+        return archive;
+    }
+
+    /**
+     * @return the CRaC checkpoints of the dev mode launches, or null if the
+     * launches cannot be checkpointed
+     */
+    private CracCheckpoint createCracCheckpoint() {
+        if (daemon || !autoDeploy || !liveReload || !deployWar || !exploded) {
+            getLog().warn("CRaC checkpoints require the dev goal with an exploded war and live reload, Payara Micro is booted normally");
+            return null;
+        }
+        String javaExecutable = evaluateJavaPath();
+        if (!CracCheckpoint.isSupported(javaExecutable, getLog())) {
+            getLog().warn(javaExecutable + " does not support CRaC checkpoints, which require a Linux JDK with CRaC."
+                    + " Payara Micro is booted normally");
+            return null;
+        }
+        cracJava = CdsArchive.describeJava(javaExecutable, getLog());
+        return new CracCheckpoint(Paths.get(getBaseDir(), CRAC_DIRECTORY), javaExecutable, getLog());
+    }
+
+    /**
+     * @return the key of the checkpoint of a launch, from its arguments, the
+     * Payara Micro jar and the content of its boot command and domain files
+     */
+    private String getCracKey(List<String> args, String path) {
+        List<String> keyParts = new ArrayList<>();
+        keyParts.add(cracJava);
+        keyParts.add(CdsArchive.describeFile(path));
+        keyParts.addAll(args);
+        addBootFileContents(keyParts, args);
+        return CdsArchive.key(keyParts.toArray(new String[0]));
+    }
+
+    /**
+     * @return the root directory cache of the Payara Micro launches, or null
+     * if it is disabled or the root directory is set by the command line
+     * options
+     */
+    private RootDirectoryCache createRootDirectoryCache() {
+        if (rootDirCache != null && !rootDirCache) {
+            return null;
+        }
+        if (daemon) {
+            getLog().debug("Payara Micro root directory cache disabled, the daemon process outlives the goal");
+            return null;
+        }
+        if (commandLineOptions != null) {
+            for (Option option : commandLineOptions) {
+                if (ROOT_DIR.equals(option.getKey())) {
+                    getLog().debug("Payara Micro root directory is set by the command line options");
+                    return null;
+                }
+            }
+        }
+        return new RootDirectoryCache(Paths.get(getBaseDir(), ROOT_DIRECTORY), getLog());
+    }
+
+    /**
+     * @return the key of the root directory of a launch, from the Payara
+     * Micro jar and the content of its boot command and domain files
+     */
+    private String getRootDirectoryKey(List<String> args, String path) {
+        List<String> keyParts = new ArrayList<>();
+        keyParts.add(CdsArchive.describeFile(path));
+        addBootFileContents(keyParts, args);
+        return CdsArchive.key(keyParts.toArray(new String[0]));
+    }
+
+    private void addBootFileContents(List<String> keyParts, List<String> args) {
+        for (int i = 0; i < args.size() - 1; i++) {
+            String arg = args.get(i);
+            if (PRE_BOOT.equals(arg) || POST_BOOT.equals(arg) || POST_DEPLOY.equals(arg) || DOMAIN_CONFIG.equals(arg)) {
+                keyParts.add(arg);
+                try {
+                    keyParts.add(new String(Files.readAllBytes(Paths.get(args.get(i + 1))), StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    keyParts.add("");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the proxy of the HTTP port for the standby instances, or null
+     * if the launches cannot use a standby instance
+     */
+    private ForwardingProxy createProxy() {
+        if (daemon || !autoDeploy) {
+            getLog().warn("A standby instance requires the dev goal, Payara Micro is rebooted normally");
+            return null;
+        }
+        if (cracCheckpoint != null) {
+            getLog().warn("A standby instance cannot be combined with CRaC checkpoints, Payara Micro is rebooted normally");
+            return null;
+        }
+        int port = DEFAULT_HTTP_PORT;
+        if (commandLineOptions != null) {
+            for (Option option : commandLineOptions) {
+                if (STANDBY_UNSUPPORTED_OPTIONS.contains(option.getKey())) {
+                    getLog().warn(option.getKey() + " is not supported with a standby instance, Payara Micro is rebooted normally");
+                    return null;
+                } else if (HTTP_PORT.equals(option.getKey()) && option.getValue() != null) {
+                    try {
+                        port = Integer.parseInt(option.getValue().trim());
+                    } catch (NumberFormatException ex) {
+                        getLog().warn("Invalid HTTP port " + option.getValue() + ", Payara Micro is rebooted normally");
+                        return null;
+                    }
+                }
+            }
+        }
+        ForwardingProxy forwardingProxy = new ForwardingProxy(port, getLog());
+        try {
+            forwardingProxy.start();
+        } catch (IOException ex) {
+            getLog().warn("Unable to listen on port " + port + " for a standby instance, Payara Micro is rebooted normally", ex);
+            return null;
+        }
+        getLog().info("Port " + port + " is forwarded to the running Payara Micro instance, a standby instance takes over on reboot");
+        return forwardingProxy;
+    }
+
+    boolean isStandbyEnabled() {
+        return proxy != null;
+    }
+
+    /**
+     * Forwards the HTTP port to the standby instance, booted with the current
+     * boot command files, and ends the running instance. The dev mode loop
+     * then takes over the standby instance instead of booting a new one.
+     *
+     * @return false if the standby instance did not become ready, the running
+     * instance must be rebooted
+     */
+    boolean swapToStandby() {
+        long start = System.nanoTime();
+        long timeout = readinessTimeout != null ? readinessTimeout : ReadinessProbe.DEFAULT_TIMEOUT;
+        StandbyProcess next;
+        try {
+            next = startStandby();
+            if (next == null) {
+                return false;
+            }
+            if (!next.isReady()) {
+                getLog().info("Waiting for the standby Payara Micro instance on port " + next.getPort()
+                        + ", the running instance serves the requests meanwhile");
+            }
+            if (!next.awaitReady(timeout)) {
+                getLog().warn("The standby Payara Micro instance on port " + next.getPort()
+                        + " did not become ready, Payara Micro is rebooted");
+                discardStandby(next);
+                return false;
+            }
+        } catch (IOException ex) {
+            getLog().warn("Unable to boot the standby Payara Micro instance, Payara Micro is rebooted", ex);
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        synchronized (standbyLock) {
+            if (standbyProcess != next) {
+                return false;
+            }
+            standbyProcess = null;
+        }
+        promotedStandby = next;
+        proxy.setTarget(next.getPort());
+        long swapTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        getLog().info("Switched to the standby Payara Micro instance on port " + next.getPort() + " in " + swapTime + " ms");
+        if (autoDeployHandler != null) {
+            autoDeployHandler.startupMeasured("standbySwap", swapTime);
+        }
+        Process previous = microProcess;
+        if (previous != null && previous.isAlive()) {
+            previous.destroy();
+        }
+        return true;
+    }
+
+    /**
+     * Takes over the standby instance which the port is forwarded to. Its
+     * buffered output is replayed by the stream pumps, and the next standby
+     * instance is booted.
+     */
+    private void adoptStandby(StandbyProcess promoted) {
+        getLog().info("Payara Micro standby instance on port " + promoted.getPort() + " took over");
+        processStartTime = promoted.getStartTime();
+        logReady = true;
+        firstDeployment.set(true);
+        startupReported.set(true);
+        microProcess = promoted.getProcess();
+        redirectStreamToGivenOutputStream(promoted.getInputStream(), System.out);
+        redirectStreamToGivenOutputStream(promoted.getErrorStream(), System.err);
+        bootStandby();
+    }
+
+    /**
+     * Boots the next standby instance in the background, once the running
+     * instance is ready.
+     */
+    private void bootStandby() {
+        if (autoDeployHandler == null || !autoDeployHandler.isAlive()) {
+            return;
+        }
+        processThreads.submit("standby", () -> {
+            try {
+                startStandby();
+            } catch (IOException ex) {
+                getLog().warn("Unable to boot the standby Payara Micro instance", ex);
+            }
+        });
+    }
+
+    /**
+     * @return the standby instance booted with the current boot command
+     * files, which replaces a standby instance booted with other ones
+     */
+    private StandbyProcess startStandby() throws IOException {
+        List<String> args = standbyArgs;
+        if (args == null) {
+            return null;
+        }
+        String key = CdsArchive.key(getStandbyKeyParts(args));
+        synchronized (standbyLock) {
+            if (standbyProcess != null && (!standbyProcess.isAlive() || !standbyProcess.getKey().equals(key))) {
+                getLog().info("Replacing the standby Payara Micro instance on port " + standbyProcess.getPort()
+                        + ", the boot command files have changed");
+                standbyProcess.destroy();
+                standbyProcess = null;
+            }
+            if (standbyProcess == null) {
+                int port = ForwardingProxy.findFreePort();
+                List<String> command = new ArrayList<>(args);
+                setHttpPort(command, port);
+                getLog().info("Booting a standby Payara Micro instance on port " + port);
+                StandbyProcess next = new StandbyProcess(command, port, key, MICRO_READY_MESSAGE, getLog());
+                next.start();
+                standbyProcess = next;
+            }
+            return standbyProcess;
+        }
+    }
+
+    private void discardStandby(StandbyProcess discarded) {
+        synchronized (standbyLock) {
+            if (standbyProcess == discarded) {
+                standbyProcess = null;
+            }
+        }
+        discarded.destroy();
+    }
+
+    private void stopStandby() {
+        StandbyProcess promoted = promotedStandby;
+        if (promoted != null) {
+            promoted.destroy();
+        }
+        synchronized (standbyLock) {
+            if (standbyProcess != null) {
+                standbyProcess.destroy();
+                standbyProcess = null;
+            }
+        }
+        proxy.close();
+    }
+
+    /**
+     * @return the arguments of a launch with the content of its boot command
+     * and domain files
+     */
+    private String[] getStandbyKeyParts(List<String> args) {
+        List<String> keyParts = new ArrayList<>(args);
+        addBootFileContents(keyParts, args);
+        return keyParts.toArray(new String[0]);
+    }
+
+    /**
+     * Sets the HTTP port of a launch, which does not join the cluster of the
+     * other instances of the dev mode.
+     */
+    private static void setHttpPort(List<String> args, int port) {
+        int index = args.lastIndexOf(HTTP_PORT);
+        if (index >= 0 && index < args.size() - 1) {
+            args.set(index + 1, Integer.toString(port));
+        } else {
+            args.add(HTTP_PORT);
+            args.add(Integer.toString(port));
+        }
+        if (!args.contains(NO_CLUSTER)) {
+            args.add(NO_CLUSTER);
+        }
+    }
+
+    /**
+     * @return the URL of the running instance on the forwarded port
+     */
+    private String getForwardedUrl(String url) {
+        try {
+            URL instanceUrl = new URL(url);
+            return new URL(instanceUrl.getProtocol(), instanceUrl.getHost(), proxy.getPort(), instanceUrl.getFile()).toString();
+        } catch (MalformedURLException ex) {
+            return url;
+        }
+    }
+
+    private static String getMicroName(String path) {
+        String name = Paths.get(path).getFileName().toString();
+        if (name.endsWith("." + JAR_EXTENSION)) {
+            name = name.substring(0, name.length() - JAR_EXTENSION.length() - 1);
+        }
+        return name;
+    }
+
     private String findLocalPathOfArtifact(DefaultArtifact artifact) {
         Artifact payaraMicroArtifact = mavenSession.getLocalRepository().find(artifact);
         return payaraMicroArtifact.getFile().getAbsolutePath();
@@ -553,72 +1249,95 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
 
 
     private void redirectStream(final InputStream inputStream, final PrintStream printStream) {
-        final Thread thread = new Thread(threadGroup, () -> {
+        streamThreads.submit("stream", inputStream, () -> {
             BufferedReader br;
-            StringBuilder sb = new StringBuilder();
+            StreamingMatcher readyMatcher = new StreamingMatcher(MICRO_READY_MESSAGE);
 
             String line;
-            try {
+            try (AsyncConsoleSink console = createConsoleSink(printStream)) {
                 br = new BufferedReader(new InputStreamReader(inputStream));
                 while ((line = br.readLine()) != null) {
-                    sb.append(line);
-                    printStream.println(line);
-                    if (!immediateExit && sb.toString().contains(MICRO_READY_MESSAGE)) {
-                        microProcessorThread.interrupt();
-                        br.close();
-                        break;
+                    console.println(line);
+                    int markers = LOG_MARKERS.match(line);
+                    if ((markers & APP_DEPLOYED_MARKER) != 0) {
+                        firstDeployed();
+                    } else if (cdsArchive != null && (markers & CDS_ARCHIVE_UNUSABLE_MARKER) != 0) {
+                        cdsArchive.invalidate();
+                    }
+                    if (!immediateExit && readyMatcher.feed(line)) {
+                        logReady = true;
+                        if (readinessProbe == null) {
+                            // no probe, or the probe gave up: the log decides
+                            startupCompleted();
+                            microProcessorTask.cancel(true);
+                            br.close();
+                            break;
+                        }
                     }
                 }
             } catch (IOException e) {
                 getLog().error(ERROR_MESSAGE, e);
             }
         });
-        thread.setDaemon(false);
-        thread.start();
     }
 
     private void redirectStreamToGivenOutputStream(final InputStream inputStream, final OutputStream outputStream) {
-        Thread thread = new Thread(threadGroup, () -> {
+        streamThreads.submit("stream", inputStream, () -> {
             try {
                 if (liveReload && outputStream instanceof PrintStream) {
                     String line;
                     BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
-                    PrintStream printStream = (PrintStream) outputStream;
-
-                    while ((line = br.readLine()) != null) {
-                        printStream.println(trimLog ? LogUtils.trimLog(line) : line);
-                        if (hostIp == null && line.endsWith(INSTANCE_CONFIGURATION)) {
-                            parseInstanceConfig(br, printStream);
-                        } else if (payaraMicroURL == null && line.contains(PAYARA_MICRO_URLS)) {
-                            parseMicroUrl(br, printStream);
-                        } else if (line.contains(APP_DEPLOYMENT_FAILED)) {
-                            WebDriverFactory.updateTitle(APP_DEPLOYMENT_FAILED_MESSAGE, getEnvironment().getMavenProject(), driver, this.getLog());
-                        } else if (payaraMicroURL != null
-                                && payaraMicroURL.isEmpty()
-                                && driver == null
-                                && line.contains(LOADING_APPLICATION)) {
-                            parseContextRoot(line);
-                        } else if (payaraMicroURL != null
-                                && payaraMicroURL.isEmpty()
-                                && driver == null
-                                && line.contains(APP_DEPLOYED)) {
-                            String appName = parseDeployedApp(line);
-                            if (contextRoot == null) {
-                                contextRoot = contextRoots.get(appName);
+                    StreamingMatcher readyMatcher = new StreamingMatcher(MICRO_READY_MESSAGE);
+                    try (AsyncConsoleSink console = createConsoleSink((PrintStream) outputStream)) {
+                        while ((line = br.readLine()) != null) {
+                            console.println(trimLog ? LogUtils.trimLog(line) : line);
+                            int markers = LOG_MARKERS.match(line);
+                            if ((markers & APP_DEPLOYED_MARKER) != 0) {
+                                firstDeployed();
+                                if (autoDeployHandler != null) {
+                                    autoDeployHandler.deployed();
+                                }
+                            }
+                            if (readinessProbe == null && readyMatcher.feed(line)) {
+                                startupCompleted();
+                            }
+                            if (cdsArchive != null && (markers & CDS_ARCHIVE_UNUSABLE_MARKER) != 0) {
+                                cdsArchive.invalidate();
                             }
-                            openApp();
-                        } else if (payaraMicroURL != null
-                                && !payaraMicroURL.isEmpty()
-                                && driver != null
-                                && line.contains(APP_DEPLOYED)) {
-                            try {
-                                driver.navigate().refresh();
-                            } catch (Exception ex) {
-                                getLog().debug("Error in refreshing with WebDriver", ex);
+                            if (hostIp == null && (markers & INSTANCE_CONFIGURATION_MARKER) != 0
+                                    && line.endsWith(INSTANCE_CONFIGURATION)) {
+                                parseInstanceConfig(br, console);
+                            } else if (payaraMicroURL == null && (markers & PAYARA_MICRO_URLS_MARKER) != 0) {
+                                parseMicroUrl(br, console);
+                            } else if ((markers & APP_DEPLOYMENT_FAILED_MARKER) != 0) {
+                                WebDriverFactory.updateTitle(APP_DEPLOYMENT_FAILED_MESSAGE, getEnvironment().getMavenProject(), driver, this.getLog());
+                            } else if (payaraMicroURL != null
+                                    && payaraMicroURL.isEmpty()
+                                    && driver == null
+                                    && (markers & LOADING_APPLICATION_MARKER) != 0) {
+                                parseContextRoot(line);
+                            } else if (payaraMicroURL != null
+                                    && payaraMicroURL.isEmpty()
+                                    && driver == null
+                                    && (markers & APP_DEPLOYED_MARKER) != 0) {
+                                String appName = parseDeployedApp(line);
+                                if (contextRoot == null) {
+                                    contextRoot = contextRoots.get(appName);
+                                }
+                                openApp();
+                            } else if (payaraMicroURL != null
+                                    && !payaraMicroURL.isEmpty()
+                                    && driver != null
+                                    && (markers & APP_DEPLOYED_MARKER) != 0) {
+                                try {
+                                    driver.navigate().refresh();
+                                } catch (Exception ex) {
+                                    getLog().debug("Error in refreshing with WebDriver", ex);
+                                }
+                            } else if (autoDeploy
+                                    && (markers & INOTIFY_USER_LIMIT_REACHED_MARKER) != 0) {
+                                getLog().error(WATCH_SERVICE_ERROR_MESSAGE);
                             }
-                        } else if (autoDeploy
-                                && line.contains(INOTIFY_USER_LIMIT_REACHED_MESSAGE)) {
-                            getLog().error(WATCH_SERVICE_ERROR_MESSAGE);
                         }
                     }
                 } else {
@@ -628,11 +1347,149 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
                 getLog().error("Error occurred while reading stream", e);
             }
         });
-        thread.setDaemon(false);
-        thread.start();
     }
 
-    private void openApp() {
+    /**
+     * Polls the readiness URL of the started process. The ready message of
+     * the log is only used if the probe times out.
+     */
+    private void probeReadiness(Process process) {
+        ReadinessProbe probe = new ReadinessProbe(readinessEndpoint,
+                readinessTimeout != null ? readinessTimeout : ReadinessProbe.DEFAULT_TIMEOUT, getLog());
+        readinessProbe = probe;
+        streamThreads.submit("readiness", () -> {
+            long readyTime;
+            try {
+                readyTime = probe.await(process::isAlive);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (readyTime < 0) {
+                if (process.isAlive()) {
+                    getLog().warn("Payara Micro is not ready at " + readinessEndpoint + " after " + probe.getAttempts()
+                            + " attempt(s) (last status " + probe.getLastStatus() + "), waiting for the ready message of the log");
+                }
+                readinessProbe = null;
+                if (daemon && logReady) {
+                    microProcessorTask.cancel(true);
+                }
+                return;
+            }
+            long startupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - processStartTime);
+            getLog().info("Payara Micro is ready at " + readinessEndpoint + " after " + startupTime + " ms ("
+                    + probe.getAttempts() + " attempt(s))");
+            startupCompleted();
+            if (daemon) {
+                microProcessorTask.cancel(true);
+            } else if (liveReload) {
+                openAppWithoutLog();
+            }
+        });
+    }
+
+    /**
+     * Opens the application at the host and port of the readiness URL when
+     * the address could not be parsed from the log, e.g. because of a custom
+     * log formatter.
+     */
+    private synchronized void openAppWithoutLog() {
+        if (hostIp == null && payaraMicroURL == null && driver == null) {
+            hostIp = readinessEndpoint.getHost();
+            hostPort = String.valueOf(readinessEndpoint.getPort() != -1 ? readinessEndpoint.getPort() : readinessEndpoint.getDefaultPort());
+            payaraMicroURL = "";
+            openApp();
+        }
+    }
+
+    /**
+     * Records the startup time of the launch once it is ready, as reported by
+     * the readiness probe or else by the log.
+     */
+    private void startupCompleted() {
+        if (startupReported.compareAndSet(false, true)) {
+            long startupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - processStartTime);
+            if (autoDeployHandler != null) {
+                autoDeployHandler.startupMeasured("ready", startupTime);
+            }
+            if (cdsArchive != null) {
+                long saved = cdsArchive.startupMeasured(startupTime);
+                if (saved >= 0 && autoDeployHandler != null) {
+                    autoDeployHandler.startupMeasured("cdsSaved", saved);
+                }
+            }
+            RootDirectoryCache rootDirectory = rootDirectoryCache;
+            if (rootDirectory != null && rootDirectory.isLocked()) {
+                long saved = rootDirectory.startupMeasured(startupTime);
+                if (saved >= 0 && autoDeployHandler != null) {
+                    autoDeployHandler.startupMeasured("rootDirSaved", saved);
+                }
+            }
+            if (proxy != null) {
+                bootStandby();
+            }
+            if (cracCheckpointing) {
+                cracCheckpointing = false;
+                Process process = microProcess;
+                cracCheckpointTask = processThreads.submit("checkpoint", () -> checkpointMicro(process, startupTime));
+            }
+        }
+    }
+
+    /**
+     * Checkpoints the ready instance, which ends the process. The dev mode
+     * loop then starts the next launch from the checkpoint.
+     */
+    private void checkpointMicro(Process process, long startupTime) {
+        CracCheckpoint checkpoint = cracCheckpoint;
+        if (checkpoint == null) {
+            return;
+        }
+        getLog().info("Checkpointing Payara Micro to " + checkpoint.getImageDirectory());
+        long start = System.nanoTime();
+        try {
+            if (checkpoint.checkpoint(process)) {
+                getLog().info("Payara Micro checkpointed in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                        + " ms, the next launches are restored instead of booting for " + startupTime + " ms");
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        getLog().warn("CRaC checkpoint of Payara Micro failed, see its log for the cause. Payara Micro is booted normally from now on.");
+        checkpoint.invalidate();
+        cracCheckpoint = null;
+    }
+
+    private void redeploy() {
+        ReloadMojo reloadMojo = new ReloadMojo(mavenProject, getLog());
+        reloadMojo.setDevMode(true);
+        if (contextRoot != null) {
+            reloadMojo.setContextRoot(contextRoot);
+        }
+        reloadMojo.setKeepState(keepState);
+        try {
+            reloadMojo.execute();
+        } catch (MojoExecutionException ex) {
+            getLog().error("Error invoking Reload", ex);
+        }
+    }
+
+    private void firstDeployed() {
+        if (firstDeployment.compareAndSet(false, true)) {
+            long deployTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - processStartTime);
+            getLog().info("Application deployed " + deployTime + " ms after the start of Payara Micro");
+            if (autoDeployHandler != null) {
+                autoDeployHandler.startupMeasured("firstDeploy", deployTime);
+            }
+        }
+    }
+
+    private AsyncConsoleSink createConsoleSink(PrintStream printStream) {
+        return new AsyncConsoleSink(printStream, consoleBuffer != null ? consoleBuffer : AsyncConsoleSink.DEFAULT_CAPACITY,
+                consoleOverflowPolicy, streamThreads, getLog());
+    }
+
+    private synchronized void openApp() {
         try {
             driver = WebDriverFactory.createWebDriver(browser, getLog());
             String url = PropertiesUtils.getProperty(payaraMicroURL, payaraMicroURL);
@@ -658,31 +1515,32 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
         }
     }
 
-    private void parseInstanceConfig(BufferedReader br, PrintStream printStream) throws IOException {
+    private void parseInstanceConfig(BufferedReader br, AsyncConsoleSink console) throws IOException {
         String hostIpLine = br.readLine();
         String hostPortLine = br.readLine();
-        printStream.println(LogUtils.highlight(hostIpLine));
-        printStream.println(LogUtils.highlight(hostPortLine));
+        console.println(LogUtils.highlight(hostIpLine));
+        console.println(LogUtils.highlight(hostPortLine));
         // Extract IP address
-        Pattern ipRegex = Pattern.compile(HOST_IP_PATTERN);
-        Matcher ipMatcher = ipRegex.matcher(hostIpLine);
+        Matcher ipMatcher = HOST_IP_REGEX.matcher(hostIpLine);
         if (ipMatcher.find()) {
             hostIp = ipMatcher.group(1);
         }
 
         // Extract port
-        Pattern portRegex = Pattern.compile(HOST_PORT_PATTERN);
-        Matcher portMatcher = portRegex.matcher(hostPortLine);
+        Matcher portMatcher = HOST_PORT_REGEX.matcher(hostPortLine);
         if (portMatcher.find()) {
             hostPort = portMatcher.group(1);
         }
     }
 
-    private void parseMicroUrl(BufferedReader br, PrintStream printStream) throws IOException {
+    private void parseMicroUrl(BufferedReader br, AsyncConsoleSink console) throws IOException {
         String line = br.readLine();
         if (line != null) {
             payaraMicroURL = line.trim();
-            printStream.println(LogUtils.highlight(payaraMicroURL));
+            if (proxy != null && !payaraMicroURL.isEmpty()) {
+                payaraMicroURL = getForwardedUrl(payaraMicroURL);
+            }
+            console.println(LogUtils.highlight(payaraMicroURL));
             if (!payaraMicroURL.isEmpty()) {
                 openApp();
             }
@@ -690,8 +1548,7 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     }
 
     private void parseContextRoot(String line) {
-        Pattern appLoadingPattern = Pattern.compile(LOADING_APPLICATION_PATTERN);
-        Matcher appLoadingMatcher = appLoadingPattern.matcher(line);
+        Matcher appLoadingMatcher = LOADING_APPLICATION_REGEX.matcher(line);
 
         if (appLoadingMatcher.find()) {
             String applicationName = appLoadingMatcher.group(1);
@@ -701,8 +1558,7 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
     }
 
     private String parseDeployedApp(String line) {
-        Pattern deploymentPatternO = Pattern.compile(APP_DEPLOYED_PATTERN);
-        Matcher deploymentMatcher = deploymentPatternO.matcher(line);
+        Matcher deploymentMatcher = APP_DEPLOYED_REGEX.matcher(line);
 
         if (deploymentMatcher.find()) {
             String applicationName = deploymentMatcher.group(1);
@@ -731,4 +1587,54 @@ public class StartMojo extends BasePayaraMojo implements StartTask {
         return exploded;
     }
 
+    @Override
+    public boolean isInProcessCompile() {
+        return inProcessCompile;
+    }
+
+    @Override
+    public boolean isWarmBuild() {
+        return warmBuild;
+    }
+
+    @Override
+    public MojoExecutor.ExecutionEnvironment getExecutionEnvironment() {
+        return getEnvironment();
+    }
+
+    @Override
+    public long getWatchQuietPeriod() {
+        return watchQuietPeriod != null ? watchQuietPeriod : StartTask.super.getWatchQuietPeriod();
+    }
+
+    @Override
+    public long getWatchMaxLatency() {
+        return watchMaxLatency != null ? watchMaxLatency : StartTask.super.getWatchMaxLatency();
+    }
+
+    @Override
+    public boolean isWatchPolling() {
+        return watchPolling != null ? watchPolling : StartTask.super.isWatchPolling();
+    }
+
+    @Override
+    public long getWatchPollInterval() {
+        return watchPollInterval != null ? watchPollInterval : StartTask.super.getWatchPollInterval();
+    }
+
+    @Override
+    public List<String> getWatchIncludes() {
+        return watchIncludes != null ? watchIncludes : StartTask.super.getWatchIncludes();
+    }
+
+    @Override
+    public List<String> getWatchExcludes() {
+        return watchExcludes != null ? watchExcludes : StartTask.super.getWatchExcludes();
+    }
+
+    @Override
+    public boolean isContinuousTesting() {
+        return continuousTesting != null ? continuousTesting : StartTask.super.isContinuousTesting();
+    }
+
 }
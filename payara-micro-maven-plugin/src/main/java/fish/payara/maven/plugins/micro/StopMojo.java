@@ -50,6 +50,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 
 import static fish.payara.maven.plugins.micro.Configuration.JAR_EXTENSION;
 import java.util.function.Predicate;
@@ -97,6 +103,11 @@ public class StopMojo extends BasePayaraMojo {
             }
         }
 
+        Path topologyFile = Paths.get(mavenProject.getBuild().getDirectory(), MicroCluster.TOPOLOGY_FILE);
+        if (Files.exists(topologyFile) && stopCluster(topologyFile, re)) {
+            return;
+        }
+
         String executorName;
         if (artifactItem.getGroupId() != null) {
             executorName = artifactItem.getArtifactId();
@@ -119,6 +130,44 @@ public class StopMojo extends BasePayaraMojo {
         }
     }
 
+    /**
+     * Stops the instances of the cluster started by the start-cluster goal,
+     * and deletes its topology file.
+     *
+     * @return false if none of the instances was running
+     */
+    private boolean stopCluster(Path topologyFile, Runtime re) throws MojoExecutionException {
+        Properties topology = new Properties();
+        try (InputStream in = Files.newInputStream(topologyFile)) {
+            topology.load(in);
+        } catch (IOException e) {
+            getLog().error(ERROR_MESSAGE, e);
+            return false;
+        }
+        List<String> pids = new ArrayList<>();
+        try {
+            int instances = Integer.parseInt(topology.getProperty("instances", "0"));
+            for (int i = 1; i <= instances; i++) {
+                String pid = topology.getProperty("instance." + i + ".pid");
+                if (pid != null && isProcessRunning(pid, re)) {
+                    killProcess(pid);
+                    pids.add(pid);
+                }
+            }
+            for (String pid : pids) {
+                waitForProcessToStop(pid, re);
+            }
+            Files.deleteIfExists(topologyFile);
+        } catch (IOException | NumberFormatException e) {
+            getLog().error(ERROR_MESSAGE, e);
+        }
+        if (!pids.isEmpty()) {
+            getLog().info("Stopped " + pids.size() + " instance(s) of the Payara Micro cluster "
+                    + topology.getProperty("cluster.name"));
+        }
+        return !pids.isEmpty();
+    }
+
     private String getProcessIdToKill(String executorName, Runtime re) throws IOException {
         String lineWithPid = getLineFromJpsOutput(re, line -> line.contains(executorName));
         if (lineWithPid != null) {
@@ -69,6 +69,15 @@ public class MicroMojoTest extends AbstractMojoTest {
         assertNotNull(stop);
     }
 
+    @Test
+    public void testStartClusterMicro() throws Exception {
+        StartClusterMojo startCluster = getMojo(
+                "payara-micro/pom-without-config.xml",
+                "start-cluster", StartClusterMojo.class
+        );
+        assertNotNull(startCluster);
+    }
+
     @Test
     public void testBundleMicro() throws Exception {
         BundleMojo bundle = getMojo(
@@ -40,13 +40,14 @@ package fish.payara.maven.plugins.server;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
 /**
  * Run mojo that executes payara-server in dev mode
  *
  * @author Gaurav Gupta
  */
-@Mojo(name = "dev")
+@Mojo(name = "dev", requiresDependencyResolution = ResolutionScope.COMPILE)
 public class DevMojo extends StartMojo {
 
     @Override
@@ -64,6 +65,12 @@ public class DevMojo extends StartMojo {
         if (trimLog == null) {
             trimLog = true;
         }
+        if (inProcessCompile == null) {
+            inProcessCompile = true;
+        }
+        if (warmBuild == null) {
+            warmBuild = true;
+        }
         super.execute();
     }
 }
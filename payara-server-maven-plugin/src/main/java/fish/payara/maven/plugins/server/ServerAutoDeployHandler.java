@@ -38,7 +38,9 @@
 package fish.payara.maven.plugins.server;
 
 import java.io.File;
+import java.util.Collection;
 import fish.payara.maven.plugins.AutoDeployHandler;
+import fish.payara.maven.plugins.Source;
 import fish.payara.maven.plugins.WebDriverFactory;
 
 /**
@@ -56,7 +58,7 @@ public class ServerAutoDeployHandler extends AutoDeployHandler {
     }
 
     @Override
-    public void reload(boolean rebootRequired) {
+    public void reload(boolean rebootRequired, Collection<Source> changes) {
         WebDriverFactory.updateTitle(RELOADING, project, start.getDriver(), log);
         start.deployApplication();
         WebDriverFactory.updateTitle("", project, start.getDriver(), log);
@@ -43,10 +43,14 @@ import fish.payara.maven.plugins.server.manager.RemoteInstanceManager;
 import fish.payara.maven.plugins.server.manager.PayaraServerLocalInstance;
 import fish.payara.maven.plugins.server.manager.LocalInstanceManager;
 import fish.payara.maven.plugins.server.manager.InstanceManager;
+import fish.payara.maven.plugins.AsyncConsoleSink;
 import fish.payara.maven.plugins.AutoDeployHandler;
 import fish.payara.maven.plugins.LogUtils;
+import fish.payara.maven.plugins.MarkerMatcher;
+import fish.payara.maven.plugins.ProcessThreads;
 import fish.payara.maven.plugins.PropertiesUtils;
 import fish.payara.maven.plugins.StartTask;
+import fish.payara.maven.plugins.StreamingMatcher;
 import fish.payara.maven.plugins.WebDriverFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.maven.artifact.Artifact;
@@ -62,6 +66,9 @@ import org.twdata.maven.mojoexecutor.MojoExecutor;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static fish.payara.maven.plugins.server.Configuration.*;
@@ -89,6 +96,12 @@ public class StartMojo extends ServerMojo implements StartTask {
 
     private static final String ERROR_MESSAGE = "Errors occurred while executing payara-server.";
     private static final String REMOTE_INSTANCE_NOT_RUNNING_MESSAGE = "The remote Payara server instance is not running.";
+    // the bits of the markers are in the order of the constructor arguments
+    private static final MarkerMatcher LOG_MARKERS = new MarkerMatcher(APP_DEPLOYED, APP_DEPLOYMENT_FAILED,
+            INOTIFY_USER_LIMIT_REACHED_MESSAGE);
+    private static final int APP_DEPLOYED_MARKER = 1;
+    private static final int APP_DEPLOYMENT_FAILED_MARKER = 1 << 1;
+    private static final int INOTIFY_USER_LIMIT_REACHED_MARKER = 1 << 2;
 
     /**
      * Runs Payara server as a daemon (background process).
@@ -138,6 +151,85 @@ public class StartMojo extends ServerMojo implements StartTask {
     @Parameter(property = "payara.hot.deploy", defaultValue = "${env.PAYARA_HOT_DEPLOY}")
     protected boolean hotDeploy;
 
+    /**
+     * Compiles changed Java sources with an in-process compiler instead of
+     * forking a Maven build for each change.
+     */
+    @Parameter(property = "payara.in.process.compile", defaultValue = "${env.PAYARA_IN_PROCESS_COMPILE}")
+    protected Boolean inProcessCompile;
+
+    /**
+     * Runs dev mode rebuilds inside the running Maven JVM instead of forking
+     * a new Maven build for each change.
+     */
+    @Parameter(property = "payara.warm.build", defaultValue = "${env.PAYARA_WARM_BUILD}")
+    protected Boolean warmBuild;
+
+    /**
+     * Time without file changes (in milliseconds) after which dev mode starts
+     * a build for the collected changes.
+     */
+    @Parameter(property = "payara.watch.quiet.period", defaultValue = "${env.PAYARA_WATCH_QUIET_PERIOD}")
+    protected Long watchQuietPeriod;
+
+    /**
+     * Maximum time (in milliseconds) a build is delayed by a continuous
+     * stream of file changes.
+     */
+    @Parameter(property = "payara.watch.max.latency", defaultValue = "${env.PAYARA_WATCH_MAX_LATENCY}")
+    protected Long watchMaxLatency;
+
+    /**
+     * Detect file changes by polling the project directories instead of the
+     * native watch service. Polling is also used when the inotify limits are
+     * reached.
+     */
+    @Parameter(property = "payara.watch.polling", defaultValue = "${env.PAYARA_WATCH_POLLING}")
+    protected Boolean watchPolling;
+
+    /**
+     * Time (in milliseconds) between two scans of the project directories
+     * when polling for file changes.
+     */
+    @Parameter(property = "payara.watch.poll.interval", defaultValue = "${env.PAYARA_WATCH_POLL_INTERVAL}")
+    protected Long watchPollInterval;
+
+    /**
+     * Globs, relative to the project directory, of the files whose changes
+     * trigger a build. All files are watched if empty.
+     */
+    @Parameter(property = "payara.watch.includes")
+    protected List<String> watchIncludes;
+
+    /**
+     * Globs, relative to the project directory, of the files and directories
+     * excluded from watching, in addition to the build directory, IDE
+     * metadata, VCS directories, node_modules and the .gitignore entries.
+     */
+    @Parameter(property = "payara.watch.excludes")
+    protected List<String> watchExcludes;
+
+    /**
+     * Runs the tests affected by each dev mode build in the background,
+     * without delaying the redeploy.
+     */
+    @Parameter(property = "payara.continuous.testing", defaultValue = "${env.PAYARA_CONTINUOUS_TESTING}")
+    protected Boolean continuousTesting;
+
+    /**
+     * The number of server output lines buffered while the console is busy.
+     */
+    @Parameter(property = "payara.console.buffer", defaultValue = "${env.PAYARA_CONSOLE_BUFFER}")
+    protected Integer consoleBuffer;
+
+    /**
+     * What happens to server output when the console buffer is full:
+     * {@code block} (default) waits for the console, {@code drop-debug} drops
+     * debug lines and {@code sample} keeps one line in ten.
+     */
+    @Parameter(property = "payara.console.overflow", defaultValue = "${env.PAYARA_CONSOLE_OVERFLOW}")
+    protected String consoleOverflow;
+
     /**
      * The directory where the web application is built.
      * Default value points to the exploded directory.
@@ -183,8 +275,11 @@ public class StartMojo extends ServerMojo implements StartTask {
     public Integer httpReadTimeout;
 
     private Process serverProcess;
-    private Thread serverProcessorThread;
-    private final ThreadGroup threadGroup;
+    private volatile Future<?> serverProcessorTask;
+    private AsyncConsoleSink.OverflowPolicy consoleOverflowPolicy;
+    private Future<?> asadminWatcherTask;
+    private final ProcessThreads processThreads;
+    private final ProcessThreads streamThreads;
     private AutoDeployHandler autoDeployHandler;
     private WebDriver driver;
     private String applicationURL;
@@ -193,7 +288,8 @@ public class StartMojo extends ServerMojo implements StartTask {
     private PayaraServerInstance instance;
     
     StartMojo() {
-        threadGroup = new ThreadGroup(SERVER_THREAD_NAME);
+        processThreads = new ProcessThreads(SERVER_THREAD_NAME);
+        streamThreads = new ProcessThreads(SERVER_THREAD_NAME + "-io");
         if (debug == null || debug.isEmpty()) {
             debug = "false";
         }
@@ -213,6 +309,12 @@ public class StartMojo extends ServerMojo implements StartTask {
         if (trimLog == null) {
             trimLog = false;
         }
+        try {
+            consoleOverflowPolicy = AsyncConsoleSink.OverflowPolicy.of(consoleOverflow);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException("Unknown console overflow policy " + consoleOverflow
+                    + ", expected block, drop-debug or sample");
+        }
         if (autoDeploy == null) {
             autoDeploy = false;
         }
@@ -222,11 +324,15 @@ public class StartMojo extends ServerMojo implements StartTask {
         if (keepState == null) {
             keepState = false;
         }
+        if (inProcessCompile == null) {
+            inProcessCompile = false;
+        }
+        if (warmBuild == null) {
+            warmBuild = false;
+        }
         if (autoDeploy && autoDeployHandler == null) {
             autoDeployHandler = new ServerAutoDeployHandler(this, webappDirectory);
-            Thread devModeThread = new Thread(autoDeployHandler);
-            devModeThread.setDaemon(true);
-            devModeThread.start();
+            processThreads.submit("dev", autoDeployHandler);
         } else {
             autoDeployHandler = null;
         }
@@ -236,7 +342,12 @@ public class StartMojo extends ServerMojo implements StartTask {
             return;
         }
 
-        serverProcessorThread = new Thread(threadGroup, () -> {
+        Runnable serverProcessor = () -> {
+            // the pumps and log tailers of a previous run may still be
+            // blocked on their streams
+            streamThreads.cancel();
+            getLog().debug(ProcessThreads.getActiveCount() + " process thread(s) active"
+                    + (ProcessThreads.isVirtual() ? " on virtual threads" : ""));
             if (remote) {
                 instance = new PayaraServerRemoteInstance(hostName);
                 instance.setAdminUser(adminUser);
@@ -257,13 +368,14 @@ public class StartMojo extends ServerMojo implements StartTask {
                 }
                 serverManager = new RemoteInstanceManager((PayaraServerRemoteInstance) instance, getLog());
                 if (serverManager.isServerAlreadyRunning()) {
-                    Thread logThread = streamRemoteServerLog();
+                    Future<?> logTask = streamRemoteServerLog();
                     appPath = evaluateProjectArtifactAbsolutePath("." + mavenProject.getPackaging());
                     projectName = mavenProject.getName().replaceAll("\\s+", "");
                     deployApplication();
                     openApp();
                     try {
-                        logThread.join();
+                        logTask.get();
+                    } catch (CancellationException | ExecutionException ignored) {
                     } catch (InterruptedException e) {
                         e.printStackTrace();
                     }
@@ -329,26 +441,28 @@ public class StartMojo extends ServerMojo implements StartTask {
                     }
                 }
             }
-        });
+        };
 
         if (daemon) {
-            serverProcessorThread.setDaemon(true);
-            serverProcessorThread.start();
+            serverProcessorTask = processThreads.submit("process", serverProcessor);
 
             if (!immediateExit) {
                 try {
-                    serverProcessorThread.join();
+                    serverProcessorTask.get();
+                } catch (CancellationException ignored) {
                 } catch (InterruptedException e) {
                     e.printStackTrace();
+                } catch (ExecutionException e) {
+                    getLog().error(ERROR_MESSAGE, e.getCause());
                 }
             }
         } else {
             Runtime.getRuntime().addShutdownHook(killServerProcess());
-            serverProcessorThread.run();
+            serverProcessor.run();
 
             if (autoDeploy) {
                 while (autoDeployHandler.isAlive()) {
-                    serverProcessorThread.run();
+                    serverProcessor.run();
                 }
             }
         }
@@ -363,7 +477,7 @@ public class StartMojo extends ServerMojo implements StartTask {
     }
 
     private Thread killServerProcess() {
-        return new Thread(threadGroup, () -> {
+        return new Thread(() -> {
             if (serverProcess != null && serverProcess.isAlive()) {
                 try {
                     serverManager.undeployApplication(projectName, instanceName);
@@ -522,7 +636,11 @@ public class StartMojo extends ServerMojo implements StartTask {
     }
 
     private void watchAsadminCommand() {
-        Thread thread = new Thread(threadGroup, () -> {
+        if (asadminWatcherTask != null && !asadminWatcherTask.isDone()) {
+            // System.in can not be closed, keep the watcher of the first run
+            return;
+        }
+        asadminWatcherTask = processThreads.submit("asadmin", () -> {
             try (Scanner scanner = new Scanner(System.in)) {
                 String userQuery = null;
 
@@ -563,13 +681,10 @@ public class StartMojo extends ServerMojo implements StartTask {
                 }
             }
         });
-
-        thread.setDaemon(false);
-        thread.start();
     }
 
-    private Thread streamRemoteServerLog() {
-        final Thread thread = new Thread(threadGroup, () -> {
+    private Future<?> streamRemoteServerLog() {
+        return streamThreads.submit("log", () -> {
             try {
                 while (true) {
                     String log = ((RemoteInstanceManager) serverManager).fetchLogs(instanceName);
@@ -582,13 +697,10 @@ public class StartMojo extends ServerMojo implements StartTask {
                 Thread.currentThread().interrupt();
             }
         });
-        thread.setDaemon(false);
-        thread.start();
-        return thread;
     }
 
     private void streamLocalServerLog(PayaraServerLocalInstance instance) {
-        final Thread thread = new Thread(threadGroup, () -> {
+        streamThreads.submit("log", () -> {
             File logFile = new File(instance.getServerLog());
             if (logFile.exists()) {
                 try (RandomAccessFile raf = new RandomAccessFile(logFile, "r")) {
@@ -609,23 +721,20 @@ public class StartMojo extends ServerMojo implements StartTask {
                 getLog().warn("Log file does not exist: " + logFile.getAbsolutePath());
             }
         });
-        thread.setDaemon(false);
-        thread.start();
     }
 
     private void redirectStream(final InputStream inputStream, final PrintStream printStream) {
-        final Thread thread = new Thread(threadGroup, () -> {
+        streamThreads.submit("stream", inputStream, () -> {
             BufferedReader br;
-            StringBuilder sb = new StringBuilder();
+            StreamingMatcher readyMatcher = new StreamingMatcher(SERVER_READY_MESSAGE);
 
             String line;
-            try {
+            try (AsyncConsoleSink console = createConsoleSink(printStream)) {
                 br = new BufferedReader(new InputStreamReader(inputStream));
                 while ((line = br.readLine()) != null) {
-                    sb.append(line);
-                    printStream.println(line);
-                    if (!immediateExit && sb.toString().contains(SERVER_READY_MESSAGE)) {
-                        serverProcessorThread.interrupt();
+                    console.println(line);
+                    if (!immediateExit && readyMatcher.feed(line)) {
+                        serverProcessorTask.cancel(true);
                         br.close();
                         break;
                     }
@@ -634,34 +743,36 @@ public class StartMojo extends ServerMojo implements StartTask {
                 getLog().error(ERROR_MESSAGE, e);
             }
         });
-        thread.setDaemon(false);
-        thread.start();
     }
 
     private void redirectStreamToGivenOutputStream(final InputStream inputStream, final OutputStream outputStream) {
-        Thread thread = new Thread(threadGroup, () -> {
+        streamThreads.submit("stream", inputStream, () -> {
             try {
                 if (liveReload && outputStream instanceof PrintStream) {
                     String line;
                     BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
-                    PrintStream printStream = (PrintStream) outputStream;
-
-                    while ((line = br.readLine()) != null) {
-                        printStream.println(trimLog ? LogUtils.trimLog(line) : line);
-                        if (line.contains(APP_DEPLOYMENT_FAILED)) {
-                            WebDriverFactory.updateTitle(APP_DEPLOYMENT_FAILED_MESSAGE, getEnvironment().getMavenProject(), driver, this.getLog());
-                        } else if (applicationURL != null
-                                && !applicationURL.isEmpty()
-                                && driver != null
-                                && line.contains(APP_DEPLOYED)) {
-                            try {
-                                driver.navigate().refresh();
-                            } catch (Exception ex) {
-                                getLog().debug("Error in refreshing with WebDriver", ex);
+                    try (AsyncConsoleSink console = createConsoleSink((PrintStream) outputStream)) {
+                        while ((line = br.readLine()) != null) {
+                            console.println(trimLog ? LogUtils.trimLog(line) : line);
+                            int markers = LOG_MARKERS.match(line);
+                            if (autoDeployHandler != null && (markers & APP_DEPLOYED_MARKER) != 0) {
+                                autoDeployHandler.deployed();
+                            }
+                            if ((markers & APP_DEPLOYMENT_FAILED_MARKER) != 0) {
+                                WebDriverFactory.updateTitle(APP_DEPLOYMENT_FAILED_MESSAGE, getEnvironment().getMavenProject(), driver, this.getLog());
+                            } else if (applicationURL != null
+                                    && !applicationURL.isEmpty()
+                                    && driver != null
+                                    && (markers & APP_DEPLOYED_MARKER) != 0) {
+                                try {
+                                    driver.navigate().refresh();
+                                } catch (Exception ex) {
+                                    getLog().debug("Error in refreshing with WebDriver", ex);
+                                }
+                            } else if (autoDeploy
+                                    && (markers & INOTIFY_USER_LIMIT_REACHED_MARKER) != 0) {
+                                getLog().error(WATCH_SERVICE_ERROR_MESSAGE);
                             }
-                        } else if (autoDeploy
-                                && line.contains(INOTIFY_USER_LIMIT_REACHED_MESSAGE)) {
-                            getLog().error(WATCH_SERVICE_ERROR_MESSAGE);
                         }
                     }
                 } else {
@@ -671,8 +782,11 @@ public class StartMojo extends ServerMojo implements StartTask {
                 getLog().error("Error occurred while reading stream", e);
             }
         });
-        thread.setDaemon(false);
-        thread.start();
+    }
+
+    private AsyncConsoleSink createConsoleSink(PrintStream printStream) {
+        return new AsyncConsoleSink(printStream, consoleBuffer != null ? consoleBuffer : AsyncConsoleSink.DEFAULT_CAPACITY,
+                consoleOverflowPolicy, streamThreads, getLog());
     }
 
     private void openApp() {
@@ -721,4 +835,54 @@ public class StartMojo extends ServerMojo implements StartTask {
         return exploded;
     }
 
+    @Override
+    public boolean isInProcessCompile() {
+        return inProcessCompile;
+    }
+
+    @Override
+    public boolean isWarmBuild() {
+        return warmBuild;
+    }
+
+    @Override
+    public MojoExecutor.ExecutionEnvironment getExecutionEnvironment() {
+        return getEnvironment();
+    }
+
+    @Override
+    public long getWatchQuietPeriod() {
+        return watchQuietPeriod != null ? watchQuietPeriod : StartTask.super.getWatchQuietPeriod();
+    }
+
+    @Override
+    public long getWatchMaxLatency() {
+        return watchMaxLatency != null ? watchMaxLatency : StartTask.super.getWatchMaxLatency();
+    }
+
+    @Override
+    public boolean isWatchPolling() {
+        return watchPolling != null ? watchPolling : StartTask.super.isWatchPolling();
+    }
+
+    @Override
+    public long getWatchPollInterval() {
+        return watchPollInterval != null ? watchPollInterval : StartTask.super.getWatchPollInterval();
+    }
+
+    @Override
+    public List<String> getWatchIncludes() {
+        return watchIncludes != null ? watchIncludes : StartTask.super.getWatchIncludes();
+    }
+
+    @Override
+    public List<String> getWatchExcludes() {
+        return watchExcludes != null ? watchExcludes : StartTask.super.getWatchExcludes();
+    }
+
+    @Override
+    public boolean isContinuousTesting() {
+        return continuousTesting != null ? continuousTesting : StartTask.super.isContinuousTesting();
+    }
+
 }